@@ -0,0 +1,194 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.BookAmount;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory read model of the copies on the shelf per book, kept up to date by the book and borrow services
+ * after commit. Answers availability lookups without touching the database.
+ * <p>
+ * Book IDs sit in an open-addressing table of primitive longs with the amounts in a parallel array.
+ * Reads take the current table from a volatile field and probe it without locking or writing shared state,
+ * so they scale with cores. Writers are serialized: a new amount is an atomic store into the current table,
+ * a new book is stored amount first and ID second, so a reader that finds the ID also sees its amount, and
+ * a full table is copied into a larger one that is published as a whole. A removed book keeps its slot with
+ * an unknown amount until the next copy drops it.
+ */
+@Component
+public class BookAvailability {
+
+    // Amount of a book that is not in the model
+    public static final int UNKNOWN = -1;
+
+    private volatile Table table = new Table(1024);
+    // Also receives updates while a rebuild scans the books, so they are not lost when it is swapped in
+    private volatile Table rebuilding;
+
+    // False until the first rebuild from the database has finished
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return table.live;
+    }
+
+    // Copies on the shelf, or UNKNOWN if the book is not in the model
+    public int amountOf(Long bookId) {
+        return table.get(bookId);
+    }
+
+    public boolean contains(Long bookId) {
+        return table.get(bookId) != UNKNOWN;
+    }
+
+    // Records a new book or the amount of a known one
+    public synchronized void put(Long bookId, int amount) {
+        table = table.put(bookId, amount);
+        if (rebuilding != null) {
+            rebuilding = rebuilding.put(bookId, amount);
+        }
+    }
+
+    // Copies taken (negative) or brought back, ignored for books not in the model
+    public synchronized void adjust(Long bookId, int delta) {
+        table.adjust(bookId, delta);
+        if (rebuilding != null) {
+            rebuilding.adjust(bookId, delta);
+        }
+    }
+
+    public synchronized void remove(Long bookId) {
+        table.remove(bookId);
+        if (rebuilding != null) {
+            rebuilding.remove(bookId);
+        }
+    }
+
+    /**
+     * Builds a fresh table from a scan of the books and swaps it in once complete, lookups keep using
+     * the current one meanwhile. A stock change committed while the scan runs can be missed or counted twice
+     * and is corrected by the next rebuild.
+     */
+    public void rebuild(Iterator<BookAmount> books) {
+        synchronized (this) {
+            rebuilding = new Table(Math.max(1024, Integer.highestOneBit(Math.max(table.live, 1)) * 4));
+        }
+        try {
+            books.forEachRemaining(book -> {
+                synchronized (this) {
+                    rebuilding = rebuilding.put(book.getId(), book.getAmount());
+                }
+            });
+            synchronized (this) {
+                table = rebuilding;
+                ready = true;
+            }
+        } finally {
+            synchronized (this) {
+                rebuilding = null;
+            }
+        }
+    }
+
+    private static final class Table {
+
+        // Book IDs start at 1, a zero key marks a free slot
+        private static final long FREE = 0;
+
+        private final AtomicLongArray keys;
+        private final AtomicIntegerArray amounts;
+        private final int mask;
+
+        // Slots taken, including removed books
+        private int used;
+        // Books with a known amount, read without the lock for size()
+        private volatile int live;
+
+        private Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.amounts = new AtomicIntegerArray(capacity);
+            this.mask = capacity - 1;
+        }
+
+        int get(long bookId) {
+            for (int i = home(bookId); ; i = (i + 1) & mask) {
+                long key = keys.get(i);
+                if (key == bookId) {
+                    return amounts.get(i);
+                }
+                if (key == FREE) {
+                    return UNKNOWN;
+                }
+            }
+        }
+
+        // Returns this table, or a larger copy holding the book if this one is half full
+        Table put(long bookId, int amount) {
+            int slot = slot(bookId);
+            if (keys.get(slot) == bookId) {
+                if (amounts.get(slot) == UNKNOWN) {
+                    live++;
+                }
+                amounts.set(slot, amount);
+                return this;
+            }
+            if ((used + 1) * 2 > keys.length()) {
+                Table larger = copy(Math.max(keys.length(), Integer.highestOneBit(live + 1) * 4));
+                return larger.put(bookId, amount);
+            }
+            amounts.set(slot, amount);
+            keys.set(slot, bookId);
+            used++;
+            live++;
+            return this;
+        }
+
+        void adjust(long bookId, int delta) {
+            int slot = slot(bookId);
+            if (keys.get(slot) == bookId && amounts.get(slot) != UNKNOWN) {
+                // A drifted amount never goes negative, that would read as an unknown book
+                amounts.set(slot, Math.max(0, amounts.get(slot) + delta));
+            }
+        }
+
+        void remove(long bookId) {
+            int slot = slot(bookId);
+            if (keys.get(slot) == bookId && amounts.get(slot) != UNKNOWN) {
+                amounts.set(slot, UNKNOWN);
+                live--;
+            }
+        }
+
+        // Slot holding the book, or the free slot where it would go
+        private int slot(long bookId) {
+            int i = home(bookId);
+            while (keys.get(i) != bookId && keys.get(i) != FREE) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private Table copy(int capacity) {
+            Table copy = new Table(capacity);
+            for (int i = 0; i < keys.length(); i++) {
+                long key = keys.get(i);
+                int amount = amounts.get(i);
+                if (key != FREE && amount != UNKNOWN) {
+                    copy.put(key, amount);
+                }
+            }
+            return copy;
+        }
+
+        private int home(long bookId) {
+            return (int) ((bookId * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.BookAmount;
+import com.library.library_management.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+// Loads the availability read model at startup and periodically rebuilds it to pick up writes of other instances
+@Component
+public class BookAvailabilitySync {
+
+    private static final Logger log = LoggerFactory.getLogger(BookAvailabilitySync.class);
+
+    @Autowired
+    private BookAvailability bookAvailability;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        rebuild();
+        log.info("Book availability loaded, {} books in {} ms",
+                bookAvailability.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(initialDelayString = "${book.availability.rebuild-interval:PT10M}",
+            fixedDelayString = "${book.availability.rebuild-interval:PT10M}")
+    public void rebuild() {
+        // Streaming query results need an open transaction
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookAmount> books = bookRepository.streamAmounts()) {
+                bookAvailability.rebuild(books.iterator());
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.BorrowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Loads the circulation counters at startup and periodically repairs drift against the database
+@Component
+public class CirculationCounterSync {
+
+    private static final Logger log = LoggerFactory.getLogger(CirculationCounterSync.class);
+
+    @Autowired
+    private CirculationCounters circulationCounters;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        circulationCounters.rebuild(borrowRepository.countOpenBorrowsByBook());
+        log.info("Circulation counters loaded, {} books currently borrowed", circulationCounters.totalOpen());
+    }
+
+    @Scheduled(initialDelayString = "${circulation.reconcile-interval:PT5M}",
+            fixedDelayString = "${circulation.reconcile-interval:PT5M}")
+    public void reconcile() {
+        if (!circulationCounters.isReady()) {
+            return;
+        }
+        int repaired = circulationCounters.reconcile(borrowRepository.countOpenBorrowsByBook());
+        if (repaired > 0) {
+            log.warn("Circulation counters drifted from the database, repaired {} book and title counters", repaired);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.BookBorrowCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory number of open borrows per book and per title, kept up to date by the borrow service after commit.
+ * Answers the title analytics without touching the database.
+ * <p>
+ * Counters are {@link LongAdder}s in {@link ConcurrentHashMap}s, so checkouts and returns take no lock:
+ * different books never contend and the same book or title only contends on a cell. The titles ranked by
+ * count are a snapshot, rebuilt by the first read once it is older than {@code circulation.ranking-refresh},
+ * so reads cost the size of their result. Books and titles without open borrows are dropped by
+ * {@link #reconcile}.
+ */
+@Component
+public class CirculationCounters {
+
+    // Most borrowed first, ties in title order
+    private static final Comparator<Map.Entry<String, Long>> BY_RANK =
+            Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final ConcurrentHashMap<Long, BookCounter> books = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> titles = new ConcurrentHashMap<>();
+
+    @Value("${circulation.ranking-refresh:PT1S}")
+    private Duration rankingRefresh = Duration.ofSeconds(1);
+
+    private volatile Ranking ranking;
+
+    // Drift seen by the previous reconcile, confirmed before it is repaired
+    private Map<Long, Long> driftedBooks = Map.of();
+    private Map<String, Long> driftedTitles = Map.of();
+
+    // False until the first rebuild from the database has finished
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Returns the title known for the book, or null if the book has no counter
+    public String titleOf(Long bookId) {
+        BookCounter counter = books.get(bookId);
+        return counter == null ? null : counter.title;
+    }
+
+    // Copies of the book out on loan, 0 for a book without a counter
+    public long openBorrows(Long bookId) {
+        BookCounter counter = books.get(bookId);
+        return counter == null ? 0 : Math.max(0, counter.open.sum());
+    }
+
+    public void borrowed(Long bookId, String title, long copies) {
+        BookCounter counter = books.computeIfAbsent(bookId, id -> new BookCounter(title));
+        counter.open.add(copies);
+        titleCounter(counter.title).add(copies);
+    }
+
+    public void returned(Long bookId, long copies) {
+        BookCounter counter = books.get(bookId);
+        if (counter != null) {
+            counter.open.add(-copies);
+            titleCounter(counter.title).add(-copies);
+        }
+    }
+
+    // A borrow of the book racing with its rename may be counted on the old title until the next reconcile
+    public void renamed(Long bookId, String title) {
+        BookCounter counter = books.get(bookId);
+        if (counter != null && !counter.title.equals(title)) {
+            String previous = counter.title;
+            counter.title = title;
+            long open = counter.open.sum();
+            titleCounter(previous).add(-open);
+            titleCounter(title).add(open);
+            ranking = null;
+        }
+    }
+
+    public void removed(Long bookId) {
+        BookCounter counter = books.remove(bookId);
+        if (counter != null) {
+            titleCounter(counter.title).add(-counter.open.sum());
+            ranking = null;
+        }
+    }
+
+    public long totalOpen() {
+        long total = 0;
+        for (LongAdder count : titles.values()) {
+            total += Math.max(0, count.sum());
+        }
+        return total;
+    }
+
+    public Map<String, Long> titlesWithCount(int limit) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : ranking().byCount()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    public List<String> distinctTitles(int limit) {
+        List<String> byTitle = ranking().byTitle();
+        return byTitle.subList(0, Math.min(limit, byTitle.size()));
+    }
+
+    /**
+     * Replaces all counters with the given snapshot of open borrows and marks the counters ready.
+     */
+    public synchronized void rebuild(Collection<BookBorrowCount> snapshot) {
+        books.clear();
+        titles.clear();
+        snapshot.forEach(count -> borrowed(count.getBookId(), count.getTitle(), count.getBorrowCount()));
+        driftedBooks = Map.of();
+        driftedTitles = Map.of();
+        ranking = null;
+        ready = true;
+    }
+
+    /**
+     * Compares the counters with a snapshot of open borrows and repairs the ones that drifted.
+     * Borrows committed while the snapshot was taken look like drift, so a counter is only repaired once two
+     * runs in a row saw the same difference. Repairs add the difference, so borrows counted in between are kept.
+     * Books and titles that have no open borrows in the counters or the snapshot are dropped.
+     *
+     * @return number of book and title counters that were repaired
+     */
+    public synchronized int reconcile(Collection<BookBorrowCount> snapshot) {
+        Map<Long, BookBorrowCount> expected = new HashMap<>();
+        Map<String, Long> expectedTitles = new HashMap<>();
+        snapshot.forEach(count -> {
+            expected.put(count.getBookId(), count);
+            expectedTitles.merge(count.getTitle(), count.getBorrowCount(), Long::sum);
+        });
+
+        int repaired = 0;
+        Map<Long, Long> bookDrift = new HashMap<>();
+        Set<Long> bookIds = new HashSet<>(books.keySet());
+        bookIds.addAll(expected.keySet());
+        for (Long bookId : bookIds) {
+            BookBorrowCount count = expected.get(bookId);
+            BookCounter counter = books.get(bookId);
+            if (count != null && counter != null) {
+                renamed(bookId, count.getTitle());
+            }
+            long drift = (count == null ? 0 : count.getBorrowCount()) - (counter == null ? 0 : counter.open.sum());
+            if (drift == 0) {
+                if (count == null && counter != null && books.remove(bookId, counter)) {
+                    restoreIfBorrowed(bookId, counter);
+                }
+            } else if (!Long.valueOf(drift).equals(driftedBooks.get(bookId))) {
+                bookDrift.put(bookId, drift);
+            } else {
+                borrowed(bookId, count == null ? counter.title : count.getTitle(), drift);
+                repaired++;
+            }
+        }
+
+        // Book repairs above already moved their titles, what is left drifted through renames or drops
+        Map<String, Long> titleDrift = new HashMap<>();
+        Set<String> allTitles = new HashSet<>(titles.keySet());
+        allTitles.addAll(expectedTitles.keySet());
+        for (String title : allTitles) {
+            LongAdder count = titles.get(title);
+            long drift = expectedTitles.getOrDefault(title, 0L) - (count == null ? 0 : count.sum());
+            if (drift == 0) {
+                if (!expectedTitles.containsKey(title) && count != null && titles.remove(title, count)) {
+                    restoreIfBorrowed(title, count);
+                }
+            } else if (!Long.valueOf(drift).equals(driftedTitles.get(title))) {
+                titleDrift.put(title, drift);
+            } else {
+                titleCounter(title).add(drift);
+                repaired++;
+            }
+        }
+
+        driftedBooks = bookDrift;
+        driftedTitles = titleDrift;
+        if (repaired > 0) {
+            ranking = null;
+        }
+        return repaired;
+    }
+
+    // A borrow that found the counter just before it was dropped is moved to the live one
+    private void restoreIfBorrowed(Long bookId, BookCounter dropped) {
+        if (dropped.open.sum() != 0) {
+            books.merge(bookId, dropped, (live, removed) -> {
+                live.open.add(removed.open.sum());
+                return live;
+            });
+        }
+    }
+
+    private void restoreIfBorrowed(String title, LongAdder dropped) {
+        if (dropped.sum() != 0) {
+            titles.merge(title, dropped, (live, removed) -> {
+                live.add(removed.sum());
+                return live;
+            });
+        }
+    }
+
+    private LongAdder titleCounter(String title) {
+        return titles.computeIfAbsent(title, t -> new LongAdder());
+    }
+
+    private Ranking ranking() {
+        Ranking current = ranking;
+        long now = System.nanoTime();
+        if (current == null || now - current.builtAt() > rankingRefresh.toNanos()) {
+            current = Ranking.of(titles, now);
+            ranking = current;
+        }
+        return current;
+    }
+
+    private record Ranking(long builtAt, List<Map.Entry<String, Long>> byCount, List<String> byTitle) {
+
+        private static Ranking of(Map<String, LongAdder> titles, long builtAt) {
+            List<Map.Entry<String, Long>> byCount = new ArrayList<>();
+            titles.forEach((title, count) -> {
+                long open = count.sum();
+                if (open > 0) {
+                    byCount.add(Map.entry(title, open));
+                }
+            });
+            List<String> byTitle = byCount.stream().map(Map.Entry::getKey).sorted().toList();
+            byCount.sort(BY_RANK);
+            return new Ranking(builtAt, List.copyOf(byCount), byTitle);
+        }
+    }
+
+    private static final class BookCounter {
+
+        private final LongAdder open = new LongAdder();
+        private volatile String title;
+
+        private BookCounter(String title) {
+            this.title = title;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.library.library_management.circulation;
+
+/**
+ * Entry of the circulation event log.
+ * IDs that do not apply to the event type are 0, {@code quantity} is the change in stock of a STOCKED event.
+ *
+ * @param sequence  position in the log, starting at 0
+ * @param timestamp epoch milliseconds of the commit the event records
+ */
+public record CirculationEvent(
+        long sequence,
+        Type type,
+        long timestamp,
+        long borrowId,
+        long bookId,
+        long memberId,
+        int quantity
+) {
+
+    public enum Type {
+        // A copy left the shelf for a member
+        BORROWED,
+        // A borrowed copy came back, it either went back to the shelf or to a holder in a following BORROWED event
+        RETURNED,
+        // Copies were added to or taken from the shelf outside of circulation
+        STOCKED,
+        // The book left the catalog
+        REMOVED;
+
+        private static final Type[] VALUES = values();
+
+        // Stored codes start at 1, a zero byte marks the unwritten tail of a segment
+        byte code() {
+            return (byte) (ordinal() + 1);
+        }
+
+        static Type of(byte code) {
+            return code >= 1 && code <= VALUES.length ? VALUES[code - 1] : null;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.exception.EventLogDisabledException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Append-only trail of every borrow, return and stock change, written by the services after commit.
+ * <p>
+ * Callers only put the event on a bounded queue. A single writer thread drains the queue, appends whatever
+ * has piled up to the memory-mapped {@link LogSegments} and syncs the batch to disk at once, so the cost of
+ * a sync is shared by every event committed meanwhile. Readers see events once their batch is synced.
+ * Events still queued when the process dies are lost, the database stays the source of truth.
+ * <p>
+ * Events are logged in the order their after-commit callbacks ran, which is not always the order of the
+ * commits: a return racing with the callback of its borrow can be logged first. {@link CirculationState}
+ * replays the log with that in mind.
+ */
+@Component
+public class CirculationEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(CirculationEventLog.class);
+
+    // Events appended between two syncs at most
+    private static final int MAX_BATCH = 4096;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentBytes;
+    private final BlockingQueue<Pending> queue;
+
+    private LogSegments segments;
+    private Thread writer;
+    private volatile boolean running;
+    private boolean startedEmpty;
+
+    // Number of events synced to disk and visible to readers
+    private volatile long size;
+
+    public CirculationEventLog(@Value("${event-log.enabled:true}") boolean enabled,
+                               @Value("${event-log.directory:data/events}") Path directory,
+                               @Value("${event-log.segment-size:64MB}") DataSize segmentSize,
+                               @Value("${event-log.queue-capacity:65536}") int queueCapacity) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentBytes = segmentSize.toBytes();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            segments = new LogSegments(directory, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the event log in " + directory, e);
+        }
+        size = segments.size();
+        startedEmpty = size == 0;
+        running = true;
+        writer = new Thread(this::write, "circulation-event-log");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Circulation event log opened in {} with {} events", directory, size);
+    }
+
+    // Writes out the queued events before returning
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join();
+        segments.close();
+        writer = null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // True if there was no log to continue at startup, so it only holds what happened since
+    public boolean startedEmpty() {
+        return startedEmpty;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public void borrowed(Long borrowId, Long bookId, Long memberId) {
+        append(CirculationEvent.Type.BORROWED, borrowId, bookId, memberId, 0);
+    }
+
+    public void returned(Long borrowId, Long bookId, Long memberId) {
+        append(CirculationEvent.Type.RETURNED, borrowId, bookId, memberId, 0);
+    }
+
+    // Copies added to the shelf, or taken from it if negative
+    public void stocked(Long bookId, int quantity) {
+        append(CirculationEvent.Type.STOCKED, null, bookId, null, quantity);
+    }
+
+    public void removed(Long bookId) {
+        append(CirculationEvent.Type.REMOVED, null, bookId, null, 0);
+    }
+
+    // Up to limit events starting at the given sequence, in log order
+    public List<CirculationEvent> read(long fromSequence, int limit) {
+        long from = Math.max(fromSequence, 0);
+        long to = Math.min(size, from + limit);
+        List<CirculationEvent> events = new ArrayList<>((int) Math.max(to - from, 0));
+        scan(from, to, events::add);
+        return events;
+    }
+
+    /**
+     * Feeds every synced event to the consumer in log order.
+     *
+     * @return the number of events replayed
+     */
+    public long replay(Consumer<CirculationEvent> consumer) {
+        long to = size;
+        scan(0, to, consumer);
+        return to;
+    }
+
+    private void scan(long from, long to, Consumer<CirculationEvent> consumer) {
+        if (!enabled) {
+            throw new EventLogDisabledException("Circulation event log is disabled");
+        }
+        try {
+            segments.read(from, to, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the event log in " + directory, e);
+        }
+    }
+
+    // Blocks the caller only while the queue is full, the writer fell that far behind
+    private void append(CirculationEvent.Type type, Long borrowId, Long bookId, Long memberId, int quantity) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            queue.put(new Pending(type, System.currentTimeMillis(), idOrZero(borrowId), idOrZero(bookId),
+                    idOrZero(memberId), quantity));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted before {} of book {} reached the event log", type, bookId);
+        }
+    }
+
+    private void write() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                for (Pending event : batch) {
+                    segments.append(event.type(), event.timestamp(), event.borrowId(), event.bookId(),
+                            event.memberId(), event.quantity());
+                }
+                segments.force();
+                size = segments.size();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not write {} events to the event log", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static long idOrZero(Long id) {
+        return id == null ? 0 : id;
+    }
+
+    private record Pending(CirculationEvent.Type type, long timestamp, long borrowId, long bookId, long memberId,
+                           int quantity) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.entity.Book;
+import com.library.library_management.repository.BookBorrowCount;
+import com.library.library_management.repository.BookRepository;
+import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.repository.OpenLoan;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Seeds a new event log with the state of the database at startup, every book stocked with its copies
+ * followed by the open borrows, so replaying the log always ends at the full state.
+ * <p>
+ * The seed runs as a lifecycle phase ahead of the web server and the scheduler, so nothing commits while it
+ * reads. A borrow, return or stock change committed meanwhile would be counted by the seed and again by its
+ * own event.
+ */
+@Component
+public class CirculationEventLogSync implements SmartLifecycle {
+
+    // Lower phases start first, the web server starts in a phase close to Integer.MAX_VALUE
+    private static final int PHASE = 0;
+
+    private static final Logger log = LoggerFactory.getLogger(CirculationEventLogSync.class);
+
+    // Books read between persistence context clears
+    private static final int CLEAR_INTERVAL = 1000;
+
+    @Autowired
+    private CirculationEventLog eventLog;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        seed();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void seed() {
+        if (!eventLog.isEnabled() || !eventLog.startedEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        // Streaming query results need an open transaction
+        transactionTemplate.executeWithoutResult(status -> {
+            // Borrowed copies are on the shelf in the seed and leave it again with their BORROWED events
+            Map<Long, Long> borrowed = borrowRepository.countOpenBorrowsByBook().stream()
+                    .collect(Collectors.toMap(BookBorrowCount::getBookId, BookBorrowCount::getBorrowCount));
+            try (Stream<Book> books = bookRepository.streamAll()) {
+                int[] read = {0};
+                books.forEach(book -> {
+                    long copies = book.getAmount() + borrowed.getOrDefault(book.getId(), 0L);
+                    eventLog.stocked(book.getId(), (int) copies);
+                    if (++read[0] % CLEAR_INTERVAL == 0) {
+                        entityManager.clear();
+                    }
+                });
+            }
+            try (Stream<OpenLoan> loans = borrowRepository.streamOpenLoans()) {
+                loans.forEach(loan -> eventLog.borrowed(loan.getId(), loan.getBookId(), loan.getMemberId()));
+            }
+        });
+        log.info("Circulation event log seeded from the database in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,84 @@
+package com.library.library_management.circulation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Open borrows and copies on the shelf per book, rebuilt by replaying the circulation event log.
+ * Not thread-safe, build one per replay.
+ * <p>
+ * The log is in the order the after-commit callbacks ran, not the order of the commits, so a return can come
+ * before the borrow it closes and a borrow or return can come after its book was removed. Stock changes add
+ * up in any order; a return that finds no open borrow is remembered and closes the borrow once it shows up,
+ * and books once removed stay out of the stock.
+ */
+public class CirculationState implements Consumer<CirculationEvent> {
+
+    private final Map<Long, OpenBorrow> openBorrows = new HashMap<>();
+    private final Map<Long, Long> stock = new HashMap<>();
+    // Borrows whose RETURNED event came first
+    private final Set<Long> returnedEarly = new HashSet<>();
+    private final Set<Long> removedBooks = new HashSet<>();
+    private long events;
+
+    public static CirculationState replay(CirculationEventLog eventLog) {
+        CirculationState state = new CirculationState();
+        eventLog.replay(state);
+        return state;
+    }
+
+    @Override
+    public void accept(CirculationEvent event) {
+        events++;
+        switch (event.type()) {
+            case BORROWED -> {
+                if (!returnedEarly.remove(event.borrowId())) {
+                    openBorrows.put(event.borrowId(), new OpenBorrow(event.bookId(), event.memberId()));
+                }
+                addStock(event.bookId(), -1);
+            }
+            case RETURNED -> {
+                if (openBorrows.remove(event.borrowId()) == null) {
+                    returnedEarly.add(event.borrowId());
+                }
+                addStock(event.bookId(), 1);
+            }
+            case STOCKED -> addStock(event.bookId(), event.quantity());
+            case REMOVED -> {
+                stock.remove(event.bookId());
+                removedBooks.add(event.bookId());
+            }
+        }
+    }
+
+    private void addStock(long bookId, long copies) {
+        if (!removedBooks.contains(bookId)) {
+            stock.merge(bookId, copies, Long::sum);
+        }
+    }
+
+    public long events() {
+        return events;
+    }
+
+    // Borrow ID -> book and member of every borrow not returned yet
+    public Map<Long, OpenBorrow> openBorrows() {
+        return Collections.unmodifiableMap(openBorrows);
+    }
+
+    // Book ID -> copies on the shelf, for every book in the catalog
+    public Map<Long, Long> stock() {
+        return Collections.unmodifiableMap(stock);
+    }
+
+    public long copiesOnShelf() {
+        return stock.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public record OpenBorrow(long bookId, long memberId) {
+    }
+}
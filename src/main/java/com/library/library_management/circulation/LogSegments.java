@@ -0,0 +1,234 @@
+package com.library.library_management.circulation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Memory-mapped segment files of the circulation event log, named after the sequence of their first event.
+ * <p>
+ * Events are fixed-size little-endian records: type code (1 byte, 3 unused), quantity (int), timestamp,
+ * borrow ID, book ID and member ID (longs), CRC32C of the first 40 bytes (int, 4 unused). Segments are
+ * preallocated with zeros, so the log ends at the first record with a zero type code or a checksum mismatch,
+ * and the position of any sequence follows from arithmetic without an index.
+ * <p>
+ * Appends come from a single writer thread. Readers must stay below a sequence that has been forced and share
+ * one read-only mapping per segment, made by the first read and kept until the log is closed. Segments are
+ * preallocated, so that mapping also shows what the writer appends later, and readers only use absolute gets.
+ */
+final class LogSegments implements Closeable {
+
+    static final int RECORD_SIZE = 48;
+
+    private static final int CHECKSUMMED_BYTES = 40;
+    private static final String PREFIX = "circulation-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    // First sequence -> segment file
+    private final NavigableMap<Long, Segment> files = new ConcurrentSkipListMap<>();
+
+    // Writer state
+    private final CRC32C writeChecksum = new CRC32C();
+    private final byte[] writeScratch = new byte[CHECKSUMMED_BYTES];
+    private MappedByteBuffer segment;
+    private long segmentFirst;
+    private int segmentRecords;
+    private long next;
+    private int unforcedFrom;
+
+    LogSegments(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = (int) Math.max(1, Math.min(segmentBytes / RECORD_SIZE, Integer.MAX_VALUE / RECORD_SIZE));
+        Files.createDirectories(directory);
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                    files.put(Long.parseLong(name, PREFIX.length(), name.length() - SUFFIX.length(), 10), new Segment(path));
+                }
+            });
+        }
+        if (!files.isEmpty()) {
+            reopenLast();
+        }
+    }
+
+    // Sequence of the next append, also the number of events in the log
+    long size() {
+        return next;
+    }
+
+    void append(CirculationEvent.Type type, long timestamp, long borrowId, long bookId, long memberId, int quantity)
+            throws IOException {
+        if (segment == null || next - segmentFirst == segmentRecords) {
+            roll();
+        }
+        int offset = (int) (next - segmentFirst) * RECORD_SIZE;
+        segment.put(offset, type.code());
+        segment.put(offset + 1, (byte) 0);
+        segment.putShort(offset + 2, (short) 0);
+        segment.putInt(offset + 4, quantity);
+        segment.putLong(offset + 8, timestamp);
+        segment.putLong(offset + 16, borrowId);
+        segment.putLong(offset + 24, bookId);
+        segment.putLong(offset + 32, memberId);
+        segment.get(offset, writeScratch);
+        writeChecksum.reset();
+        writeChecksum.update(writeScratch);
+        segment.putInt(offset + CHECKSUMMED_BYTES, (int) writeChecksum.getValue());
+        next++;
+    }
+
+    // Flushes the records appended since the last call to the disk, one sync for the whole batch
+    void force() {
+        if (segment == null) {
+            return;
+        }
+        int end = (int) (next - segmentFirst) * RECORD_SIZE;
+        if (end > unforcedFrom) {
+            segment.force(unforcedFrom, end - unforcedFrom);
+            unforcedFrom = end;
+        }
+    }
+
+    /**
+     * Calls the consumer for the events from {@code from} up to, not including, {@code to}.
+     * Safe to call while the writer appends as long as {@code to} has been forced.
+     */
+    void read(long from, long to, Consumer<CirculationEvent> consumer) throws IOException {
+        CRC32C checksum = new CRC32C();
+        byte[] scratch = new byte[CHECKSUMMED_BYTES];
+        long sequence = from;
+        while (sequence < to) {
+            Map.Entry<Long, Segment> file = files.floorEntry(sequence);
+            if (file == null) {
+                throw new IOException("No segment holds event " + sequence);
+            }
+            long first = file.getKey();
+            MappedByteBuffer buffer = file.getValue().readView();
+            long end = Math.min(to, first + buffer.capacity() / RECORD_SIZE);
+            if (end <= sequence) {
+                throw new IOException("No segment holds event " + sequence);
+            }
+            for (; sequence < end; sequence++) {
+                CirculationEvent event = decode(buffer, (int) (sequence - first) * RECORD_SIZE, sequence,
+                        checksum, scratch);
+                if (event == null) {
+                    throw new IOException("Event " + sequence + " in " + file.getValue().path + " is corrupt");
+                }
+                consumer.accept(event);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        segment = null;
+    }
+
+    // Continues the last segment after its last intact record
+    private void reopenLast() throws IOException {
+        Map.Entry<Long, Segment> last = files.lastEntry();
+        MappedByteBuffer buffer = map(last.getValue().path, FileChannel.MapMode.READ_WRITE);
+        int records = buffer.capacity() / RECORD_SIZE;
+        CRC32C checksum = new CRC32C();
+        byte[] scratch = new byte[CHECKSUMMED_BYTES];
+        int count = 0;
+        while (count < records && decode(buffer, count * RECORD_SIZE, 0, checksum, scratch) != null) {
+            count++;
+        }
+        // A record torn by a crash is wiped with everything after it, a later append must not revive stale bytes
+        if (count < records && buffer.get(count * RECORD_SIZE) != 0) {
+            for (int offset = count * RECORD_SIZE; offset < buffer.capacity(); offset++) {
+                buffer.put(offset, (byte) 0);
+            }
+            buffer.force();
+        }
+        segment = buffer;
+        segmentFirst = last.getKey();
+        segmentRecords = records;
+        next = segmentFirst + count;
+        unforcedFrom = count * RECORD_SIZE;
+    }
+
+    private void roll() throws IOException {
+        force();
+        Path path = directory.resolve(String.format("%s%019d%s", PREFIX, next, SUFFIX));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapping past the end grows the file to its full size up front
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segmentFirst = next;
+        segmentRecords = recordsPerSegment;
+        unforcedFrom = 0;
+        files.put(segmentFirst, new Segment(path));
+    }
+
+    private static MappedByteBuffer map(Path path, FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            MappedByteBuffer buffer = channel.map(mode, 0, channel.size() - channel.size() % RECORD_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    // Null for an unwritten or torn record
+    private static CirculationEvent decode(MappedByteBuffer buffer, int offset, long sequence,
+                                           CRC32C checksum, byte[] scratch) {
+        CirculationEvent.Type type = CirculationEvent.Type.of(buffer.get(offset));
+        if (type == null) {
+            return null;
+        }
+        buffer.get(offset, scratch);
+        checksum.reset();
+        checksum.update(scratch);
+        if ((int) checksum.getValue() != buffer.getInt(offset + CHECKSUMMED_BYTES)) {
+            return null;
+        }
+        return new CirculationEvent(sequence, type, buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24), buffer.getLong(offset + 32), buffer.getInt(offset + 4));
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private volatile MappedByteBuffer readView;
+
+        private Segment(Path path) {
+            this.path = path;
+        }
+
+        private MappedByteBuffer readView() throws IOException {
+            MappedByteBuffer view = readView;
+            if (view == null) {
+                synchronized (this) {
+                    view = readView;
+                    if (view == null) {
+                        view = map(path, FileChannel.MapMode.READ_ONLY);
+                        readView = view;
+                    }
+                }
+            }
+            return view;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.repository.MemberLoanCount;
+import com.library.library_management.service.support.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Number of open borrows per member, used for the borrow limit check instead of a count query.
+ * A member's counter is loaded from the database on first use and then only changed by
+ * compare-and-set, so concurrent checkouts by the same member can never exceed the limit.
+ * <p>
+ * The counts are local to this instance and miss borrows and returns made elsewhere, on other instances
+ * or on the reactive stack, until {@link #reconcile} repairs them against the database. Reconciling also
+ * drops members without open borrows, so only active borrowers are kept in memory.
+ */
+@Component
+public class MemberLoanCounter {
+
+    // Marks a counter dropped from the map, holders of it load a fresh one instead
+    private static final int RETIRED = -1;
+
+    private final ConcurrentHashMap<Long, AtomicInteger> loans = new ConcurrentHashMap<>();
+
+    // Drift seen by the previous reconcile, confirmed before it is repaired
+    private final Map<Long, Integer> drifted = new HashMap<>();
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    /**
+     * Reserves loans for the member if that keeps them within the limit.
+     * Inside a transaction the reservation is released again if the transaction rolls back.
+     *
+     * @return false if the member would exceed the limit
+     */
+    public boolean tryAcquire(Long memberId, int copies, int limit) {
+        AtomicInteger count = counter(memberId);
+        while (true) {
+            int current = count.get();
+            if (current == RETIRED) {
+                count = counter(memberId);
+                continue;
+            }
+            if (current + copies > limit) {
+                return false;
+            }
+            if (count.compareAndSet(current, current + copies)) {
+                break;
+            }
+        }
+        TransactionCallbacks.afterRollback(() -> release(memberId, copies));
+        return true;
+    }
+
+    public void release(Long memberId, int copies) {
+        AtomicInteger count = loans.get(memberId);
+        if (count != null) {
+            count.updateAndGet(current -> current == RETIRED ? RETIRED : Math.max(0, current - copies));
+        }
+    }
+
+    public int activeLoans(Long memberId) {
+        while (true) {
+            int current = counter(memberId).get();
+            if (current != RETIRED) {
+                return current;
+            }
+        }
+    }
+
+    public void evict(Long memberId) {
+        loans.remove(memberId);
+    }
+
+    /**
+     * Compares the counters with the open borrows per member from the database and repairs the ones that drifted.
+     * Borrows still in flight while the query runs look like drift, so a counter is only repaired once two runs
+     * in a row saw the same difference and it did not change in between. Members without open borrows are dropped.
+     *
+     * @return number of members whose counter was repaired
+     */
+    public synchronized int reconcile(Supplier<? extends Collection<MemberLoanCount>> openBorrowsByMember) {
+        Map<Long, Integer> seen = new HashMap<>();
+        loans.forEach((memberId, count) -> seen.put(memberId, count.get()));
+
+        Map<Long, Integer> expected = new HashMap<>();
+        openBorrowsByMember.get().forEach(count -> expected.put(count.getMemberId(), count.getLoanCount().intValue()));
+
+        Map<Long, Integer> previous = Map.copyOf(drifted);
+        drifted.clear();
+        int repaired = 0;
+        for (Map.Entry<Long, Integer> entry : seen.entrySet()) {
+            Long memberId = entry.getKey();
+            int current = entry.getValue();
+            int wanted = expected.getOrDefault(memberId, 0);
+            AtomicInteger count = loans.get(memberId);
+            if (count == null || current == RETIRED) {
+                continue;
+            }
+            if (current != wanted) {
+                // The difference stays the same while the member keeps borrowing, the counts themselves do not
+                if (!Integer.valueOf(wanted - current).equals(previous.get(memberId))) {
+                    drifted.put(memberId, wanted - current);
+                    continue;
+                }
+                if (!count.compareAndSet(current, wanted)) {
+                    continue;
+                }
+                repaired++;
+            }
+            if (wanted == 0 && count.compareAndSet(0, RETIRED)) {
+                loans.remove(memberId, count);
+            }
+        }
+        return repaired;
+    }
+
+    private AtomicInteger counter(Long memberId) {
+        AtomicInteger count = loans.get(memberId);
+        if (count != null && count.get() != RETIRED) {
+            return count;
+        }
+        if (count != null) {
+            loans.remove(memberId, count);
+        }
+        // Loaded outside computeIfAbsent so the query never runs while holding a map bin lock
+        int loaded = borrowRepository.countByMemberIdAndReturnDateIsNull(memberId);
+        return loans.computeIfAbsent(memberId, id -> new AtomicInteger(loaded));
+    }
+}
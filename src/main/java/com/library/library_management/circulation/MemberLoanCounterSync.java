@@ -0,0 +1,30 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.BorrowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Periodically repairs the member loan counters against the database and drops idle members
+@Component
+public class MemberLoanCounterSync {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberLoanCounterSync.class);
+
+    @Autowired
+    private MemberLoanCounter memberLoanCounter;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Scheduled(initialDelayString = "${circulation.reconcile-interval:PT5M}",
+            fixedDelayString = "${circulation.reconcile-interval:PT5M}")
+    public void reconcile() {
+        int repaired = memberLoanCounter.reconcile(borrowRepository::countOpenBorrowsByMember);
+        if (repaired > 0) {
+            log.warn("Member loan counters drifted from the database, repaired {} members", repaired);
+        }
+    }
+}
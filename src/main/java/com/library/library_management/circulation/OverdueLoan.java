@@ -0,0 +1,7 @@
+package com.library.library_management.circulation;
+
+import java.time.LocalDate;
+
+// Open loan past its due date, also published as an application event when it becomes overdue
+public record OverdueLoan(Long borrowId, Long bookId, Long memberId, LocalDate dueDate) {
+}
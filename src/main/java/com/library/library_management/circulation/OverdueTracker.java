@@ -0,0 +1,270 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.OpenLoan;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * In-memory schedule of open loans by due date, kept up to date by the borrow services after commit.
+ * Answers which loans are overdue without touching the database.
+ * <p>
+ * Loans wait in a hierarchical timing wheel with day resolution: 64 day slots for the next 64 days,
+ * 64 block slots of 64 days each for the next eleven years, and an overflow list beyond that.
+ * Scheduling and cancelling a loan is O(1), and advancing the clock by a day only touches the loans due
+ * that day plus, every 64 days, the loans cascading down from the next block, so every loan is moved
+ * at most three times before it becomes overdue.
+ */
+@Component
+public class OverdueTracker {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int WHEEL_DAYS = SLOTS * SLOTS;
+
+    private volatile Wheel wheel = new Wheel(LocalDate.now().toEpochDay());
+    // Also receives updates while a rebuild scans the open loans, so they are not lost when it is swapped in
+    private volatile Wheel rebuilding;
+    // Loans returned during the scan, which may still add them from rows read before the return committed
+    private final Set<Long> returnedWhileRebuilding = new HashSet<>();
+
+    // False until the first rebuild from the database has finished
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // The current wheel is read last, so an update that missed the rebuilding one finds it swapped in
+    public void schedule(Long borrowId, Long bookId, Long memberId, LocalDate dueDate) {
+        Wheel next = rebuilding;
+        if (next != null) {
+            next.schedule(new Loan(borrowId, bookId, memberId, dueDate.toEpochDay()));
+        }
+        wheel.schedule(new Loan(borrowId, bookId, memberId, dueDate.toEpochDay()));
+    }
+
+    // Forgets a returned loan, whether it was still scheduled or already overdue
+    public void cancel(Long borrowId) {
+        if (rebuilding != null) {
+            synchronized (returnedWhileRebuilding) {
+                Wheel next = rebuilding;
+                if (next != null) {
+                    returnedWhileRebuilding.add(borrowId);
+                    next.cancel(borrowId);
+                }
+            }
+        }
+        wheel.cancel(borrowId);
+    }
+
+    /**
+     * Moves the clock forward to the given day.
+     *
+     * @return loans that became overdue, a loan is overdue from the day after its due date
+     */
+    public List<OverdueLoan> advanceTo(LocalDate today) {
+        return wheel.advanceTo(today.toEpochDay());
+    }
+
+    // Overdue loans with a borrow ID above the cursor, in borrow ID order
+    public List<OverdueLoan> overdue(Long afterBorrowId, int limit) {
+        return wheel.overdue(afterBorrowId, limit);
+    }
+
+    public int overdueCount() {
+        return wheel.overdueCount();
+    }
+
+    public int scheduledCount() {
+        return wheel.scheduledCount();
+    }
+
+    /**
+     * Builds a fresh schedule from a scan of the open loans and swaps it in once complete.
+     * The scan is started after updates begin to reach the fresh schedule, and loans returned while it runs
+     * are cancelled again before the swap, so no borrow or return is lost.
+     * Loans already past due are marked overdue without being reported by {@link #advanceTo}.
+     */
+    public void rebuild(Consumer<Consumer<OpenLoan>> openLoanScan, LocalDate today) {
+        Wheel fresh = new Wheel(today.toEpochDay());
+        rebuilding = fresh;
+        try {
+            openLoanScan.accept(loan -> fresh.schedule(
+                    new Loan(loan.getId(), loan.getBookId(), loan.getMemberId(), loan.getDueDate().toEpochDay())));
+            synchronized (returnedWhileRebuilding) {
+                returnedWhileRebuilding.forEach(fresh::cancel);
+                wheel = fresh;
+                ready = true;
+            }
+        } finally {
+            synchronized (returnedWhileRebuilding) {
+                rebuilding = null;
+                returnedWhileRebuilding.clear();
+            }
+        }
+    }
+
+    private static final class Wheel {
+
+        private final Bucket[] days = buckets();
+        private final Bucket[] blocks = buckets();
+        private final Bucket far = new Bucket();
+        private final Map<Long, Loan> scheduled = new HashMap<>();
+        private final TreeMap<Long, Loan> overdue = new TreeMap<>();
+
+        // First day whose due loans have not been moved to overdue yet
+        private long cursor;
+
+        private Wheel(long today) {
+            this.cursor = today;
+        }
+
+        synchronized void schedule(Loan loan) {
+            cancel(loan.borrowId);
+            if (loan.dueDay < cursor) {
+                overdue.put(loan.borrowId, loan);
+                return;
+            }
+            scheduled.put(loan.borrowId, loan);
+            place(loan);
+        }
+
+        synchronized void cancel(Long borrowId) {
+            Loan loan = scheduled.remove(borrowId);
+            if (loan != null) {
+                loan.bucket.remove(loan);
+            } else {
+                overdue.remove(borrowId);
+            }
+        }
+
+        synchronized List<OverdueLoan> advanceTo(long today) {
+            List<OverdueLoan> fired = new ArrayList<>();
+            while (cursor < today) {
+                for (Loan loan = days[(int) (cursor & SLOT_MASK)].drain(); loan != null; loan = loan.next) {
+                    scheduled.remove(loan.borrowId);
+                    overdue.put(loan.borrowId, loan);
+                    fired.add(loan.toOverdueLoan());
+                }
+                cursor++;
+                if ((cursor & SLOT_MASK) == 0) {
+                    cascade(blocks[(int) ((cursor >> SLOT_BITS) & SLOT_MASK)]);
+                }
+                if (cursor % WHEEL_DAYS == 0) {
+                    cascade(far);
+                }
+            }
+            return fired;
+        }
+
+        synchronized List<OverdueLoan> overdue(Long afterBorrowId, int limit) {
+            List<OverdueLoan> page = new ArrayList<>(Math.min(limit, overdue.size()));
+            for (Loan loan : overdue.tailMap(afterBorrowId, false).values()) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(loan.toOverdueLoan());
+            }
+            return page;
+        }
+
+        synchronized int overdueCount() {
+            return overdue.size();
+        }
+
+        synchronized int scheduledCount() {
+            return scheduled.size();
+        }
+
+        private void place(Loan loan) {
+            long daysLeft = loan.dueDay - cursor;
+            if (daysLeft < SLOTS) {
+                days[(int) (loan.dueDay & SLOT_MASK)].add(loan);
+            } else if (daysLeft < WHEEL_DAYS) {
+                blocks[(int) ((loan.dueDay >> SLOT_BITS) & SLOT_MASK)].add(loan);
+            } else {
+                far.add(loan);
+            }
+        }
+
+        // Re-files the loans of a coarser slot, they now fall into finer ones
+        private void cascade(Bucket bucket) {
+            Loan loan = bucket.drain();
+            while (loan != null) {
+                Loan next = loan.next;
+                place(loan);
+                loan = next;
+            }
+        }
+
+        private static Bucket[] buckets() {
+            Bucket[] buckets = new Bucket[SLOTS];
+            for (int i = 0; i < SLOTS; i++) {
+                buckets[i] = new Bucket();
+            }
+            return buckets;
+        }
+    }
+
+    // Doubly linked list of loans, so a returned loan is unlinked without searching its slot
+    private static final class Bucket {
+
+        private Loan head;
+
+        void add(Loan loan) {
+            loan.bucket = this;
+            loan.previous = null;
+            loan.next = head;
+            if (head != null) {
+                head.previous = loan;
+            }
+            head = loan;
+        }
+
+        void remove(Loan loan) {
+            if (loan.previous != null) {
+                loan.previous.next = loan.next;
+            } else {
+                head = loan.next;
+            }
+            if (loan.next != null) {
+                loan.next.previous = loan.previous;
+            }
+            loan.bucket = null;
+        }
+
+        // Empties the bucket, the drained loans stay linked through next until they are re-filed
+        Loan drain() {
+            Loan drained = head;
+            head = null;
+            return drained;
+        }
+    }
+
+    private static final class Loan {
+
+        private final Long borrowId;
+        private final Long bookId;
+        private final Long memberId;
+        private final long dueDay;
+
+        private Bucket bucket;
+        private Loan previous;
+        private Loan next;
+
+        private Loan(Long borrowId, Long bookId, Long memberId, long dueDay) {
+            this.borrowId = borrowId;
+            this.bookId = bookId;
+            this.memberId = memberId;
+            this.dueDay = dueDay;
+        }
+
+        OverdueLoan toOverdueLoan() {
+            return new OverdueLoan(borrowId, bookId, memberId, LocalDate.ofEpochDay(dueDay));
+        }
+    }
+}
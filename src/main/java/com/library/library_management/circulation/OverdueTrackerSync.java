@@ -0,0 +1,72 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.repository.OpenLoan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Loads the overdue tracker at startup, moves it to the current day and publishes an {@link OverdueLoan}
+ * event for every loan that became overdue. Periodically rebuilds it to pick up loans of other instances.
+ */
+@Component
+public class OverdueTrackerSync {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueTrackerSync.class);
+
+    @Autowired
+    private OverdueTracker overdueTracker;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        rebuild();
+        log.info("Overdue tracker loaded, {} loans scheduled and {} overdue in {} ms",
+                overdueTracker.scheduledCount(), overdueTracker.overdueCount(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(initialDelayString = "${borrow.overdue.check-interval:PT1M}",
+            fixedDelayString = "${borrow.overdue.check-interval:PT1M}")
+    public void advance() {
+        if (!overdueTracker.isReady()) {
+            return;
+        }
+        List<OverdueLoan> overdue = overdueTracker.advanceTo(LocalDate.now());
+        if (!overdue.isEmpty()) {
+            log.info("{} loans became overdue", overdue.size());
+            overdue.forEach(eventPublisher::publishEvent);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${borrow.overdue.rebuild-interval:PT6H}",
+            fixedDelayString = "${borrow.overdue.rebuild-interval:PT6H}")
+    public void rebuild() {
+        // Streaming query results need an open transaction
+        transactionTemplate.executeWithoutResult(status -> overdueTracker.rebuild(scan -> {
+            try (Stream<OpenLoan> loans = borrowRepository.streamOpenLoans()) {
+                loans.forEach(scan);
+            }
+        }, LocalDate.now()));
+    }
+}
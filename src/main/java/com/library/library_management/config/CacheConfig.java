@@ -0,0 +1,26 @@
+package com.library.library_management.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String BOOKS = "books";
+    public static final String MEMBERS = "members";
+
+    // Puts and evictions made inside a transaction are applied only after it commits
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.spec:maximumSize=10000,expireAfterWrite=10m}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(BOOKS, MEMBERS);
+        cacheManager.setCaffeine(Caffeine.from(spec).recordStats());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,27 @@
+package com.library.library_management.config;
+
+import com.library.library_management.circulation.CirculationCounters;
+import com.library.library_management.circulation.OverdueTracker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Read from the in-memory counters, so scraping never queries the database
+    @Bean
+    public MeterBinder openBorrowsGauge(CirculationCounters circulationCounters) {
+        return registry -> Gauge.builder("library.borrows.open", circulationCounters, CirculationCounters::totalOpen)
+                .description("Books currently borrowed and not yet returned")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder overdueLoansGauge(OverdueTracker overdueTracker) {
+        return registry -> Gauge.builder("library.loans.overdue", overdueTracker, OverdueTracker::overdueCount)
+                .description("Open loans past their due date")
+                .register(registry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.library.library_management.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaginationProperties {
+
+    // Page size used when the client does not ask for one
+    @Value("${pagination.default-size:50}")
+    private int defaultSize = 50;
+
+    // Hard upper limit for a single page, whatever the client asks for
+    @Value("${pagination.max-size:500}")
+    private int maxSize = 500;
+
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return defaultSize;
+        }
+        return Math.min(requested, maxSize);
+    }
+}
@@ -0,0 +1,40 @@
+package com.library.library_management.config;
+
+import com.library.library_management.controller.support.RateLimitInterceptor;
+import com.library.library_management.controller.support.TokenBucketLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Keeps clients in tight loops from starving the connection pool, borrows and returns have a smaller budget than reads
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    @Value("${rate-limit.max-clients:100000}")
+    private long maxClients;
+
+    @Value("${rate-limit.read.per-second:50}")
+    private double readsPerSecond;
+
+    @Value("${rate-limit.read.burst:200}")
+    private int readBurst;
+
+    @Value("${rate-limit.write.per-second:5}")
+    private double writesPerSecond;
+
+    @Value("${rate-limit.write.burst:20}")
+    private int writeBurst;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(
+                        new TokenBucketLimiter(readsPerSecond, readBurst, maxClients),
+                        new TokenBucketLimiter(writesPerSecond, writeBurst, maxClients)))
+                .addPathPatterns("/api/v1/borrows/**", "/api/v1/holds/**", "/api/v1/books", "/api/v1/books/search");
+    }
+}
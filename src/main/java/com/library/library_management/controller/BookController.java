@@ -1,8 +1,14 @@
 package com.library.library_management.controller;
 
+import com.library.library_management.dto.BookAvailabilityRequest;
+import com.library.library_management.dto.BookAvailabilityResponse;
+import com.library.library_management.dto.BookImportFormat;
+import com.library.library_management.dto.BookImportResponse;
 import com.library.library_management.dto.BookResponse;
 import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.dto.PageResponse;
 import com.library.library_management.dto.UpdateBookRequest;
+import com.library.library_management.exception.BookVersionMismatchException;
 import com.library.library_management.service.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,14 +16,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RequestMapping("/api/v1/books")
 @RestController
+@Profile("!reactive")
 @Tag(name = "Books", description = "Book REST calls")
 public class BookController {
 
@@ -32,41 +42,98 @@ public class BookController {
     @PostMapping
     public ResponseEntity<BookResponse> createBook(@RequestBody @Valid CreateBookRequest request) {
         BookResponse createdBook = bookService.createBook(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdBook);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(eTagOf(createdBook)).body(createdBook);
     }
 
-    @Operation(summary = "Get book by ID")
+    @Operation(summary = "Import books from a CSV file with a title,author[,amount] header")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished, per-row errors are reported in the body"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid CSV header")
+    })
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<BookImportResponse> importBooksFromCsv(InputStream body) {
+        BookImportResponse result = bookService.importBooks(body, BookImportFormat.CSV);
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Import books from newline-delimited JSON objects with title, author and optional amount")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished, per-row errors are reported in the body")
+    })
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<BookImportResponse> importBooksFromNdjson(InputStream body) {
+        BookImportResponse result = bookService.importBooks(body, BookImportFormat.NDJSON);
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Get book by ID, the ETag is its version")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Book unchanged since the If-None-Match ETag"),
             @ApiResponse(responseCode = "404", description = "Book with given ID not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<BookResponse> getBookById(@PathVariable Long id) {
+    public ResponseEntity<BookResponse> getBookById(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                    String ifNoneMatch) {
         BookResponse book = bookService.getBookById(id);
-        return ResponseEntity.ok(book);
+        String eTag = eTagOf(book);
+        if (isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(book);
+    }
+
+    @Operation(summary = "Get the copies available and whether any copy is out on loan for several books at once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availability retrieved, unknown book IDs are left out"),
+            @ApiResponse(responseCode = "400", description = "No book IDs or more than 500")
+    })
+    @PostMapping("/availability")
+    public ResponseEntity<List<BookAvailabilityResponse>> getAvailability(
+            @RequestBody @Valid BookAvailabilityRequest request) {
+        List<BookAvailabilityResponse> availability = bookService.getAvailability(request.bookIds());
+        return ResponseEntity.ok(availability);
     }
 
-    @Operation(summary = "Get all books")
+    @Operation(summary = "Get books page by page, ordered by ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "List of books retrieved successfully")
+            @ApiResponse(responseCode = "200", description = "Page of books retrieved successfully")
     })
     @GetMapping
-    public ResponseEntity<List<BookResponse>> getAllBooks() {
-        List<BookResponse> books = bookService.getAllBooks();
+    public ResponseEntity<PageResponse<BookResponse>> getBooks(@RequestParam(required = false) Long cursor,
+                                                               @RequestParam(required = false) Integer size) {
+        PageResponse<BookResponse> books = bookService.getBooks(cursor, size);
         return ResponseEntity.ok(books);
     }
 
-    @Operation(summary = "Update book by ID")
+    @Operation(summary = "Search books by title and author words, prefixes and misspellings, best match first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of matching books retrieved successfully")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<PageResponse<BookResponse>> searchBooks(@RequestParam String q,
+                                                                  @RequestParam(required = false) Long cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        PageResponse<BookResponse> books = bookService.searchBooks(q, cursor, size);
+        return ResponseEntity.ok(books);
+    }
+
+    @Operation(summary = "Update book by ID, only if it is still at the If-Match ETag when one is sent")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book updated successfully"),
             @ApiResponse(responseCode = "404", description = "Book with given ID not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid input data")
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "409", description = "Book kept changing concurrently, retry the request"),
+            @ApiResponse(responseCode = "412", description = "Book changed since the If-Match ETag")
     })
     @PutMapping("/{id}")
     public ResponseEntity<BookResponse> updateBookById(@PathVariable Long id,
-                                                       @RequestBody @Valid UpdateBookRequest request) {
-        BookResponse updatedBook = bookService.updateBookById(id, request);
-        return ResponseEntity.ok(updatedBook);
+                                                       @RequestBody @Valid UpdateBookRequest request,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                       String ifMatch) {
+        BookResponse updatedBook = bookService.updateBookById(id, request, versionOf(ifMatch));
+        return ResponseEntity.ok().eTag(eTagOf(updatedBook)).body(updatedBook);
     }
 
     @Operation(summary = "Delete book by ID")
@@ -80,4 +147,42 @@ public class BookController {
         bookService.deleteBookById(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Strong ETag, the version changes with every write of the book
+    private static String eTagOf(BookResponse book) {
+        return "\"" + book.version() + "\"";
+    }
+
+    // If-None-Match lists tags or is "*", a tag matches by weak comparison, so W/"3" matches "3"
+    private static boolean isNotModified(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Version named by an If-Match header, null for none or "*"
+    private static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        try {
+            if (eTag.length() > 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+                return Long.parseLong(eTag.substring(1, eTag.length() - 1));
+            }
+        } catch (NumberFormatException e) {
+            // Not an ETag of this API, treated like any other mismatch
+        }
+        throw new BookVersionMismatchException("If-Match does not name a version of the book: " + ifMatch);
+    }
 }
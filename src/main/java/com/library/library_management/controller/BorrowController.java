@@ -1,65 +1,153 @@
 package com.library.library_management.controller;
 
+import com.library.library_management.controller.support.IdempotencyStore;
+import com.library.library_management.dto.BatchBorrowRequest;
+import com.library.library_management.dto.BatchReturnRequest;
+import com.library.library_management.dto.BatchReturnResponse;
+import com.library.library_management.dto.BorrowResponse;
+import com.library.library_management.dto.OverdueLoanResponse;
+import com.library.library_management.dto.PageResponse;
 import com.library.library_management.service.BorrowService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 @RequestMapping("/api/v1/borrows")
 @RestController
+@Profile("!reactive")
 @Tag(name = "Borrows", description = "Borrowing and returning books")
 public class BorrowController {
 
     @Autowired
     private BorrowService borrowService;
 
+    // Retries carrying the same Idempotency-Key get the original response instead of running again
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
     @Operation(summary = "Borrow a book by member ID and book ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book successfully borrowed"),
             @ApiResponse(responseCode = "400", description = "Validation failed or borrow limit reached"),
-            @ApiResponse(responseCode = "404", description = "Member or Book not found")
+            @ApiResponse(responseCode = "404", description = "Member or Book not found"),
+            @ApiResponse(responseCode = "422", description = "Idempotency key was used for a different request")
     })
     @PostMapping
-    public ResponseEntity<Void> borrowBook(@RequestParam Long memberId,@RequestParam Long bookId) {
-        borrowService.borrowBook(memberId, bookId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Void> borrowBook(
+            @RequestParam Long memberId,
+            @RequestParam Long bookId,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest servletRequest) {
+        String caller = IdempotencyStore.callerOf(servletRequest);
+        return idempotencyStore.execute(idempotencyKey, caller, "borrow", memberId + ":" + bookId, () -> {
+            borrowService.borrowBook(memberId, bookId);
+            return ResponseEntity.ok().build();
+        });
     }
 
     @Operation(summary = "Return a borrowed book by borrow ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book successfully returned"),
-            @ApiResponse(responseCode = "404", description = "Borrow record not found")
+            @ApiResponse(responseCode = "404", description = "Borrow record not found"),
+            @ApiResponse(responseCode = "409", description = "Book already returned"),
+            @ApiResponse(responseCode = "422", description = "Idempotency key was used for a different request")
     })
     @PostMapping("/return/{borrowId}")
-    public ResponseEntity<Void> returnBook(@PathVariable Long borrowId) {
-        borrowService.returnBook(borrowId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Void> returnBook(
+            @PathVariable Long borrowId,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest servletRequest) {
+        String caller = IdempotencyStore.callerOf(servletRequest);
+        return idempotencyStore.execute(idempotencyKey, caller, "return", String.valueOf(borrowId), () -> {
+            borrowService.returnBook(borrowId);
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    @Operation(summary = "Borrow several books for one member at once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All books successfully borrowed"),
+            @ApiResponse(responseCode = "400", description = "Validation failed, borrow limit reached or a book is not available"),
+            @ApiResponse(responseCode = "404", description = "Member or one of the books not found"),
+            @ApiResponse(responseCode = "422", description = "Idempotency key was used for a different request")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<BorrowResponse>> borrowBooks(
+            @RequestBody @Valid BatchBorrowRequest request,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest servletRequest) {
+        String caller = IdempotencyStore.callerOf(servletRequest);
+        return idempotencyStore.execute(idempotencyKey, caller, "borrow-batch", request.toString(), () -> {
+            List<BorrowResponse> borrows = borrowService.borrowBooks(request.memberId(), request.bookIds());
+            return ResponseEntity.ok(borrows);
+        });
+    }
+
+    @Operation(summary = "Return several borrowed books at once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Returns processed, unknown and already returned IDs are reported"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "422", description = "Idempotency key was used for a different request")
+    })
+    @PostMapping("/return/batch")
+    public ResponseEntity<BatchReturnResponse> returnBooks(
+            @RequestBody @Valid BatchReturnRequest request,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest servletRequest) {
+        String caller = IdempotencyStore.callerOf(servletRequest);
+        return idempotencyStore.execute(idempotencyKey, caller, "return-batch", request.toString(), () -> {
+            BatchReturnResponse result = borrowService.returnBooks(request.borrowIds());
+            return ResponseEntity.ok(result);
+        });
+    }
+
+    @Operation(summary = "Get open loans past their due date, ordered by borrow ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of overdue loans retrieved")
+    })
+    @GetMapping("/overdue")
+    public ResponseEntity<PageResponse<OverdueLoanResponse>> getOverdueLoans(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        PageResponse<OverdueLoanResponse> page = borrowService.getOverdueLoans(cursor, size);
+        return ResponseEntity.ok(page);
     }
 
-    @Operation(summary = "Get all distinct titles of borrowed books")
+    @Operation(summary = "Get all distinct titles of borrowed books, optionally within a borrow date range")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Distinct borrowed book titles retrieved")
     })
     @GetMapping("/borrowed-books/distinct-titles")
-    public ResponseEntity<List<String>> getDistinctBorrowedBookTitles() {
-        List<String> titles = borrowService.getDistinctBorrowedBookTitles();
+    public ResponseEntity<List<String>> getDistinctBorrowedBookTitles(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        List<String> titles = borrowService.getDistinctBorrowedBookTitles(from, to, limit);
         return ResponseEntity.ok(titles);
     }
 
-    @Operation(summary = "Get borrowed book titles with total number of times borrowed")
+    @Operation(summary = "Get borrowed book titles with number of borrowed copies, most borrowed first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Titles with borrow count retrieved")
     })
     @GetMapping("/borrowed-books/titles-with-count")
-    public ResponseEntity<Map<String, Long>> getBorrowedBookTitlesWithCount() {
-        Map<String, Long> result = borrowService.getBorrowedBookTitlesWithCount();
+    public ResponseEntity<Map<String, Long>> getBorrowedBookTitlesWithCount(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        Map<String, Long> result = borrowService.getBorrowedBookTitlesWithCount(from, to, limit);
         return ResponseEntity.ok(result);
     }
 }
@@ -0,0 +1,35 @@
+package com.library.library_management.controller;
+
+import com.library.library_management.dto.CacheStatsResponse;
+import com.library.library_management.service.CacheStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RequestMapping("/api/v1/caches")
+@RestController
+@Profile("!reactive")
+@Tag(name = "Caches", description = "Book and member cache statistics")
+public class CacheController {
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @Operation(summary = "Get hit, miss and eviction statistics of every cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cache statistics retrieved")
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getCacheStats());
+    }
+}
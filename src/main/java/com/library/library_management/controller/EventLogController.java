@@ -0,0 +1,47 @@
+package com.library.library_management.controller;
+
+import com.library.library_management.dto.CirculationEventResponse;
+import com.library.library_management.dto.EventLogReplayResponse;
+import com.library.library_management.dto.PageResponse;
+import com.library.library_management.service.EventLogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RequestMapping("/api/v1/events")
+@RestController
+@Profile("!reactive")
+@Tag(name = "Events", description = "Append-only trail of borrows, returns and stock changes")
+public class EventLogController {
+
+    @Autowired
+    private EventLogService eventLogService;
+
+    @Operation(summary = "Get circulation events in the order they were logged")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Events retrieved"),
+            @ApiResponse(responseCode = "404", description = "Event log is disabled")
+    })
+    @GetMapping
+    public ResponseEntity<PageResponse<CirculationEventResponse>> getEvents(@RequestParam(required = false) Long cursor,
+                                                                            @RequestParam(required = false) Integer size) {
+        PageResponse<CirculationEventResponse> events = eventLogService.getEvents(cursor, size);
+        return ResponseEntity.ok(events);
+    }
+
+    @Operation(summary = "Rebuild open borrows and stock from the event log and report the result")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event log replayed"),
+            @ApiResponse(responseCode = "404", description = "Event log is disabled")
+    })
+    @PostMapping("/replay")
+    public ResponseEntity<EventLogReplayResponse> replay() {
+        EventLogReplayResponse result = eventLogService.replay();
+        return ResponseEntity.ok(result);
+    }
+}
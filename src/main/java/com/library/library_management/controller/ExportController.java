@@ -0,0 +1,58 @@
+package com.library.library_management.controller;
+
+import com.library.library_management.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RequestMapping("/api/v1/export")
+@RestController
+@Profile("!reactive")
+@Tag(name = "Export", description = "Streaming NDJSON dumps of the catalog and borrow ledger")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Operation(summary = "Export all books as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Books streamed one JSON object per line")
+    })
+    @GetMapping(value = "/books", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::exportBooks);
+    }
+
+    @Operation(summary = "Export all members as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Members streamed one JSON object per line")
+    })
+    @GetMapping(value = "/members", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMembers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::exportMembers);
+    }
+
+    @Operation(summary = "Export all borrows, open and returned, as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Borrows streamed one JSON object per line")
+    })
+    @GetMapping(value = "/borrows", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBorrows() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::exportBorrows);
+    }
+}
@@ -0,0 +1,70 @@
+package com.library.library_management.controller;
+
+import com.library.library_management.dto.HoldResponse;
+import com.library.library_management.service.HoldService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RequestMapping("/api/v1/holds")
+@RestController
+@Profile("!reactive")
+@Tag(name = "Holds", description = "Queueing for books that are out of stock")
+public class HoldController {
+
+    @Autowired
+    private HoldService holdService;
+
+    @Operation(summary = "Join the queue for a book that has no copy available")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Hold placed, the response carries the queue position"),
+            @ApiResponse(responseCode = "400", description = "Book is available or the member already holds it"),
+            @ApiResponse(responseCode = "404", description = "Member or Book not found")
+    })
+    @PostMapping
+    public ResponseEntity<HoldResponse> placeHold(@RequestParam Long memberId, @RequestParam Long bookId) {
+        HoldResponse hold = holdService.placeHold(memberId, bookId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    @Operation(summary = "Get a hold with its current queue position")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hold retrieved"),
+            @ApiResponse(responseCode = "404", description = "Hold not found, it may have been fulfilled")
+    })
+    @GetMapping("/{holdId}")
+    public ResponseEntity<HoldResponse> getHoldById(@PathVariable Long holdId) {
+        HoldResponse hold = holdService.getHoldById(holdId);
+        return ResponseEntity.ok(hold);
+    }
+
+    @Operation(summary = "Get the open holds of a member with their queue positions")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Holds retrieved"),
+            @ApiResponse(responseCode = "404", description = "Member not found")
+    })
+    @GetMapping
+    public ResponseEntity<List<HoldResponse>> getHoldsByMember(@RequestParam Long memberId) {
+        List<HoldResponse> holds = holdService.getHoldsByMember(memberId);
+        return ResponseEntity.ok(holds);
+    }
+
+    @Operation(summary = "Leave the queue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Hold cancelled"),
+            @ApiResponse(responseCode = "404", description = "Hold not found")
+    })
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<Void> cancelHold(@PathVariable Long holdId) {
+        holdService.cancelHold(holdId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -3,6 +3,8 @@ package com.library.library_management.controller;
 import com.library.library_management.dto.BorrowResponse;
 import com.library.library_management.dto.CreateMemberRequest;
 import com.library.library_management.dto.MemberResponse;
+import com.library.library_management.dto.MemberSuggestion;
+import com.library.library_management.dto.PageResponse;
 import com.library.library_management.dto.UpdateMemberRequest;
 import com.library.library_management.service.BorrowService;
 import com.library.library_management.service.MemberService;
@@ -12,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +23,7 @@ import java.util.List;
 
 @RequestMapping("/api/v1/members")
 @RestController
+@Profile("!reactive")
 @Tag(name = "Members", description = "Member REST calls")
 public class MemberController {
 
@@ -51,16 +55,28 @@ public class MemberController {
         return ResponseEntity.ok(member);
     }
 
-    @Operation(summary = "Get all members")
+    @Operation(summary = "Get members page by page, ordered by ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "All members retrieved")
+            @ApiResponse(responseCode = "200", description = "Page of members retrieved")
     })
     @GetMapping
-    public ResponseEntity<List<MemberResponse>> getAllMembers() {
-        List<MemberResponse> members = memberService.getAllMembers();
+    public ResponseEntity<PageResponse<MemberResponse>> getMembers(@RequestParam(required = false) Long cursor,
+                                                                   @RequestParam(required = false) Integer size) {
+        PageResponse<MemberResponse> members = memberService.getMembers(cursor, size);
         return ResponseEntity.ok(members);
     }
 
+    @Operation(summary = "Suggest members whose name or a word of it starts with the given text, ignoring case")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions retrieved, empty if nothing matches")
+    })
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<MemberSuggestion>> autocompleteMembers(@RequestParam String prefix,
+                                                                      @RequestParam(required = false) Integer limit) {
+        List<MemberSuggestion> suggestions = memberService.autocompleteMembers(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     @Operation(summary = "Update a member by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Member updated successfully"),
@@ -91,12 +107,14 @@ public class MemberController {
             @ApiResponse(responseCode = "404", description = "Member with given ID not found")
     })
     @GetMapping("/{id}/borrowed-books")
-    public ResponseEntity<List<BorrowResponse>> getBorrowedBooksByMember(@PathVariable Long id) {
-        List<BorrowResponse> borrowedBooks = borrowService.getBorrowedBooksByMember(id);
+    public ResponseEntity<PageResponse<BorrowResponse>> getBorrowedBooksByMember(@PathVariable Long id,
+                                                                                 @RequestParam(required = false) Long cursor,
+                                                                                 @RequestParam(required = false) Integer size) {
+        PageResponse<BorrowResponse> borrowedBooks = borrowService.getBorrowedBooksByMember(id, cursor, size);
         return ResponseEntity.ok(borrowedBooks);
     }
 
-    @Operation(summary = "Get borrowed books by member name")
+    @Operation(summary = "Get borrowed books of all members with the given name, ignoring case")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Borrowed books retrieved successfully"),
             @ApiResponse(responseCode = "404", description = "Member with given name not found")
@@ -0,0 +1,108 @@
+package com.library.library_management.controller.support;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.library_management.exception.IdempotencyKeyReusedException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the responses of requests sent with an {@value #HEADER} header and replays them for retries,
+ * so a client retrying after a timeout does not borrow or return twice.
+ * <p>
+ * Entries live in a size-bounded Caffeine map and expire after the retention period. A duplicate that arrives
+ * while the first request is still running waits for its outcome instead of running again. Failed requests are
+ * forgotten, so a retry after an error runs again. Keys are local to this instance and to the caller that sent
+ * them, so two clients picking the same key never see each other's responses.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    // Set on responses that were replayed from the store
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final ConcurrentMap<String, Entry> entries;
+
+    public IdempotencyStore(@Value("${idempotency.spec:maximumSize=100000,expireAfterWrite=24h}") String spec) {
+        this.entries = Caffeine.from(spec).<String, Entry>build().asMap();
+    }
+
+    // Callers are told apart like the rate limiter does, by X-Client-Id or else by remote address
+    public static String callerOf(HttpServletRequest request) {
+        return RateLimitInterceptor.clientKey(request, false);
+    }
+
+    /**
+     * Runs the action once per key, caller and endpoint, or directly if the client sent no key.
+     *
+     * @param caller      keeps keys of different clients apart, see {@link #callerOf}
+     * @param endpoint    keeps keys of different endpoints apart
+     * @param fingerprint identifies the request, reusing a key for a different request is rejected
+     */
+    public <T> ResponseEntity<T> execute(String key, String caller, String endpoint, String fingerprint,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String entryKey = caller + '\n' + endpoint + '\n' + key;
+        Entry fresh = new Entry(fingerprint);
+        Entry existing = entries.putIfAbsent(entryKey, fresh);
+        if (existing == null) {
+            try {
+                ResponseEntity<T> response = action.get();
+                fresh.response.complete(response);
+                return response;
+            } catch (Throwable e) {
+                // Errors too, or duplicates waiting on the entry would block forever
+                entries.remove(entryKey, fresh);
+                fresh.response.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        if (!existing.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException("Idempotency key was already used for a different request");
+        }
+        return replay(await(existing));
+    }
+
+    // Duplicates of a failed request fail the same way
+    private static ResponseEntity<?> await(Entry entry) {
+        try {
+            return entry.response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> replay(ResponseEntity<?> original) {
+        return (ResponseEntity<T>) ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.library.library_management.controller.support;
+
+import com.library.library_management.exception.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the read budget to GET requests and the write budget to everything else.
+ * Clients are told apart by their API client header, then by address. Writes to endpoints that act for a
+ * member are counted per member instead, a memberId sent anywhere else would only buy the client fresh buckets.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String CLIENT_HEADER = "X-Client-Id";
+
+    private static final String MEMBER_PARAMETER = "memberId";
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final TokenBucketLimiter reads;
+    private final TokenBucketLimiter writes;
+
+    // Whether a handler method takes the memberId request parameter, resolved once per method
+    private final ConcurrentHashMap<Method, Boolean> memberHandlers = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(TokenBucketLimiter reads, TokenBucketLimiter writes) {
+        this.reads = reads;
+        this.writes = writes;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        long wait = (read ? reads : writes).tryAcquire(clientKey(request, !read && actsForMember(handler)));
+        if (wait > 0) {
+            throw new RateLimitExceededException("Too many requests, retry later",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+        return true;
+    }
+
+    static String clientKey(HttpServletRequest request, boolean perMember) {
+        String memberId = perMember ? request.getParameter(MEMBER_PARAMETER) : null;
+        if (memberId != null) {
+            return "member:" + memberId;
+        }
+        String client = request.getHeader(CLIENT_HEADER);
+        if (client != null) {
+            return "client:" + client;
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    private boolean actsForMember(Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return false;
+        }
+        return memberHandlers.computeIfAbsent(handlerMethod.getMethod(), RateLimitInterceptor::takesMember);
+    }
+
+    private static boolean takesMember(Method method) {
+        // Handler parameters only learn their names once arguments are resolved, after this interceptor
+        String[] names = PARAMETER_NAMES.getParameterNames(method);
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            RequestParam requestParam = method.getParameters()[i].getAnnotation(RequestParam.class);
+            if (requestParam == null) {
+                continue;
+            }
+            String name = requestParam.name().isEmpty() && names != null ? names[i] : requestParam.name();
+            if (MEMBER_PARAMETER.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
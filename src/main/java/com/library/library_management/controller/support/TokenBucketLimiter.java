@@ -0,0 +1,61 @@
+package com.library.library_management.controller.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client key, refilled at a fixed rate up to a burst capacity.
+ * <p>
+ * A bucket is a single {@link AtomicLong} holding the time at which it will be full again (the theoretical
+ * arrival time of the generic cell rate algorithm), so taking a token is one compare-and-set without locks
+ * and without a refill thread. Buckets live in a size-bounded Caffeine map, whose striped buffers keep
+ * lookups of different clients from contending, and buckets of clients idle for longer than a refill are
+ * evicted since they would be full anyway.
+ */
+public class TokenBucketLimiter {
+
+    private final long nanosPerToken;
+    private final long burstTolerance;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketLimiter(double tokensPerSecond, int capacity, long maxClients) {
+        this(tokensPerSecond, capacity, maxClients, System::nanoTime);
+    }
+
+    TokenBucketLimiter(double tokensPerSecond, int capacity, long maxClients, LongSupplier clock) {
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstTolerance = (capacity - 1) * nanosPerToken;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(burstTolerance + nanosPerToken))
+                .build();
+    }
+
+    /**
+     * Takes a token from the bucket of the client.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    public long tryAcquire(String key) {
+        // A new bucket is full, any time in the past will do
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = clock.getAsLong();
+        while (true) {
+            long full = bucket.get();
+            long arrival = Math.max(full, now);
+            long wait = arrival - now - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, arrival + nanosPerToken)) {
+                return 0;
+            }
+        }
+    }
+}
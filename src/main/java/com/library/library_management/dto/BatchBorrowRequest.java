@@ -0,0 +1,17 @@
+package com.library.library_management.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchBorrowRequest(
+        @NotNull(message = "Member ID is required")
+        Long memberId,
+
+        @NotEmpty(message = "At least one book ID is required")
+        @Size(max = 100, message = "At most 100 books can be borrowed at once")
+        List<@NotNull(message = "Book ID is required") Long> bookIds
+) {
+}
@@ -0,0 +1,14 @@
+package com.library.library_management.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchReturnRequest(
+        @NotEmpty(message = "At least one borrow ID is required")
+        @Size(max = 1000, message = "At most 1000 borrows can be returned at once")
+        List<@NotNull(message = "Borrow ID is required") Long> borrowIds
+) {
+}
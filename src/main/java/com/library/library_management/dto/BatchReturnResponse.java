@@ -0,0 +1,10 @@
+package com.library.library_management.dto;
+
+import java.util.List;
+
+public record BatchReturnResponse(
+        List<Long> returned,
+        List<Long> notFound,
+        List<Long> alreadyReturned
+) {
+}
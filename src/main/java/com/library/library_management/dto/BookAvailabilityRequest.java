@@ -0,0 +1,14 @@
+package com.library.library_management.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BookAvailabilityRequest(
+        @NotEmpty(message = "At least one book ID is required")
+        @Size(max = 500, message = "At most 500 book IDs per request")
+        List<@NotNull(message = "Book ID is required") Long> bookIds
+) {
+}
@@ -0,0 +1,8 @@
+package com.library.library_management.dto;
+
+public record BookAvailabilityResponse(
+        Long bookId,
+        int amount,
+        boolean borrowed
+) {
+}
@@ -0,0 +1,7 @@
+package com.library.library_management.dto;
+
+public record BookImportError(
+        long line,
+        String message
+) {
+}
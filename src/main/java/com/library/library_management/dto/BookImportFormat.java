@@ -0,0 +1,6 @@
+package com.library.library_management.dto;
+
+public enum BookImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,14 @@
+package com.library.library_management.dto;
+
+import java.util.List;
+
+public record BookImportResponse(
+        long processed,
+        long created,
+        long updated,
+        long failed,
+        List<BookImportError> errors,
+        long elapsedMillis,
+        double rowsPerSecond
+) {
+}
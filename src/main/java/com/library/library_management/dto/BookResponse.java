@@ -1,9 +1,13 @@
 package com.library.library_management.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public record BookResponse(
         Long id,
         String title,
         String author,
-        int amount
+        int amount,
+        // Sent as the ETag header rather than in the body
+        @JsonIgnore Long version
 ) {
 }
@@ -7,6 +7,7 @@ public record BorrowResponse(
         Long bookId,
         Long memberId,
         LocalDate borrowDate,
+        LocalDate dueDate,
         LocalDate returnDate
 ) {
 }
@@ -0,0 +1,11 @@
+package com.library.library_management.dto;
+
+public record CacheStatsResponse(
+        String name,
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount
+) {
+}
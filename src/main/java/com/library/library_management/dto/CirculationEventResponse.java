@@ -0,0 +1,17 @@
+package com.library.library_management.dto;
+
+import com.library.library_management.circulation.CirculationEvent;
+
+import java.time.Instant;
+
+// IDs that do not apply to the event type are null
+public record CirculationEventResponse(
+        long sequence,
+        CirculationEvent.Type type,
+        Instant timestamp,
+        Long borrowId,
+        Long bookId,
+        Long memberId,
+        int quantity
+) {
+}
@@ -0,0 +1,11 @@
+package com.library.library_management.dto;
+
+public record EventLogReplayResponse(
+        long events,
+        int openBorrows,
+        int books,
+        long copiesOnShelf,
+        long elapsedMillis,
+        double eventsPerSecond
+) {
+}
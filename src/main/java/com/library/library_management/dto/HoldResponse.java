@@ -0,0 +1,12 @@
+package com.library.library_management.dto;
+
+import java.time.LocalDateTime;
+
+public record HoldResponse(
+        Long id,
+        Long bookId,
+        Long memberId,
+        LocalDateTime placedAt,
+        long position
+) {
+}
@@ -0,0 +1,7 @@
+package com.library.library_management.dto;
+
+public record MemberSuggestion(
+        Long id,
+        String name
+) {
+}
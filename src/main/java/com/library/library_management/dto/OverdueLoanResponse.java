@@ -0,0 +1,12 @@
+package com.library.library_management.dto;
+
+import java.time.LocalDate;
+
+public record OverdueLoanResponse(
+        Long borrowId,
+        Long bookId,
+        Long memberId,
+        LocalDate dueDate,
+        long daysOverdue
+) {
+}
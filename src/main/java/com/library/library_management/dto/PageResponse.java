@@ -0,0 +1,25 @@
+package com.library.library_management.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing.
+ * {@code nextCursor} is the id to pass as {@code cursor} for the next page, or null on the last page.
+ */
+public record PageResponse<T>(
+        List<T> content,
+        Long nextCursor
+) {
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code size + 1},
+     * the extra row only tells whether another page exists.
+     */
+    public static <E, T> PageResponse<T> of(List<E> rows, int size, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        Long nextCursor = hasNext ? idOf.apply(page.get(page.size() - 1)) : null;
+        return new PageResponse<>(page.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -4,34 +4,32 @@ import com.library.library_management.dto.BookResponse;
 import com.library.library_management.dto.CreateBookRequest;
 import com.library.library_management.dto.UpdateBookRequest;
 import com.library.library_management.entity.Book;
-import org.hibernate.sql.Update;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.library.library_management.reactive.BookRow;
 import org.springframework.stereotype.Component;
 
+/**
+ * Explicit conversions between {@link Book} and its DTOs.
+ * Plain constructor and setter calls, no reflection, so mapping a page costs one allocation per row.
+ */
 @Component
 public class BookMapper {
 
-    @Autowired
-    private ModelMapper modelMapper;
-
+    // New titles start with a single copy, further copies are added by creating the book again
     public Book fromCreateRequest(CreateBookRequest request) {
-        return modelMapper.map(request, Book.class);
-    }
-
-    public Book fromUpdateRequest(UpdateBookRequest request) {
-        return modelMapper.map(request, Book.class);
+        return new Book(request.title(), request.author(), 1);
     }
 
-    public UpdateBookRequest toUpdateRequest(Book book) {
-        return modelMapper.map(book, UpdateBookRequest.class);
+    public void updateFromRequest(Book book, UpdateBookRequest request) {
+        book.setTitle(request.title());
+        book.setAuthor(request.author());
+        book.setAmount(request.amount());
     }
 
-    public Book fromBookResponse(BookResponse response) {
-        return modelMapper.map(response, Book.class);
+    public BookResponse toBookResponse(Book book) {
+        return new BookResponse(book.getId(), book.getTitle(), book.getAuthor(), book.getAmount(), book.getVersion());
     }
 
-    public BookResponse toBookResponse(Book book) {
-        return modelMapper.map(book, BookResponse.class);
+    public BookResponse toBookResponse(BookRow book) {
+        return new BookResponse(book.id(), book.title(), book.author(), book.amount(), book.version());
     }
 }
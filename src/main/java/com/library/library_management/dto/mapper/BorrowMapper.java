@@ -1,10 +1,16 @@
 package com.library.library_management.dto.mapper;
 
+import com.library.library_management.circulation.OverdueLoan;
 import com.library.library_management.dto.BorrowResponse;
+import com.library.library_management.dto.OverdueLoanResponse;
 import com.library.library_management.entity.Borrow;
-import org.springframework.context.annotation.Configuration;
+import com.library.library_management.reactive.BorrowRow;
+import org.springframework.stereotype.Component;
 
-@Configuration
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@Component
 public class BorrowMapper {
 
     public BorrowResponse toResponse(Borrow borrow) {
@@ -13,7 +19,23 @@ public class BorrowMapper {
                 borrow.getBook().getId(),
                 borrow.getMember().getId(),
                 borrow.getBorrowDate(),
+                borrow.getDueDate(),
                 borrow.getReturnDate()
         );
     }
+
+    public BorrowResponse toResponse(BorrowRow borrow) {
+        return new BorrowResponse(borrow.id(), borrow.bookId(), borrow.memberId(), borrow.borrowDate(),
+                borrow.dueDate(), borrow.returnDate());
+    }
+
+    public OverdueLoanResponse toOverdueResponse(OverdueLoan loan, LocalDate today) {
+        return new OverdueLoanResponse(loan.borrowId(), loan.bookId(), loan.memberId(), loan.dueDate(),
+                ChronoUnit.DAYS.between(loan.dueDate(), today));
+    }
+
+    public OverdueLoanResponse toOverdueResponse(Borrow borrow, LocalDate today) {
+        return new OverdueLoanResponse(borrow.getId(), borrow.getBook().getId(), borrow.getMember().getId(),
+                borrow.getDueDate(), ChronoUnit.DAYS.between(borrow.getDueDate(), today));
+    }
 }
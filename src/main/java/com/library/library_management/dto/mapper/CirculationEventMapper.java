@@ -0,0 +1,20 @@
+package com.library.library_management.dto.mapper;
+
+import com.library.library_management.circulation.CirculationEvent;
+import com.library.library_management.dto.CirculationEventResponse;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Component
+public class CirculationEventMapper {
+
+    public CirculationEventResponse toResponse(CirculationEvent event) {
+        return new CirculationEventResponse(event.sequence(), event.type(), Instant.ofEpochMilli(event.timestamp()),
+                idOrNull(event.borrowId()), idOrNull(event.bookId()), idOrNull(event.memberId()), event.quantity());
+    }
+
+    private static Long idOrNull(long id) {
+        return id == 0 ? null : id;
+    }
+}
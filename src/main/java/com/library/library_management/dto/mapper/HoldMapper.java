@@ -0,0 +1,14 @@
+package com.library.library_management.dto.mapper;
+
+import com.library.library_management.dto.HoldResponse;
+import com.library.library_management.entity.Hold;
+import org.springframework.stereotype.Component;
+
+@Component
+public class HoldMapper {
+
+    public HoldResponse toResponse(Hold hold, long position) {
+        return new HoldResponse(hold.getId(), hold.getBook().getId(), hold.getMember().getId(), hold.getPlacedAt(),
+                position);
+    }
+}
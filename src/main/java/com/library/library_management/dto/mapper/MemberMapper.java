@@ -0,0 +1,25 @@
+package com.library.library_management.dto.mapper;
+
+import com.library.library_management.dto.CreateMemberRequest;
+import com.library.library_management.dto.MemberResponse;
+import com.library.library_management.entity.Member;
+import com.library.library_management.reactive.MemberRow;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MemberMapper {
+
+    public Member fromCreateRequest(CreateMemberRequest request) {
+        Member member = new Member();
+        member.setName(request.name());
+        return member;
+    }
+
+    public MemberResponse toResponse(Member member) {
+        return new MemberResponse(member.getId(), member.getName(), member.getMembershipDate());
+    }
+
+    public MemberResponse toResponse(MemberRow member) {
+        return new MemberResponse(member.id(), member.name(), member.membershipDate());
+    }
+}
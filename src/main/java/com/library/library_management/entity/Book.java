@@ -5,8 +5,10 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "book_title_author_key", columnNames = {"title", "author"}))
 @SequenceGenerator(name = "book_seq", sequenceName = "book_id_seq", allocationSize = 1)
 public class Book {
 
@@ -29,6 +31,12 @@ public class Book {
     @Column(nullable = false)
     private Integer amount;
 
+    // Bumped by every write, including the bulk stock updates, and served as the ETag of the book
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Book() {}
 
     public Book(String title, String author, Integer amount) {
@@ -68,4 +76,12 @@ public class Book {
     public void setAmount(Integer amount) {
         this.amount = amount;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -23,14 +23,18 @@ public class Borrow {
     @Column(nullable = false)
     private LocalDate borrowDate;
 
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
     private LocalDate returnDate;
 
     public Borrow() {}
 
-    public Borrow(Book book, Member member, LocalDate borrowDate) {
+    public Borrow(Book book, Member member, LocalDate borrowDate, LocalDate dueDate) {
         this.book = book;
         this.member = member;
         this.borrowDate = borrowDate;
+        this.dueDate = dueDate;
     }
 
     public Long getId() {
@@ -65,6 +69,14 @@ public class Borrow {
         this.borrowDate = borrowDate;
     }
 
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+
     public LocalDate getReturnDate() {
         return returnDate;
     }
@@ -0,0 +1,71 @@
+package com.library.library_management.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+// Place of a member in the queue for a book, the queue is served in ID order
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "hold_book_member_key", columnNames = {"book_id", "member_id"}))
+@SequenceGenerator(name = "hold_seq", sequenceName = "hold_id_seq", allocationSize = 1)
+public class Hold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hold_seq")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Member member;
+
+    @Column(nullable = false)
+    private LocalDateTime placedAt;
+
+    public Hold() {}
+
+    public Hold(Book book, Member member, LocalDateTime placedAt) {
+        this.book = book;
+        this.member = member;
+        this.placedAt = placedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+
+    public void setBook(Book book) {
+        this.book = book;
+    }
+
+    public Member getMember() {
+        return member;
+    }
+
+    public void setMember(Member member) {
+        this.member = member;
+    }
+
+    public LocalDateTime getPlacedAt() {
+        return placedAt;
+    }
+
+    public void setPlacedAt(LocalDateTime placedAt) {
+        this.placedAt = placedAt;
+    }
+}
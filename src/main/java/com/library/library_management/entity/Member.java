@@ -2,6 +2,7 @@ package com.library.library_management.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
@@ -20,6 +21,11 @@ public class Member {
     @Column(nullable = false, updatable = false)
     private LocalDate membershipDate;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Member() {}
 
     public Member(String name) {
@@ -55,4 +61,8 @@ public class Member {
         return membershipDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
 }
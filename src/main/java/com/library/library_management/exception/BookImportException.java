@@ -0,0 +1,7 @@
+package com.library.library_management.exception;
+
+public class BookImportException extends RuntimeException {
+    public BookImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.library.library_management.exception;
+
+public class BookVersionMismatchException extends RuntimeException {
+    public BookVersionMismatchException(String message) {
+        super(message);
+    }
+}
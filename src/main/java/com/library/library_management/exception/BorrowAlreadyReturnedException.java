@@ -0,0 +1,7 @@
+package com.library.library_management.exception;
+
+public class BorrowAlreadyReturnedException extends RuntimeException {
+    public BorrowAlreadyReturnedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.library.library_management.exception;
+
+public class EventLogDisabledException extends RuntimeException {
+    public EventLogDisabledException(String message) {
+        super(message);
+    }
+}
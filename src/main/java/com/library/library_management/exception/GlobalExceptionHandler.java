@@ -1,11 +1,18 @@
 package com.library.library_management.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -15,30 +22,74 @@ import java.util.stream.Collectors;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @ExceptionHandler(BookNotAvailableException.class)
     public ResponseEntity<?> handleBookNotAvailable(BookNotAvailableException e) {
-        return buildResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        return buildResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(BookImportException.class)
+    public ResponseEntity<?> handleBookImport(BookImportException e) {
+        return buildResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
     }
 
     @ExceptionHandler(BookNotFoundException.class)
     public ResponseEntity<?> handleBookNotFound(BookNotFoundException e) {
-        return buildResponse(HttpStatus.NOT_FOUND, e.getMessage());
+        return buildResponse(e, HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    // The If-Match version of a conditional update is no longer the current one
+    @ExceptionHandler(BookVersionMismatchException.class)
+    public ResponseEntity<?> handleBookVersionMismatch(BookVersionMismatchException e) {
+        return buildResponse(e, HttpStatus.PRECONDITION_FAILED, e.getMessage());
     }
 
     @ExceptionHandler(BorrowLimitExceededException.class)
     public ResponseEntity<?> handleBorrowLimit(BorrowLimitExceededException e) {
-        return buildResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        return buildResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(BorrowAlreadyReturnedException.class)
+    public ResponseEntity<?> handleBorrowAlreadyReturned(BorrowAlreadyReturnedException e) {
+        return buildResponse(e, HttpStatus.CONFLICT, e.getMessage());
     }
 
     @ExceptionHandler(BorrowNotFoundException.class)
     public ResponseEntity<?> handleBorrowNotFound(BorrowNotFoundException e) {
-        return buildResponse(HttpStatus.NOT_FOUND, e.getMessage());
+        return buildResponse(e, HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(HoldNotAllowedException.class)
+    public ResponseEntity<?> handleHoldNotAllowed(HoldNotAllowedException e) {
+        return buildResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(HoldNotFoundException.class)
+    public ResponseEntity<?> handleHoldNotFound(HoldNotFoundException e) {
+        return buildResponse(e, HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<?> handleIdempotencyKeyReused(IdempotencyKeyReusedException e) {
+        return buildResponse(e, HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+    }
+
+    @ExceptionHandler(EventLogDisabledException.class)
+    public ResponseEntity<?> handleEventLogDisabled(EventLogDisabledException e) {
+        return buildResponse(e, HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    // Concurrent writers kept winning through every retry, or the write was not retried
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        return buildResponse(e, HttpStatus.CONFLICT, "The record was changed concurrently, retry the request");
     }
 
     @ExceptionHandler(MemberNotFoundException.class)
     public ResponseEntity<?> handleMemberNotFound(MemberNotFoundException e) {
-        return buildResponse(HttpStatus.NOT_FOUND, e.getMessage());
+        return buildResponse(e, HttpStatus.NOT_FOUND, e.getMessage());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -47,7 +98,17 @@ public class GlobalExceptionHandler {
                 .stream()
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .collect(Collectors.joining("; "));
-        return buildResponse(HttpStatus.BAD_REQUEST, message);
+        return buildResponse(e, HttpStatus.BAD_REQUEST, message);
+    }
+
+    // Bean validation failure on the reactive stack
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<?> handleReactiveValidation(WebExchangeBindException e) {
+        String message = e.getFieldErrors()
+                .stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .collect(Collectors.joining("; "));
+        return buildResponse(e, HttpStatus.BAD_REQUEST, message);
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
@@ -56,15 +117,36 @@ public class GlobalExceptionHandler {
                 .stream()
                 .map(v -> v.getPropertyPath() + ": " + v.getMessage())
                 .collect(Collectors.joining("; "));
-        return buildResponse(HttpStatus.BAD_REQUEST, message);
+        return buildResponse(e, HttpStatus.BAD_REQUEST, message);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<?> handleRateLimitExceeded(RateLimitExceededException e) {
+        ResponseEntity<Map<String, Object>> response = buildResponse(e, HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
+    // No pooled connection became free within the connection timeout, the client can retry shortly
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<?> handleDatabaseBusy(Exception e) {
+        ResponseEntity<Map<String, Object>> response = buildResponse(e, HttpStatus.SERVICE_UNAVAILABLE, "Database is busy, retry later");
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleOtherExceptions(Exception e) {
-        return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error occurred");
+        return buildResponse(e, HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error occurred");
     }
 
-    private ResponseEntity<Map<String, Object>> buildResponse(HttpStatus status, String message) {
+    private ResponseEntity<Map<String, Object>> buildResponse(Exception e, HttpStatus status, String message) {
+        meterRegistry.counter("library.errors",
+                "exception", e.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now());
         body.put("status", status.value());
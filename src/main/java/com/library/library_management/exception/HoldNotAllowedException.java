@@ -0,0 +1,7 @@
+package com.library.library_management.exception;
+
+public class HoldNotAllowedException extends RuntimeException {
+    public HoldNotAllowedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.library.library_management.exception;
+
+public class HoldNotFoundException extends RuntimeException {
+    public HoldNotFoundException(String message) {
+        super(message);
+    }
+}
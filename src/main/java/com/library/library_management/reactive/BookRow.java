@@ -0,0 +1,9 @@
+package com.library.library_management.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+// R2DBC view of the book table owned by the JPA Book entity
+@Table("book")
+public record BookRow(@Id Long id, String title, String author, Integer amount, Long version) {
+}
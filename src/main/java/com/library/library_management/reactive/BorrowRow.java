@@ -0,0 +1,11 @@
+package com.library.library_management.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+@Table("borrow")
+public record BorrowRow(@Id Long id, Long bookId, Long memberId, LocalDate borrowDate, LocalDate dueDate,
+                        LocalDate returnDate) {
+}
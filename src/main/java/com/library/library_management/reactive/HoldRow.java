@@ -0,0 +1,11 @@
+package com.library.library_management.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// R2DBC view of the hold table owned by the JPA Hold entity
+@Table("hold")
+public record HoldRow(@Id Long id, Long bookId, Long memberId, LocalDateTime placedAt) {
+}
@@ -0,0 +1,10 @@
+package com.library.library_management.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+@Table("member")
+public record MemberRow(@Id Long id, String name, LocalDate membershipDate) {
+}
@@ -0,0 +1,51 @@
+package com.library.library_management.reactive;
+
+import com.library.library_management.dto.BookResponse;
+import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.dto.PageResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequestMapping("/api/v1/books")
+@RestController
+@Profile("reactive")
+@Tag(name = "Books (reactive)", description = "Non-blocking book REST calls")
+public class ReactiveBookController {
+
+    @Autowired
+    private ReactiveCatalogService catalogService;
+
+    @Operation(summary = "Create a new book, or add a copy if the title already exists")
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BookResponse> createBook(@RequestBody @Valid CreateBookRequest request) {
+        return catalogService.createBook(request);
+    }
+
+    @Operation(summary = "Get book by ID")
+    @GetMapping("/{id}")
+    public Mono<BookResponse> getBookById(@PathVariable Long id) {
+        return catalogService.getBookById(id);
+    }
+
+    @Operation(summary = "Get books page by page, ordered by ID")
+    @GetMapping
+    public Mono<PageResponse<BookResponse>> getBooks(@RequestParam(required = false) Long cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        return catalogService.getBooks(cursor, size);
+    }
+
+    @Operation(summary = "Stream the whole catalog as newline-delimited JSON, paced by the client")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookResponse> streamBooks() {
+        return catalogService.streamBooks();
+    }
+}
@@ -0,0 +1,37 @@
+package com.library.library_management.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBookRepository extends R2dbcRepository<BookRow, Long> {
+
+    @Query("SELECT * FROM book WHERE id > :cursor ORDER BY id LIMIT :size")
+    Flux<BookRow> findPage(@Param("cursor") Long cursor, @Param("size") int size);
+
+    @Query("SELECT * FROM book ORDER BY id")
+    Flux<BookRow> streamAll();
+
+    // Ids come from the sequence the JPA entity uses, the table has no column default
+    @Query("INSERT INTO book (id, title, author, amount) VALUES (nextval('book_id_seq'), :title, :author, 1) RETURNING *")
+    Mono<BookRow> insert(@Param("title") String title, @Param("author") String author);
+
+    // Adds a copy to an existing title, empty if the title is not in the catalog yet
+    @Query("UPDATE book SET amount = amount + 1, version = version + 1 WHERE title = :title AND author = :author RETURNING *")
+    Mono<BookRow> addCopy(@Param("title") String title, @Param("author") String author);
+
+    // Reserves one copy in a single statement, empty if the book is missing or out of stock
+    @Query("UPDATE book SET amount = amount - 1, version = version + 1 WHERE id = :id AND amount > 0 RETURNING title")
+    Mono<String> decrementAmountIfAvailable(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE book SET amount = amount + 1, version = version + 1 WHERE id = :id")
+    Mono<Integer> incrementAmount(@Param("id") Long id);
+
+    // Locks the book until commit, so no hold is placed between reading its queue and restocking it
+    @Query("SELECT id FROM book WHERE id = :id FOR UPDATE")
+    Mono<Long> lockById(@Param("id") Long id);
+}
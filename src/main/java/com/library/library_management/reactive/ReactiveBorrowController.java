@@ -0,0 +1,31 @@
+package com.library.library_management.reactive;
+
+import com.library.library_management.dto.BorrowResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RequestMapping("/api/v1/borrows")
+@RestController
+@Profile("reactive")
+@Tag(name = "Borrows (reactive)", description = "Non-blocking borrowing and returning")
+public class ReactiveBorrowController {
+
+    @Autowired
+    private ReactiveBorrowService borrowService;
+
+    @Operation(summary = "Borrow a book by member ID and book ID")
+    @PostMapping
+    public Mono<BorrowResponse> borrowBook(@RequestParam Long memberId, @RequestParam Long bookId) {
+        return borrowService.borrowBook(memberId, bookId);
+    }
+
+    @Operation(summary = "Return a borrowed book by borrow ID")
+    @PostMapping("/return/{borrowId}")
+    public Mono<Void> returnBook(@PathVariable Long borrowId) {
+        return borrowService.returnBook(borrowId);
+    }
+}
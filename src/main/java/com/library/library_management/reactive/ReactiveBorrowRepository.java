@@ -0,0 +1,25 @@
+package com.library.library_management.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface ReactiveBorrowRepository extends R2dbcRepository<BorrowRow, Long> {
+
+    @Query("SELECT COUNT(*) FROM borrow WHERE member_id = :memberId AND return_date IS NULL")
+    Mono<Long> countOpenByMemberId(@Param("memberId") Long memberId);
+
+    @Query("INSERT INTO borrow (id, book_id, member_id, borrow_date, due_date) " +
+            "VALUES (nextval('borrow_id_seq'), :bookId, :memberId, :borrowDate, :dueDate) RETURNING *")
+    Mono<BorrowRow> insert(@Param("bookId") Long bookId, @Param("memberId") Long memberId,
+                           @Param("borrowDate") LocalDate borrowDate, @Param("dueDate") LocalDate dueDate);
+
+    // Closes the borrow only if it is still open, returns 0 if it was already returned
+    @Modifying
+    @Query("UPDATE borrow SET return_date = :returnDate WHERE id = :id AND return_date IS NULL")
+    Mono<Integer> markReturned(@Param("id") Long id, @Param("returnDate") LocalDate returnDate);
+}
@@ -0,0 +1,172 @@
+package com.library.library_management.reactive;
+
+import com.library.library_management.circulation.BookAvailability;
+import com.library.library_management.circulation.CirculationCounters;
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.circulation.OverdueTracker;
+import com.library.library_management.dto.BorrowResponse;
+import com.library.library_management.dto.mapper.BorrowMapper;
+import com.library.library_management.exception.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking checkout and return with the rules of {@code BorrowServiceImpl}: member must exist,
+ * borrow limit, a conditional stock decrement that never lets the amount go below zero, and returned copies
+ * going to the hold queue first. The member row is locked for the transaction instead of using the in-memory
+ * loan counter, which serializes checkouts of one member on this stack. Servlet instances do not take that lock,
+ * their loan counters only learn about these borrows on the next reconcile, so across both stacks the limit can
+ * briefly be exceeded.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveBorrowService {
+
+    // Holders looked at per returned copy, the ones at their borrow limit are skipped
+    private static final int HOLD_CANDIDATES = 10;
+
+    @Value("${borrow.limit}")
+    private int borrowLimit;
+
+    @Value("${borrow.loan-days}")
+    private int loanDays;
+
+    @Autowired
+    private ReactiveBookRepository bookRepository;
+
+    @Autowired
+    private ReactiveMemberRepository memberRepository;
+
+    @Autowired
+    private ReactiveBorrowRepository borrowRepository;
+
+    @Autowired
+    private ReactiveHoldRepository holdRepository;
+
+    @Autowired
+    private BorrowMapper borrowMapper;
+
+    @Autowired
+    private CirculationCounters circulationCounters;
+
+    @Autowired
+    private OverdueTracker overdueTracker;
+
+    @Autowired
+    private CirculationEventLog circulationEventLog;
+
+    @Autowired
+    private BookAvailability bookAvailability;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    public Mono<BorrowResponse> borrowBook(Long memberId, Long bookId) {
+        Mono<Checkout> checkout = memberRepository.lockById(memberId)
+                .switchIfEmpty(Mono.error(() -> new MemberNotFoundException("Member not found")))
+                .flatMap(locked -> borrowRepository.countOpenByMemberId(memberId))
+                .flatMap(open -> open >= borrowLimit
+                        ? Mono.<Boolean>error(new BorrowLimitExceededException("Member has reached the max borrow limit"))
+                        : takeTurnInQueue(memberId, bookId))
+                .flatMap(turn -> bookRepository.decrementAmountIfAvailable(bookId)
+                        .switchIfEmpty(Mono.defer(() -> bookUnavailable(bookId))))
+                .flatMap(title -> borrowRepository
+                        .insert(bookId, memberId, LocalDate.now(), LocalDate.now().plusDays(loanDays))
+                        .map(borrow -> new Checkout(borrow, title)));
+
+        return transactionalOperator.transactional(checkout)
+                .doOnNext(done -> {
+                    circulationCounters.borrowed(bookId, done.title(), 1);
+                    bookAvailability.adjust(bookId, -1);
+                    overdueTracker.schedule(done.borrow().id(), bookId, memberId, done.borrow().dueDate());
+                    circulationEventLog.borrowed(done.borrow().id(), bookId, memberId);
+                })
+                .map(done -> borrowMapper.toResponse(done.borrow()));
+    }
+
+    public Mono<Void> returnBook(Long borrowId) {
+        Mono<Return> returned = borrowRepository.findById(borrowId)
+                .switchIfEmpty(Mono.error(() -> new BorrowNotFoundException("Borrow not found")))
+                .flatMap(borrow -> borrow.returnDate() != null
+                        ? Mono.<Return>error(new BorrowAlreadyReturnedException("Book already returned"))
+                        : borrowRepository.markReturned(borrowId, LocalDate.now())
+                        .flatMap(updated -> updated == 0
+                                ? Mono.<Return>error(new BorrowAlreadyReturnedException("Book already returned"))
+                                : restockOrHandOver(borrow)));
+
+        return transactionalOperator.transactional(returned)
+                .doOnNext(done -> {
+                    BorrowRow borrow = done.borrow();
+                    overdueTracker.cancel(borrowId);
+                    circulationEventLog.returned(borrowId, borrow.bookId(), borrow.memberId());
+                    BorrowRow handover = done.handover();
+                    if (handover == null) {
+                        circulationCounters.returned(borrow.bookId(), 1);
+                        bookAvailability.adjust(borrow.bookId(), 1);
+                    } else {
+                        overdueTracker.schedule(handover.id(), handover.bookId(), handover.memberId(), handover.dueDate());
+                        circulationEventLog.borrowed(handover.id(), handover.bookId(), handover.memberId());
+                    }
+                })
+                .then();
+    }
+
+    // A member may only take a copy of a held book while first in its queue, the borrow uses up that hold
+    private Mono<Boolean> takeTurnInQueue(Long memberId, Long bookId) {
+        return holdRepository.findQueue(bookId, 1)
+                .next()
+                .flatMap(first -> first.memberId().equals(memberId)
+                        ? holdRepository.claim(first.id()).thenReturn(true)
+                        : Mono.<Boolean>error(new BookNotAvailableException("Book is reserved for members in its hold queue")))
+                .defaultIfEmpty(true);
+    }
+
+    // The copy goes to the next holder like on the servlet stack, back to the shelf only if nobody can take it.
+    // The book stays locked from reading its queue until commit, so no hold is placed in between
+    private Mono<Return> restockOrHandOver(BorrowRow borrow) {
+        return bookRepository.lockById(borrow.bookId())
+                .then(Mono.defer(() -> assignToNextHolder(borrow.bookId())))
+                .map(handover -> new Return(borrow, handover))
+                .switchIfEmpty(Mono.defer(() -> bookRepository.incrementAmount(borrow.bookId())
+                        .thenReturn(new Return(borrow, null))));
+    }
+
+    // Oldest holder under the borrow limit, locked like a checkout so the limit holds on this stack
+    private Mono<BorrowRow> assignToNextHolder(Long bookId) {
+        LocalDate today = LocalDate.now();
+        // The queue is read up front, the connection cannot run other statements while it streams rows
+        return holdRepository.findQueue(bookId, HOLD_CANDIDATES)
+                .collectList()
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(hold -> memberRepository.lockById(hold.memberId())
+                        .flatMap(locked -> borrowRepository.countOpenByMemberId(hold.memberId()))
+                        .filter(open -> open < borrowLimit)
+                        .flatMap(open -> holdRepository.claim(hold.id()))
+                        .filter(claimed -> claimed > 0)
+                        .flatMap(claimed -> borrowRepository.insert(bookId, hold.memberId(), today,
+                                today.plusDays(loanDays))))
+                .next();
+    }
+
+    // The conditional decrement matched nothing, tells a missing book from an out of stock one
+    private Mono<String> bookUnavailable(Long bookId) {
+        return bookRepository.existsById(bookId)
+                .flatMap(exists -> Mono.<String>error(exists
+                        ? new BookNotAvailableException("Book is not available for borrowing")
+                        : new BookNotFoundException("Book not found")));
+    }
+
+    private record Checkout(BorrowRow borrow, String title) {
+    }
+
+    // Handover is the borrow of the holder who got the copy, null if it went back to the shelf
+    private record Return(BorrowRow borrow, BorrowRow handover) {
+    }
+}
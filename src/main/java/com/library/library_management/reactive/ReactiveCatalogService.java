@@ -0,0 +1,115 @@
+package com.library.library_management.reactive;
+
+import com.library.library_management.circulation.BookAvailability;
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.config.PaginationProperties;
+import com.library.library_management.dto.BookResponse;
+import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.dto.CreateMemberRequest;
+import com.library.library_management.dto.MemberResponse;
+import com.library.library_management.dto.PageResponse;
+import com.library.library_management.dto.mapper.BookMapper;
+import com.library.library_management.dto.mapper.MemberMapper;
+import com.library.library_management.exception.BookNotFoundException;
+import com.library.library_management.exception.MemberNotFoundException;
+import com.library.library_management.service.support.ConstraintViolations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking book and member operations for the reactive profile, same rules as
+ * {@code BookServiceImpl} and {@code MemberServiceImpl}.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCatalogService {
+
+    private static final String BOOK_TITLE_AUTHOR_KEY = "book_title_author_key";
+
+    @Value("${optimistic-retry.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Autowired
+    private ReactiveBookRepository bookRepository;
+
+    @Autowired
+    private ReactiveMemberRepository memberRepository;
+
+    @Autowired
+    private BookMapper bookMapper;
+
+    @Autowired
+    private MemberMapper memberMapper;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private CirculationEventLog circulationEventLog;
+
+    @Autowired
+    private BookAvailability bookAvailability;
+
+    // Creating a title that already exists adds a copy instead, either way one copy is stocked
+    public Mono<BookResponse> createBook(CreateBookRequest request) {
+        // A concurrent create of the same title inserts first, the retry adds the copy to that book instead
+        return bookRepository.addCopy(request.title(), request.author())
+                .switchIfEmpty(Mono.defer(() -> bookRepository.insert(request.title(), request.author())))
+                .retryWhen(Retry.max(Math.max(0, maxAttempts - 1))
+                        .filter(e -> e instanceof DataIntegrityViolationException violation
+                                && ConstraintViolations.isViolationOf(violation, BOOK_TITLE_AUTHOR_KEY))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doOnNext(book -> {
+                    bookAvailability.put(book.id(), book.amount());
+                    circulationEventLog.stocked(book.id(), 1);
+                })
+                .map(bookMapper::toBookResponse);
+    }
+
+    public Mono<BookResponse> getBookById(Long id) {
+        return bookRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BookNotFoundException("Book not found")))
+                .map(bookMapper::toBookResponse);
+    }
+
+    public Mono<PageResponse<BookResponse>> getBooks(Long cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        return bookRepository.findPage(cursor == null ? 0L : cursor, pageSize + 1)
+                .collectList()
+                .map(books -> PageResponse.of(books, pageSize, BookRow::id, bookMapper::toBookResponse));
+    }
+
+    // Rows are fetched as the subscriber requests them, a slow client holds back the database cursor
+    public Flux<BookResponse> streamBooks() {
+        return bookRepository.streamAll().map(bookMapper::toBookResponse);
+    }
+
+    public Mono<MemberResponse> createMember(CreateMemberRequest request) {
+        return memberRepository.insert(request.name(), LocalDate.now()).map(memberMapper::toResponse);
+    }
+
+    public Mono<MemberResponse> getMemberById(Long id) {
+        return memberRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new MemberNotFoundException("Member not found")))
+                .map(memberMapper::toResponse);
+    }
+
+    public Mono<PageResponse<MemberResponse>> getMembers(Long cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        return memberRepository.findPage(cursor == null ? 0L : cursor, pageSize + 1)
+                .collectList()
+                .map(members -> PageResponse.of(members, pageSize, MemberRow::id, memberMapper::toResponse));
+    }
+
+    public Flux<MemberResponse> streamMembers() {
+        return memberRepository.streamAll().map(memberMapper::toResponse);
+    }
+}
@@ -0,0 +1,20 @@
+package com.library.library_management.reactive;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    // The R2DBC transaction manager is deliberately not a bean, a second TransactionManager
+    // would make @Transactional on the JPA services ambiguous
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
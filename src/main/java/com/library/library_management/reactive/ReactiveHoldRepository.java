@@ -0,0 +1,20 @@
+package com.library.library_management.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveHoldRepository extends R2dbcRepository<HoldRow, Long> {
+
+    // Front of the queue of a book, oldest hold first
+    @Query("SELECT * FROM hold WHERE book_id = :bookId ORDER BY id LIMIT :size")
+    Flux<HoldRow> findQueue(@Param("bookId") Long bookId, @Param("size") int size);
+
+    // Removes the hold only if it still exists, returns 0 if a concurrent return or cancel already took it
+    @Modifying
+    @Query("DELETE FROM hold WHERE id = :id")
+    Mono<Integer> claim(@Param("id") Long id);
+}
@@ -0,0 +1,51 @@
+package com.library.library_management.reactive;
+
+import com.library.library_management.dto.CreateMemberRequest;
+import com.library.library_management.dto.MemberResponse;
+import com.library.library_management.dto.PageResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequestMapping("/api/v1/members")
+@RestController
+@Profile("reactive")
+@Tag(name = "Members (reactive)", description = "Non-blocking member REST calls")
+public class ReactiveMemberController {
+
+    @Autowired
+    private ReactiveCatalogService catalogService;
+
+    @Operation(summary = "Create a new member")
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<MemberResponse> createMember(@Valid @RequestBody CreateMemberRequest request) {
+        return catalogService.createMember(request);
+    }
+
+    @Operation(summary = "Get member by ID")
+    @GetMapping("/{id}")
+    public Mono<MemberResponse> getMemberById(@PathVariable Long id) {
+        return catalogService.getMemberById(id);
+    }
+
+    @Operation(summary = "Get members page by page, ordered by ID")
+    @GetMapping
+    public Mono<PageResponse<MemberResponse>> getMembers(@RequestParam(required = false) Long cursor,
+                                                         @RequestParam(required = false) Integer size) {
+        return catalogService.getMembers(cursor, size);
+    }
+
+    @Operation(summary = "Stream all members as newline-delimited JSON, paced by the client")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MemberResponse> streamMembers() {
+        return catalogService.streamMembers();
+    }
+}
@@ -0,0 +1,25 @@
+package com.library.library_management.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface ReactiveMemberRepository extends R2dbcRepository<MemberRow, Long> {
+
+    @Query("SELECT * FROM member WHERE id > :cursor ORDER BY id LIMIT :size")
+    Flux<MemberRow> findPage(@Param("cursor") Long cursor, @Param("size") int size);
+
+    @Query("SELECT * FROM member ORDER BY id")
+    Flux<MemberRow> streamAll();
+
+    @Query("INSERT INTO member (id, name, membership_date) VALUES (nextval('member_id_seq'), :name, :membershipDate) RETURNING *")
+    Mono<MemberRow> insert(@Param("name") String name, @Param("membershipDate") LocalDate membershipDate);
+
+    // Serializes checkouts of one member until commit, so two of them cannot both pass the limit check
+    @Query("SELECT id FROM member WHERE id = :id FOR UPDATE")
+    Mono<Long> lockById(@Param("id") Long id);
+}
@@ -0,0 +1,9 @@
+package com.library.library_management.repository;
+
+// Projection of the copies on the shelf for the availability read model
+public interface BookAmount {
+
+    Long getId();
+
+    Integer getAmount();
+}
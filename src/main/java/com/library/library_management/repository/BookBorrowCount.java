@@ -0,0 +1,11 @@
+package com.library.library_management.repository;
+
+// Projection for open borrow counts grouped by book
+public interface BookBorrowCount {
+
+    Long getBookId();
+
+    String getTitle();
+
+    Long getBorrowCount();
+}
@@ -1,11 +1,65 @@
 package com.library.library_management.repository;
 
 import com.library.library_management.entity.Book;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
 
     Optional<Book> findByTitleAndAuthor(String title, String author);
+
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    Stream<Book> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b.id AS id, b.amount AS amount FROM Book b")
+    Stream<BookAmount> streamAmounts();
+
+    @Query("SELECT b.id AS id, b.amount AS amount FROM Book b WHERE b.id IN :ids")
+    List<BookAmount> findAmountsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Reserves one copy in a single statement, returns 0 if the book is missing or out of stock
+    @Modifying
+    @Query("UPDATE Book b SET b.amount = b.amount - 1, b.version = b.version + 1 WHERE b.id = :id AND b.amount > 0")
+    int decrementAmountIfAvailable(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.amount = b.amount + 1, b.version = b.version + 1 WHERE b.id = :id")
+    int incrementAmount(@Param("id") Long id);
+
+    // Locks the books in id order until commit, so no hold is placed between reading their queues and restocking
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id IN :ids ORDER BY b.id")
+    List<Book> lockAllById(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Locks a book without copies on the shelf until commit, returns 0 if a copy is available or the book is missing.
+     * The version is bumped as well, so a stock increase that read the book before commits only after reading
+     * its hold queue again.
+     */
+    @Modifying
+    @Query("UPDATE Book b SET b.version = b.version + 1 WHERE b.id = :id AND b.amount = 0")
+    int lockIfUnavailable(@Param("id") Long id);
 }
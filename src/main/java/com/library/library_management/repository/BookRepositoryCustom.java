@@ -0,0 +1,35 @@
+package com.library.library_management.repository;
+
+import com.library.library_management.entity.Book;
+
+import java.util.List;
+import java.util.Map;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * Decrements stock of every book by the given quantity in one JDBC batch.
+     * A book is only decremented if it has enough copies left. Rows are updated in id order,
+     * so concurrent batches over the same books lock them in the same order and cannot deadlock.
+     *
+     * @return ids of the books that did not have enough copies
+     */
+    List<Long> decrementAmountsIfAvailable(Map<Long, Integer> quantities);
+
+    // Increments stock in one JDBC batch, in id order like the decrement
+    void incrementAmounts(Map<Long, Integer> quantities);
+
+    // Reserves a block of ids from book_id_seq in one round trip
+    List<Long> allocateIds(int count);
+
+    // Inserts books that already have ids assigned in one JDBC batch
+    void insertAll(List<Book> books);
+
+    // Streams id, title and author of every book without loading entities
+    void scanTitleAuthor(TitleAuthorConsumer consumer);
+
+    @FunctionalInterface
+    interface TitleAuthorConsumer {
+        void accept(Long id, String title, String author);
+    }
+}
@@ -0,0 +1,69 @@
+package com.library.library_management.repository;
+
+import com.library.library_management.entity.Book;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    private static final int SCAN_FETCH_SIZE = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> decrementAmountsIfAvailable(Map<Long, Integer> quantities) {
+        List<Long> ids = new ArrayList<>(new TreeMap<>(quantities).keySet());
+        List<Object[]> args = ids.stream()
+                .map(id -> new Object[]{quantities.get(id), id, quantities.get(id)})
+                .toList();
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE book SET amount = amount - ?, version = version + 1 WHERE id = ? AND amount >= ?", args);
+
+        List<Long> unavailable = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] <= 0) {
+                unavailable.add(ids.get(i));
+            }
+        }
+        return unavailable;
+    }
+
+    @Override
+    public void incrementAmounts(Map<Long, Integer> quantities) {
+        List<Object[]> args = new TreeMap<>(quantities).entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate("UPDATE book SET amount = amount + ?, version = version + 1 WHERE id = ?", args);
+    }
+
+    @Override
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval('book_id_seq') FROM generate_series(1, ?)", Long.class, count);
+    }
+
+    @Override
+    public void insertAll(List<Book> books) {
+        List<Object[]> args = books.stream()
+                .map(book -> new Object[]{book.getId(), book.getTitle(), book.getAuthor(), book.getAmount()})
+                .toList();
+        jdbcTemplate.batchUpdate("INSERT INTO book (id, title, author, amount) VALUES (?, ?, ?, ?)", args);
+    }
+
+    @Override
+    public void scanTitleAuthor(TitleAuthorConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT id, title, author FROM book");
+            statement.setFetchSize(SCAN_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getString(2), rs.getString(3)));
+    }
+}
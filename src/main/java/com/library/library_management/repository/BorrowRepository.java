@@ -1,11 +1,21 @@
 package com.library.library_management.repository;
 
 import com.library.library_management.entity.Borrow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface BorrowRepository extends JpaRepository<Borrow, Long> {
+public interface BorrowRepository extends JpaRepository<Borrow, Long>, BorrowRepositoryCustom {
 
     boolean existsByBookIdAndReturnDateIsNull(Long bookId);
 
@@ -13,7 +23,47 @@ public interface BorrowRepository extends JpaRepository<Borrow, Long> {
 
     int countByMemberIdAndReturnDateIsNull(Long memberId);
 
-    List<Borrow> findByMemberIdAndReturnDateIsNull(Long memberId);
+    @Query("SELECT DISTINCT b.book.id FROM Borrow b WHERE b.returnDate IS NULL AND b.book.id IN :bookIds")
+    List<Long> findBorrowedBookIds(@Param("bookIds") Collection<Long> bookIds);
 
-    List<Borrow> findByReturnDateIsNull();
+    List<Borrow> findByMemberIdInAndReturnDateIsNullOrderByIdAsc(Collection<Long> memberIds);
+
+    List<Borrow> findByMemberIdAndReturnDateIsNullAndIdGreaterThanOrderByIdAsc(Long memberId, Long id, Limit limit);
+
+    List<Borrow> findByReturnDateIsNullAndDueDateBeforeAndIdGreaterThanOrderByIdAsc(LocalDate date, Long id, Limit limit);
+
+    @Query("SELECT b.book.title AS title, COUNT(b) AS borrowCount FROM Borrow b " +
+            "WHERE b.returnDate IS NULL AND b.borrowDate BETWEEN :from AND :to " +
+            "GROUP BY b.book.title ORDER BY COUNT(b) DESC, b.book.title")
+    List<TitleCount> countOpenBorrowsByTitle(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+
+    @Query("SELECT b.book.id AS bookId, b.book.title AS title, COUNT(b) AS borrowCount FROM Borrow b " +
+            "WHERE b.returnDate IS NULL GROUP BY b.book.id, b.book.title")
+    List<BookBorrowCount> countOpenBorrowsByBook();
+
+    @Query("SELECT b.member.id AS memberId, COUNT(b) AS loanCount FROM Borrow b " +
+            "WHERE b.returnDate IS NULL GROUP BY b.member.id")
+    List<MemberLoanCount> countOpenBorrowsByMember();
+
+    @Query("SELECT DISTINCT b.book.title FROM Borrow b " +
+            "WHERE b.returnDate IS NULL AND b.borrowDate BETWEEN :from AND :to " +
+            "ORDER BY b.book.title")
+    List<String> findDistinctOpenBorrowTitles(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Borrow b ORDER BY b.id")
+    Stream<Borrow> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT b.id AS id, b.book.id AS bookId, b.member.id AS memberId, b.dueDate AS dueDate FROM Borrow b " +
+            "WHERE b.returnDate IS NULL")
+    Stream<OpenLoan> streamOpenLoans();
+
+    // Closes the borrow only if it is still open, returns 0 if it was already returned
+    @Modifying
+    @Query("UPDATE Borrow b SET b.returnDate = :returnDate WHERE b.id = :id AND b.returnDate IS NULL")
+    int markReturned(@Param("id") Long id, @Param("returnDate") LocalDate returnDate);
 }
@@ -0,0 +1,14 @@
+package com.library.library_management.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BorrowRepositoryCustom {
+
+    /**
+     * Closes all given borrows that are still open in one JDBC batch.
+     *
+     * @return ids of the borrows that were actually closed by this call
+     */
+    List<Long> markAllReturned(List<Long> ids, LocalDate returnDate);
+}
@@ -0,0 +1,31 @@
+package com.library.library_management.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BorrowRepositoryCustomImpl implements BorrowRepositoryCustom {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> markAllReturned(List<Long> ids, LocalDate returnDate) {
+        List<Object[]> args = ids.stream()
+                .map(id -> new Object[]{returnDate, id})
+                .toList();
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE borrow SET return_date = ? WHERE id = ? AND return_date IS NULL", args);
+
+        List<Long> closed = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                closed.add(ids.get(i));
+            }
+        }
+        return closed;
+    }
+}
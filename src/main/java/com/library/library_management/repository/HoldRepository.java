@@ -0,0 +1,36 @@
+package com.library.library_management.repository;
+
+import com.library.library_management.entity.Hold;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    boolean existsByBookIdAndMemberId(Long bookId, Long memberId);
+
+    // Front of the queue of a book, oldest hold first
+    List<Hold> findByBookIdOrderByIdAsc(Long bookId, Limit limit);
+
+    List<Hold> findByMemberIdOrderByIdAsc(Long memberId);
+
+    // Holds ahead in the queue, counted from the queue index alone
+    long countByBookIdAndIdLessThan(Long bookId, Long id);
+
+    // Oldest hold of each of the books, its holder is the only member who may take a copy from the shelf
+    @Query("SELECT h FROM Hold h WHERE h.book.id IN :bookIds AND h.id = (SELECT MIN(o.id) FROM Hold o WHERE o.book.id = h.book.id)")
+    List<Hold> findFirstInQueues(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT DISTINCT h.book.id FROM Hold h WHERE h.book.id IN :bookIds")
+    List<Long> findHeldBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    // Removes the hold only if it still exists, returns 0 if a concurrent return or cancel already took it
+    @Modifying
+    @Query("DELETE FROM Hold h WHERE h.id = :id")
+    int claim(@Param("id") Long id);
+}
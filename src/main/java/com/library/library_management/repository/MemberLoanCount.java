@@ -0,0 +1,9 @@
+package com.library.library_management.repository;
+
+// Projection for open borrow counts grouped by member
+public interface MemberLoanCount {
+
+    Long getMemberId();
+
+    Long getLoanCount();
+}
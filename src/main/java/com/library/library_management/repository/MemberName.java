@@ -0,0 +1,9 @@
+package com.library.library_management.repository;
+
+// Projection for ID and name of a member
+public interface MemberName {
+
+    Long getId();
+
+    String getName();
+}
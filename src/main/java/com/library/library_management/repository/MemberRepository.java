@@ -1,10 +1,32 @@
 package com.library.library_management.repository;
 
 import com.library.library_management.entity.Member;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberRepository extends JpaRepository<Member, Long> {
-    Optional<Member> findByName(String name);
+    // Served by the lower(name) index, only used until the member name index is loaded
+    @Query("SELECT m.id FROM Member m WHERE lower(m.name) = lower(:name)")
+    List<Long> findIdsByNameIgnoreCase(@Param("name") String name);
+
+    List<Member> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Member m ORDER BY m.id")
+    Stream<Member> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT m.id AS id, m.name AS name FROM Member m")
+    Stream<MemberName> streamNames();
 }
@@ -0,0 +1,15 @@
+package com.library.library_management.repository;
+
+import java.time.LocalDate;
+
+// Projection of an open borrow for the overdue tracker
+public interface OpenLoan {
+
+    Long getId();
+
+    Long getBookId();
+
+    Long getMemberId();
+
+    LocalDate getDueDate();
+}
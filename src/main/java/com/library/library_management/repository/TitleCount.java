@@ -0,0 +1,9 @@
+package com.library.library_management.repository;
+
+// Projection for borrow counts grouped by book title
+public interface TitleCount {
+
+    String getTitle();
+
+    Long getBorrowCount();
+}
@@ -0,0 +1,428 @@
+package com.library.library_management.search;
+
+import com.library.library_management.repository.BookRepositoryCustom;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over book titles and authors, kept up to date by the book service after commit.
+ * <p>
+ * Titles and authors are split into lower-cased, accent-free tokens. Every token of a query must match a token
+ * of the book, exactly, as a prefix, or, if the query token matches nothing that way, within one typo
+ * (insertion, deletion, substitution or swap of adjacent letters). Results are ranked by the sum of
+ * the best match of every query token, weighted by match kind, field and rarity of the matched token.
+ * <p>
+ * Typo candidates come from a single-deletion dictionary: every term is also filed under each variant with
+ * one letter removed, so terms one edit away from the query share a key with one of the query's variants.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double AUTHOR_WEIGHT = 1.0;
+    private static final double PREFIX_FACTOR = 0.6;
+    private static final double TYPO_FACTOR = 0.4;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;
+
+    private volatile Segment segment = new Segment();
+    // Also receives updates while a rebuild scans the catalog, so they are not lost when it is swapped in
+    private volatile Segment rebuilding;
+
+    // False until the first rebuild from the database has finished
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return segment.size();
+    }
+
+    // Adds the book, or re-indexes it if its title or author changed
+    public void put(Long id, String title, String author) {
+        segment.put(id, title, author);
+        Segment next = rebuilding;
+        if (next != null) {
+            next.put(id, title, author);
+        }
+    }
+
+    public void remove(Long id) {
+        segment.remove(id);
+        Segment next = rebuilding;
+        if (next != null) {
+            next.remove(id);
+        }
+    }
+
+    /**
+     * Returns IDs of the books matching every token of the query, best match first, ties by ID.
+     *
+     * @param offset number of ranked results to skip
+     * @param limit  maximum number of IDs to return
+     */
+    public List<Long> search(String query, int offset, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return segment.search(tokens, offset, limit);
+    }
+
+    /**
+     * Builds a fresh index from a scan of the catalog and swaps it in once complete, searches keep using
+     * the current one meanwhile. An update racing with the swap can be lost and is picked up by the next rebuild.
+     */
+    public void rebuild(Consumer<BookRepositoryCustom.TitleAuthorConsumer> catalogScan) {
+        Segment fresh = new Segment();
+        rebuilding = fresh;
+        try {
+            catalogScan.accept(fresh::put);
+            segment = fresh;
+            ready = true;
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    // Distinct words of the text, in order
+    static List<String> tokenize(String text) {
+        return TextNormalizer.words(text).stream().distinct().toList();
+    }
+
+    // Damerau-Levenshtein distance of at most one, in a single pass
+    static boolean withinOneEdit(String a, String b) {
+        int lengthDifference = a.length() - b.length();
+        if (lengthDifference < -1 || lengthDifference > 1) {
+            return false;
+        }
+        if (lengthDifference < 0) {
+            return withinOneEdit(b, a);
+        }
+        int i = 0;
+        while (i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i == b.length()) {
+            return true;
+        }
+        if (lengthDifference == 1) {
+            return a.regionMatches(i + 1, b, i, b.length() - i);
+        }
+        // Same length: one substitution, or a swap of the two letters at the mismatch
+        if (a.regionMatches(i + 1, b, i + 1, b.length() - i - 1)) {
+            return true;
+        }
+        return i + 1 < a.length()
+                && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                && a.regionMatches(i + 2, b, i + 2, b.length() - i - 2);
+    }
+
+    private static List<String> deletionVariants(String term) {
+        List<String> variants = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    /**
+     * One complete index. Postings are sorted arrays of primitive IDs and documents share the dictionary's
+     * term strings, which keeps the footprint of a large catalog small.
+     */
+    private static final class Segment {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final Map<String, Set<String>> termsByVariant = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return documents.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(Long id, String title, String author) {
+            List<String> titleTokens = tokenize(title);
+            List<String> authorTokens = tokenize(author);
+            lock.writeLock().lock();
+            try {
+                Document existing = documents.get(id);
+                if (existing != null) {
+                    if (existing.matches(titleTokens, authorTokens)) {
+                        return;
+                    }
+                    unindex(id, existing);
+                }
+                Set<String> added = new HashSet<>();
+                String[] titleTerms = new String[titleTokens.size()];
+                for (int i = 0; i < titleTerms.length; i++) {
+                    titleTerms[i] = index(id, titleTokens.get(i), added);
+                }
+                String[] authorTerms = new String[authorTokens.size()];
+                for (int i = 0; i < authorTerms.length; i++) {
+                    authorTerms[i] = index(id, authorTokens.get(i), added);
+                }
+                documents.put(id, new Document(titleTerms, authorTerms));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                Document existing = documents.remove(id);
+                if (existing != null) {
+                    unindex(id, existing);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Long> search(List<String> tokens, int offset, int limit) {
+            lock.readLock().lock();
+            try {
+                List<QueryToken> query = new ArrayList<>(tokens.size());
+                for (String token : tokens) {
+                    QueryToken expanded = expand(token);
+                    if (expanded.matches.isEmpty()) {
+                        return List.of();
+                    }
+                    query.add(expanded);
+                }
+                // Only the most selective token is read from postings, the others are checked per candidate
+                QueryToken driver = Collections.min(query, Comparator.comparingLong(QueryToken::postingCount));
+
+                int keep = offset + limit;
+                PriorityQueue<Hit> best = new PriorityQueue<>(Hit.WORST_FIRST);
+                for (long id : driver.candidates()) {
+                    Document document = documents.get(id);
+                    double score = 0;
+                    for (QueryToken token : query) {
+                        double tokenScore = document.score(token);
+                        if (tokenScore == 0) {
+                            score = 0;
+                            break;
+                        }
+                        score += tokenScore;
+                    }
+                    if (score > 0) {
+                        best.add(new Hit(id, score));
+                        if (best.size() > keep) {
+                            best.poll();
+                        }
+                    }
+                }
+
+                List<Hit> ranked = new ArrayList<>(best);
+                ranked.sort(Hit.WORST_FIRST.reversed());
+                List<Long> ids = new ArrayList<>(limit);
+                for (int i = offset; i < ranked.size(); i++) {
+                    ids.add(ranked.get(i).id());
+                }
+                return ids;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Terms the query token matches, each with the factor of its match kind and its rarity
+        private QueryToken expand(String token) {
+            Map<String, Double> matches = new HashMap<>();
+            List<Postings> postings = new ArrayList<>();
+            double documentCount = Math.max(1, documents.size());
+
+            Postings exact = terms.get(token);
+            if (exact != null) {
+                matches.put(exact.term, exact.idf(documentCount));
+                postings.add(exact);
+            }
+            if (token.length() >= MIN_PREFIX_LENGTH) {
+                for (Postings prefixed : terms.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                    matches.put(prefixed.term, PREFIX_FACTOR * prefixed.idf(documentCount));
+                    postings.add(prefixed);
+                }
+            }
+            if (matches.isEmpty() && token.length() >= MIN_TYPO_LENGTH) {
+                Set<String> candidates = new HashSet<>(termsByVariant.getOrDefault(token, Set.of()));
+                for (String variant : deletionVariants(token)) {
+                    candidates.addAll(termsByVariant.getOrDefault(variant, Set.of()));
+                }
+                for (String candidate : candidates) {
+                    if (withinOneEdit(token, candidate)) {
+                        Postings close = terms.get(candidate);
+                        matches.put(close.term, TYPO_FACTOR * close.idf(documentCount));
+                        postings.add(close);
+                    }
+                }
+            }
+            return new QueryToken(matches, postings);
+        }
+
+        private String index(Long id, String token, Set<String> added) {
+            Postings postings = terms.get(token);
+            if (postings == null) {
+                postings = new Postings(token);
+                terms.put(token, postings);
+                if (token.length() >= MIN_TYPO_LENGTH - 1) {
+                    termsByVariant.computeIfAbsent(token, key -> new HashSet<>(2)).add(token);
+                    for (String variant : deletionVariants(token)) {
+                        termsByVariant.computeIfAbsent(variant, key -> new HashSet<>(2)).add(token);
+                    }
+                }
+            }
+            if (added.add(postings.term)) {
+                postings.add(id);
+            }
+            return postings.term;
+        }
+
+        private void unindex(Long id, Document document) {
+            Set<String> removed = new HashSet<>();
+            for (String term : document.titleTerms) {
+                unindex(id, term, removed);
+            }
+            for (String term : document.authorTerms) {
+                unindex(id, term, removed);
+            }
+        }
+
+        private void unindex(Long id, String term, Set<String> removed) {
+            if (!removed.add(term)) {
+                return;
+            }
+            Postings postings = terms.get(term);
+            postings.remove(id);
+            if (postings.size > 0) {
+                return;
+            }
+            terms.remove(term);
+            if (term.length() >= MIN_TYPO_LENGTH - 1) {
+                dropVariant(term, term);
+                for (String variant : deletionVariants(term)) {
+                    dropVariant(variant, term);
+                }
+            }
+        }
+
+        private void dropVariant(String variant, String term) {
+            Set<String> filed = termsByVariant.get(variant);
+            if (filed != null && filed.remove(term) && filed.isEmpty()) {
+                termsByVariant.remove(variant);
+            }
+        }
+    }
+
+    private record Document(String[] titleTerms, String[] authorTerms) {
+
+        boolean matches(List<String> titleTokens, List<String> authorTokens) {
+            return Arrays.asList(titleTerms).equals(titleTokens) && Arrays.asList(authorTerms).equals(authorTokens);
+        }
+
+        // Best weight of the query token in this book, 0 if it matches neither title nor author
+        double score(QueryToken token) {
+            double best = 0;
+            for (String term : titleTerms) {
+                best = Math.max(best, TITLE_WEIGHT * token.matches.getOrDefault(term, 0.0));
+            }
+            for (String term : authorTerms) {
+                best = Math.max(best, AUTHOR_WEIGHT * token.matches.getOrDefault(term, 0.0));
+            }
+            return best;
+        }
+    }
+
+    private record QueryToken(Map<String, Double> matches, List<Postings> postings) {
+
+        long postingCount() {
+            long count = 0;
+            for (Postings term : postings) {
+                count += term.size;
+            }
+            return count;
+        }
+
+        // Union of the postings of all matched terms, without duplicates
+        long[] candidates() {
+            if (postings.size() == 1) {
+                Postings only = postings.get(0);
+                return Arrays.copyOf(only.ids, only.size);
+            }
+            long[] ids = new long[Math.toIntExact(postingCount())];
+            int length = 0;
+            for (Postings term : postings) {
+                System.arraycopy(term.ids, 0, ids, length, term.size);
+                length += term.size;
+            }
+            Arrays.sort(ids);
+            int distinct = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (i == 0 || ids[i] != ids[i - 1]) {
+                    ids[distinct++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(ids, distinct);
+        }
+    }
+
+    private record Hit(long id, double score) {
+
+        // Lowest score first, on equal scores the higher ID, so the heap evicts what ranks last
+        static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+                .thenComparing(Hit::id, Comparator.reverseOrder());
+    }
+
+    // Sorted IDs of the books containing a term, new books usually append since IDs come from a sequence
+    private static final class Postings {
+
+        private final String term;
+        private long[] ids = new long[2];
+        private int size;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        double idf(double documentCount) {
+            return Math.log(1 + documentCount / size);
+        }
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            if (size == 0 || ids[size - 1] < id) {
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.library.library_management.search;
+
+import com.library.library_management.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Loads the book search index at startup and periodically rebuilds it to pick up writes of other instances
+@Component
+public class BookSearchIndexSync {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndexSync.class);
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        rebuild();
+        log.info("Book search index loaded, {} books in {} ms",
+                bookSearchIndex.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(initialDelayString = "${book.search.rebuild-interval:PT30M}",
+            fixedDelayString = "${book.search.rebuild-interval:PT30M}")
+    public void rebuild() {
+        // The scan streams with a fetch size, which needs a transaction on PostgreSQL
+        transactionTemplate.executeWithoutResult(status -> bookSearchIndex.rebuild(bookRepository::scanTitleAuthor));
+    }
+}
@@ -0,0 +1,367 @@
+package com.library.library_management.search;
+
+import com.library.library_management.dto.MemberSuggestion;
+import com.library.library_management.repository.MemberName;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of member names for autocomplete and case-insensitive lookup,
+ * kept up to date by the member service after commit.
+ * <p>
+ * Names are folded to lower-case, accent-free words and stored in two radix tries, one keyed by the full name
+ * and one by every trailing part of it ("jane watson", "watson" for "Mary Jane Watson"), so typing the start of
+ * any word of a name finds it. Edges carry whole runs of letters and nodes keep member IDs in primitive arrays,
+ * so the tries stay small for large member bases.
+ */
+@Component
+public class MemberNameIndex {
+
+    private volatile Tries tries = new Tries();
+    // Also receives updates while a rebuild scans the members, so they are not lost when it is swapped in
+    private volatile Tries rebuilding;
+
+    // False until the first rebuild from the database has finished
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return tries.size();
+    }
+
+    // Adds the member, or re-indexes it if the name changed
+    public void put(Long id, String name) {
+        tries.put(id, name);
+        Tries next = rebuilding;
+        if (next != null) {
+            next.put(id, name);
+        }
+    }
+
+    public void remove(Long id) {
+        tries.remove(id);
+        Tries next = rebuilding;
+        if (next != null) {
+            next.remove(id);
+        }
+    }
+
+    // IDs of all members with this name, ignoring case, accents and punctuation
+    public List<Long> findByName(String name) {
+        String key = String.join(" ", TextNormalizer.words(name));
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        return tries.findByName(key);
+    }
+
+    /**
+     * Members whose name, or a word of it, starts with the given text.
+     * Full name matches come first, each group in alphabetical order of the name.
+     */
+    public List<MemberSuggestion> autocomplete(String prefix, int limit) {
+        String key = String.join(" ", TextNormalizer.words(prefix));
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return tries.autocomplete(key, limit);
+    }
+
+    /**
+     * Builds a fresh index from a scan of the members and swaps it in once complete, lookups keep using
+     * the current one meanwhile. An update racing with the swap can be lost and is picked up by the next rebuild.
+     */
+    public void rebuild(Iterator<MemberName> members) {
+        Tries fresh = new Tries();
+        rebuilding = fresh;
+        try {
+            members.forEachRemaining(member -> fresh.put(member.getId(), member.getName()));
+            tries = fresh;
+            ready = true;
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private static final class Tries {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Node names = new Node("");
+        private final Node words = new Node("");
+        private final Map<Long, String> displayNames = new HashMap<>();
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return displayNames.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(Long id, String name) {
+            lock.writeLock().lock();
+            try {
+                String previous = displayNames.put(id, name);
+                if (previous != null) {
+                    if (previous.equals(name)) {
+                        return;
+                    }
+                    unindex(id, previous);
+                }
+                List<String> parts = TextNormalizer.words(name);
+                if (parts.isEmpty()) {
+                    return;
+                }
+                names.insert(String.join(" ", parts), id);
+                for (int i = 1; i < parts.size(); i++) {
+                    words.insert(String.join(" ", parts.subList(i, parts.size())), id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                String previous = displayNames.remove(id);
+                if (previous != null) {
+                    unindex(id, previous);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Long> findByName(String key) {
+            lock.readLock().lock();
+            try {
+                Node node = names.find(key, true);
+                if (node == null) {
+                    return List.of();
+                }
+                List<Long> ids = new ArrayList<>(node.ids.length);
+                for (long id : node.ids) {
+                    ids.add(id);
+                }
+                return ids;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<MemberSuggestion> autocomplete(String key, int limit) {
+            lock.readLock().lock();
+            try {
+                Set<Long> ids = new LinkedHashSet<>();
+                collect(names.find(key, false), ids, limit);
+                collect(words.find(key, false), ids, limit);
+                List<MemberSuggestion> suggestions = new ArrayList<>(ids.size());
+                for (Long id : ids) {
+                    suggestions.add(new MemberSuggestion(id, displayNames.get(id)));
+                }
+                return suggestions;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void unindex(Long id, String name) {
+            List<String> parts = TextNormalizer.words(name);
+            if (parts.isEmpty()) {
+                return;
+            }
+            names.delete(String.join(" ", parts), id);
+            for (int i = 1; i < parts.size(); i++) {
+                words.delete(String.join(" ", parts.subList(i, parts.size())), id);
+            }
+        }
+
+        // Pre-order walk, so shorter names come before longer ones on the same branch
+        private static void collect(Node node, Set<Long> ids, int limit) {
+            if (node == null || ids.size() >= limit) {
+                return;
+            }
+            for (long id : node.ids) {
+                ids.add(id);
+                if (ids.size() >= limit) {
+                    return;
+                }
+            }
+            for (Node child : node.children) {
+                collect(child, ids, limit);
+                if (ids.size() >= limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Radix trie node, children are sorted by the first character of their label
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final long[] NO_IDS = new long[0];
+
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private long[] ids = NO_IDS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        void insert(String key, long id) {
+            Node node = this;
+            String rest = key;
+            while (!rest.isEmpty()) {
+                int index = node.childIndex(rest.charAt(0));
+                if (index < 0) {
+                    Node leaf = new Node(rest);
+                    node.addChild(-index - 1, leaf);
+                    node = leaf;
+                    break;
+                }
+                Node child = node.children[index];
+                int common = commonPrefixLength(child.label, rest);
+                if (common < child.label.length()) {
+                    // Split the edge where the new key leaves it
+                    Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.children = new Node[]{child};
+                    node.children[index] = middle;
+                    child = middle;
+                }
+                node = child;
+                rest = rest.substring(common);
+            }
+            node.addId(id);
+        }
+
+        void delete(String key, long id) {
+            Deque<Node> path = new ArrayDeque<>();
+            Node node = this;
+            String rest = key;
+            while (!rest.isEmpty()) {
+                int index = node.childIndex(rest.charAt(0));
+                if (index < 0 || !rest.startsWith(node.children[index].label)) {
+                    return;
+                }
+                path.push(node);
+                node = node.children[index];
+                rest = rest.substring(node.label.length());
+            }
+            node.removeId(id);
+
+            // Drop emptied nodes and merge single children back into their parent edge
+            while (!path.isEmpty()) {
+                Node parent = path.pop();
+                if (node.ids.length == 0 && node.children.length == 0) {
+                    parent.removeChild(node);
+                } else if (node.ids.length == 0 && node.children.length == 1) {
+                    Node only = node.children[0];
+                    node.label = node.label + only.label;
+                    node.children = only.children;
+                    node.ids = only.ids;
+                }
+                node = parent;
+            }
+        }
+
+        // Node at the end of the key, or for a prefix the node whose subtree holds every key starting with it
+        Node find(String key, boolean exact) {
+            Node node = this;
+            String rest = key;
+            while (!rest.isEmpty()) {
+                int index = node.childIndex(rest.charAt(0));
+                if (index < 0) {
+                    return null;
+                }
+                Node child = node.children[index];
+                int common = commonPrefixLength(child.label, rest);
+                if (common == rest.length() && common < child.label.length()) {
+                    return exact ? null : child;
+                }
+                if (common < child.label.length()) {
+                    return null;
+                }
+                node = child;
+                rest = rest.substring(common);
+            }
+            return node;
+        }
+
+        private int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char candidate = children[middle].label.charAt(0);
+                if (candidate < first) {
+                    low = middle + 1;
+                } else if (candidate > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void addChild(int position, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, position);
+            grown[position] = child;
+            System.arraycopy(children, position, grown, position + 1, children.length - position);
+            children = grown;
+        }
+
+        private void removeChild(Node child) {
+            int position = childIndex(child.label.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, position);
+            System.arraycopy(children, position + 1, shrunk, position, children.length - position - 1);
+            children = shrunk;
+        }
+
+        // Members sharing a name are kept in ID order
+        private void addId(long id) {
+            int position = Arrays.binarySearch(ids, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            long[] grown = new long[ids.length + 1];
+            System.arraycopy(ids, 0, grown, 0, insertAt);
+            grown[insertAt] = id;
+            System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+            ids = grown;
+        }
+
+        private void removeId(long id) {
+            int position = Arrays.binarySearch(ids, id);
+            if (position < 0) {
+                return;
+            }
+            long[] shrunk = new long[ids.length - 1];
+            System.arraycopy(ids, 0, shrunk, 0, position);
+            System.arraycopy(ids, position + 1, shrunk, position, ids.length - position - 1);
+            ids = shrunk;
+        }
+
+        private static int commonPrefixLength(String a, String b) {
+            int length = Math.min(a.length(), b.length());
+            int i = 0;
+            while (i < length && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.library.library_management.search;
+
+import com.library.library_management.repository.MemberName;
+import com.library.library_management.repository.MemberRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+// Loads the member name index at startup and periodically rebuilds it to pick up writes of other instances
+@Component
+public class MemberNameIndexSync {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberNameIndexSync.class);
+
+    @Autowired
+    private MemberNameIndex memberNameIndex;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        rebuild();
+        log.info("Member name index loaded, {} members in {} ms",
+                memberNameIndex.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(initialDelayString = "${member.name-index.rebuild-interval:PT30M}",
+            fixedDelayString = "${member.name-index.rebuild-interval:PT30M}")
+    public void rebuild() {
+        // Streaming query results need an open transaction
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<MemberName> names = memberRepository.streamNames()) {
+                memberNameIndex.rebuild(names.iterator());
+            }
+        });
+    }
+}
@@ -1,24 +1,39 @@
 package com.library.library_management.service;
 
+import com.library.library_management.dto.BookAvailabilityResponse;
+import com.library.library_management.dto.BookImportFormat;
+import com.library.library_management.dto.BookImportResponse;
 import com.library.library_management.dto.BookResponse;
 import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.dto.PageResponse;
 import com.library.library_management.dto.UpdateBookRequest;
 import com.library.library_management.entity.Book;
 
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface BookService {
     BookResponse createBook(CreateBookRequest request);
 
     BookResponse getBookById(Long id);
 
-    List<BookResponse> getAllBooks();
+    PageResponse<BookResponse> getBooks(Long cursor, Integer size);
 
-    BookResponse updateBookById(Long id, UpdateBookRequest request);
+    PageResponse<BookResponse> searchBooks(String query, Long cursor, Integer size);
+
+    BookResponse updateBookById(Long id, UpdateBookRequest request, Long expectedVersion);
 
     void deleteBookById(Long id);
 
     boolean existsById(Long id);
 
+    Set<Long> findExistingIds(Collection<Long> ids);
+
     int getAmountById(Long id);
+
+    List<BookAvailabilityResponse> getAvailability(List<Long> bookIds);
+
+    BookImportResponse importBooks(InputStream input, BookImportFormat format);
 }
@@ -1,9 +1,16 @@
 package com.library.library_management.service;
 
+import com.library.library_management.dto.BatchReturnResponse;
 import com.library.library_management.dto.BorrowResponse;
+import com.library.library_management.dto.OverdueLoanResponse;
+import com.library.library_management.dto.PageResponse;
+import com.library.library_management.entity.Book;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public interface BorrowService {
 
@@ -11,15 +18,25 @@ public interface BorrowService {
 
     void returnBook(Long borrowId);
 
-    List<BorrowResponse> getBorrowedBooksByMember(Long memberId);
+    List<BorrowResponse> borrowBooks(Long memberId, List<Long> bookIds);
+
+    BatchReturnResponse returnBooks(List<Long> borrowIds);
+
+    void checkOutToHolders(Book book, int copies);
+
+    PageResponse<BorrowResponse> getBorrowedBooksByMember(Long memberId, Long cursor, Integer size);
 
     List<BorrowResponse> getBorrowedBooksByMemberName(String memberName);
 
+    PageResponse<OverdueLoanResponse> getOverdueLoans(Long cursor, Integer size);
+
     boolean isBookCurrentlyBorrowed(Long bookId);
 
+    Set<Long> findCurrentlyBorrowedBookIds(Collection<Long> bookIds);
+
     boolean isMemberCurrentlyBorrowing(Long memberId);
 
-    List<String> getDistinctBorrowedBookTitles();
+    List<String> getDistinctBorrowedBookTitles(LocalDate from, LocalDate to, Integer limit);
 
-    Map<String, Long> getBorrowedBookTitlesWithCount();
+    Map<String, Long> getBorrowedBookTitlesWithCount(LocalDate from, LocalDate to, Integer limit);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.library.library_management.service;
+
+import com.library.library_management.dto.CacheStatsResponse;
+
+import java.util.List;
+
+public interface CacheStatsService {
+
+    List<CacheStatsResponse> getCacheStats();
+}
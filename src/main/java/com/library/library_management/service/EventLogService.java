@@ -0,0 +1,12 @@
+package com.library.library_management.service;
+
+import com.library.library_management.dto.CirculationEventResponse;
+import com.library.library_management.dto.EventLogReplayResponse;
+import com.library.library_management.dto.PageResponse;
+
+public interface EventLogService {
+
+    PageResponse<CirculationEventResponse> getEvents(Long cursor, Integer size);
+
+    EventLogReplayResponse replay();
+}
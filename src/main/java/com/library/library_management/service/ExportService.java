@@ -0,0 +1,13 @@
+package com.library.library_management.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    void exportBooks(OutputStream output) throws IOException;
+
+    void exportMembers(OutputStream output) throws IOException;
+
+    void exportBorrows(OutputStream output) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.library.library_management.service;
+
+import com.library.library_management.dto.HoldResponse;
+
+import java.util.List;
+
+public interface HoldService {
+
+    HoldResponse placeHold(Long memberId, Long bookId);
+
+    HoldResponse getHoldById(Long holdId);
+
+    List<HoldResponse> getHoldsByMember(Long memberId);
+
+    void cancelHold(Long holdId);
+}
@@ -2,6 +2,8 @@ package com.library.library_management.service;
 
 import com.library.library_management.dto.CreateMemberRequest;
 import com.library.library_management.dto.MemberResponse;
+import com.library.library_management.dto.MemberSuggestion;
+import com.library.library_management.dto.PageResponse;
 import com.library.library_management.dto.UpdateMemberRequest;
 import com.library.library_management.entity.Member;
 
@@ -12,7 +14,9 @@ public interface MemberService {
 
     MemberResponse getMemberById(Long id);
 
-    List<MemberResponse> getAllMembers();
+    PageResponse<MemberResponse> getMembers(Long cursor, Integer size);
+
+    List<MemberSuggestion> autocompleteMembers(String prefix, Integer limit);
 
     MemberResponse updateMemberById(Long id, UpdateMemberRequest request);
 
@@ -0,0 +1,286 @@
+package com.library.library_management.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.library_management.circulation.BookAvailability;
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.dto.BookImportError;
+import com.library.library_management.dto.BookImportFormat;
+import com.library.library_management.dto.BookImportResponse;
+import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.entity.Book;
+import com.library.library_management.exception.BookImportException;
+import com.library.library_management.repository.BookRepository;
+import com.library.library_management.search.BookSearchIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON catalog line by line and writes it in JDBC batches.
+ * Rows are deduplicated by title and author against an in-memory index of the existing catalog,
+ * so known books only get their amount increased, like {@link BookServiceImpl#createBook}.
+ * One instance handles a single import and is not thread-safe.
+ */
+class BookImporter {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final BookRepository bookRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookAvailability bookAvailability;
+    private final CirculationEventLog circulationEventLog;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    // title + author -> id of every book known so far, including the ones inserted by this import
+    private final Map<String, Long> catalog = new HashMap<>();
+    private final Map<String, Book> pendingBooks = new LinkedHashMap<>();
+    private final Map<Long, Integer> pendingCopies = new HashMap<>();
+    private final List<BookImportError> errors = new ArrayList<>();
+
+    private long pendingFirstLine;
+    private int pendingRows;
+    private int pendingUpdatedRows;
+
+    private long processed;
+    private long created;
+    private long updated;
+    private long failed;
+
+    BookImporter(BookRepository bookRepository, BookSearchIndex bookSearchIndex, BookAvailability bookAvailability,
+                 CirculationEventLog circulationEventLog, TransactionTemplate transactionTemplate, Validator validator,
+                 ObjectMapper objectMapper, int batchSize) {
+        this.bookRepository = bookRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookAvailability = bookAvailability;
+        this.circulationEventLog = circulationEventLog;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    BookImportResponse importFrom(BufferedReader reader, BookImportFormat format) throws IOException {
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status ->
+                bookRepository.scanTitleAuthor((id, title, author) -> catalog.put(key(title, author), id)));
+
+        long lineNumber = 0;
+        int[] columns = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == BookImportFormat.CSV && columns == null) {
+                columns = parseHeader(line);
+                continue;
+            }
+
+            processed++;
+            try {
+                ImportRow row = format == BookImportFormat.CSV ? parseCsv(line, columns) : parseJson(line);
+                accept(row, lineNumber);
+            } catch (IllegalArgumentException e) {
+                fail(lineNumber, e.getMessage());
+            } catch (JsonProcessingException e) {
+                fail(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+
+            if (pendingBooks.size() + pendingCopies.size() >= batchSize) {
+                flush();
+            }
+        }
+        flush();
+
+        long elapsedNanos = System.nanoTime() - started;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : processed * 1_000_000_000.0 / elapsedNanos;
+        return new BookImportResponse(processed, created, updated, failed, List.copyOf(errors),
+                elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+
+    private void accept(ImportRow row, long lineNumber) {
+        Set<ConstraintViolation<CreateBookRequest>> violations =
+                validator.validate(new CreateBookRequest(row.title(), row.author()));
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        if (row.amount() < 1) {
+            throw new IllegalArgumentException("amount: Amount must be at least 1");
+        }
+
+        if (pendingRows == 0) {
+            pendingFirstLine = lineNumber;
+        }
+        pendingRows++;
+
+        String key = key(row.title(), row.author());
+        Long existingId = catalog.get(key);
+        if (existingId != null) {
+            pendingCopies.merge(existingId, row.amount(), Integer::sum);
+            pendingUpdatedRows++;
+            return;
+        }
+        Book pending = pendingBooks.get(key);
+        if (pending != null) {
+            pending.setAmount(pending.getAmount() + row.amount());
+            pendingUpdatedRows++;
+        } else {
+            pendingBooks.put(key, new Book(row.title(), row.author(), row.amount()));
+        }
+    }
+
+    private void flush() {
+        if (pendingRows == 0) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!pendingBooks.isEmpty()) {
+                    List<Book> books = new ArrayList<>(pendingBooks.values());
+                    List<Long> ids = bookRepository.allocateIds(books.size());
+                    for (int i = 0; i < books.size(); i++) {
+                        books.get(i).setId(ids.get(i));
+                    }
+                    bookRepository.insertAll(books);
+                }
+                if (!pendingCopies.isEmpty()) {
+                    bookRepository.incrementAmounts(Map.copyOf(pendingCopies));
+                }
+            });
+            pendingBooks.forEach((key, book) -> {
+                catalog.put(key, book.getId());
+                bookSearchIndex.put(book.getId(), book.getTitle(), book.getAuthor());
+                bookAvailability.put(book.getId(), book.getAmount());
+                circulationEventLog.stocked(book.getId(), book.getAmount());
+            });
+            pendingCopies.forEach((id, copies) -> {
+                bookAvailability.adjust(id, copies);
+                circulationEventLog.stocked(id, copies);
+            });
+            created += pendingBooks.size();
+            updated += pendingUpdatedRows;
+        } catch (DataAccessException e) {
+            failed += pendingRows;
+            addError(pendingFirstLine, "Batch of " + pendingRows + " rows starting here was rolled back: "
+                    + e.getMostSpecificCause().getMessage());
+        }
+        pendingBooks.clear();
+        pendingCopies.clear();
+        pendingRows = 0;
+        pendingUpdatedRows = 0;
+    }
+
+    private void fail(long lineNumber, String message) {
+        failed++;
+        addError(lineNumber, message);
+    }
+
+    private void addError(long lineNumber, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new BookImportError(lineNumber, message));
+        }
+    }
+
+    // Returns the positions of the title, author and optional amount columns
+    private int[] parseHeader(String line) {
+        List<String> header = splitCsv(line).stream()
+                .map(column -> column.toLowerCase(Locale.ROOT))
+                .toList();
+        int title = header.indexOf("title");
+        int author = header.indexOf("author");
+        if (title < 0 || author < 0) {
+            throw new BookImportException("CSV header must contain title and author columns");
+        }
+        return new int[]{title, author, header.indexOf("amount")};
+    }
+
+    private ImportRow parseCsv(String line, int[] columns) {
+        List<String> fields = splitCsv(line);
+        String title = field(fields, columns[0]);
+        String author = field(fields, columns[1]);
+        String amount = field(fields, columns[2]);
+        if (amount == null || amount.isEmpty()) {
+            return new ImportRow(title, author, 1);
+        }
+        try {
+            return new ImportRow(title, author, Integer.parseInt(amount));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount: Amount must be a whole number");
+        }
+    }
+
+    private ImportRow parseJson(String line) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(line);
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Line must be a JSON object");
+        }
+        JsonNode amount = node.path("amount");
+        // canConvertToInt alone accepts 2.5 and intValue would truncate it
+        if (!amount.isMissingNode() && !(amount.isIntegralNumber() && amount.canConvertToInt())) {
+            throw new IllegalArgumentException("amount: Amount must be a whole number");
+        }
+        return new ImportRow(
+                node.path("title").textValue(),
+                node.path("author").textValue(),
+                amount.isMissingNode() ? 1 : amount.intValue()
+        );
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index).trim() : null;
+    }
+
+    // Splits one CSV line, supporting quoted fields with "" escapes
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String key(String title, String author) {
+        return title + '\n' + author;
+    }
+
+    private record ImportRow(String title, String author, int amount) {
+    }
+}
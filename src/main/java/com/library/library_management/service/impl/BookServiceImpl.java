@@ -1,78 +1,214 @@
 package com.library.library_management.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.library_management.dto.BookAvailabilityResponse;
+import com.library.library_management.dto.BookImportFormat;
+import com.library.library_management.dto.BookImportResponse;
 import com.library.library_management.dto.BookResponse;
+import com.library.library_management.circulation.BookAvailability;
+import com.library.library_management.circulation.CirculationCounters;
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.config.CacheConfig;
+import com.library.library_management.config.PaginationProperties;
 import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.dto.PageResponse;
 import com.library.library_management.dto.UpdateBookRequest;
+import com.library.library_management.dto.mapper.BookMapper;
 import com.library.library_management.entity.Book;
+import com.library.library_management.exception.BookImportException;
 import com.library.library_management.exception.BookNotAvailableException;
 import com.library.library_management.exception.BookNotFoundException;
+import com.library.library_management.exception.BookVersionMismatchException;
 import com.library.library_management.repository.BookRepository;
 import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.search.BookSearchIndex;
 import com.library.library_management.service.BookService;
+import com.library.library_management.service.BorrowService;
+import com.library.library_management.service.support.OptimisticRetry;
+import com.library.library_management.service.support.TransactionCallbacks;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 public class BookServiceImpl implements BookService {
 
+    private static final String BOOK_TITLE_AUTHOR_KEY = "book_title_author_key";
+
     @Autowired
     private BookRepository bookRepository;
 
     @Autowired
     private BorrowRepository borrowRepository;
-    
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private BookMapper bookMapper;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private CirculationCounters circulationCounters;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private CirculationEventLog circulationEventLog;
+
+    @Autowired
+    private BookAvailability bookAvailability;
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Rows written per JDBC batch during catalog import
+    @Value("${book.import.batch-size:1000}")
+    private int importBatchSize;
+
+    // Copies added to the same title at once conflict on the version, the losing request reads the book again
     @Override
+    @CachePut(cacheNames = CacheConfig.BOOKS, key = "#result.id")
     public BookResponse createBook(CreateBookRequest request) {
-        Optional<Book> existingBook = bookRepository.findByTitleAndAuthor(request.title(), request.author());
-
-        if (existingBook.isPresent()) {
-            Book presentBook = existingBook.get();
-            presentBook.setAmount(presentBook.getAmount() + 1);
-            Book savedBook = bookRepository.save(presentBook);
-            return new BookResponse(
-                    savedBook.getId(),
-                    savedBook.getTitle(),
-                    savedBook.getAuthor(),
-                    savedBook.getAmount()
-            );
-        }
-        Book book = new Book();
-        book.setTitle(request.title());
-        book.setAuthor(request.author());
-        book.setAmount(1);
-        Book savedBook = bookRepository.save(book);
-        return new BookResponse(savedBook.getId(), savedBook.getTitle(), savedBook.getAuthor(), savedBook.getAmount());
+        // A concurrent create of the same title inserts first, the retry adds the copy to that book instead
+        Book book = optimisticRetry.execute("book.create", BOOK_TITLE_AUTHOR_KEY, () -> {
+            Optional<Book> existingBook = bookRepository.findByTitleAndAuthor(request.title(), request.author());
+
+            if (existingBook.isPresent()) {
+                Book presentBook = existingBook.get();
+                int onShelf = presentBook.getAmount();
+                presentBook.setAmount(onShelf + 1);
+                // The new copy goes to the hold queue first, the event log still records it as stocked
+                borrowService.checkOutToHolders(presentBook, 1);
+                int shelved = presentBook.getAmount() - onShelf;
+                TransactionCallbacks.afterCommit(() -> {
+                    bookAvailability.adjust(presentBook.getId(), shelved);
+                    circulationEventLog.stocked(presentBook.getId(), 1);
+                });
+                return bookRepository.save(presentBook);
+            }
+            Book savedBook = bookRepository.save(bookMapper.fromCreateRequest(request));
+            TransactionCallbacks.afterCommit(() -> {
+                bookSearchIndex.put(savedBook.getId(), savedBook.getTitle(), savedBook.getAuthor());
+                bookAvailability.put(savedBook.getId(), savedBook.getAmount());
+                circulationEventLog.stocked(savedBook.getId(), savedBook.getAmount());
+            });
+            return savedBook;
+        });
+        // Mapped after commit, when the flush has bumped the version
+        return bookMapper.toBookResponse(book);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#id")
     public BookResponse getBookById(Long id) {
         Book book = bookRepository.findById(id).orElseThrow(() -> new BookNotFoundException("Book not found"));
-        return new BookResponse(book.getId(), book.getTitle(), book.getAuthor(), book.getAmount());
+        return bookMapper.toBookResponse(book);
     }
 
     @Override
-    public List<BookResponse> getAllBooks() {
-        return bookRepository.findAll().stream()
-                .map(book -> new BookResponse(book.getId(), book.getTitle(), book.getAuthor(), book.getAmount()))
-                .collect(Collectors.toList());
+    public PageResponse<BookResponse> getBooks(Long cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(cursor == null ? 0L : cursor, Limit.of(pageSize + 1));
+        return PageResponse.of(books, pageSize, Book::getId, bookMapper::toBookResponse);
     }
 
+    // The cursor is the number of ranked results already returned, results are ranked in memory
     @Override
-    public BookResponse updateBookById(Long id, UpdateBookRequest request) {
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new BookNotFoundException("Book not found"));
-        book.setTitle(request.title());
-        book.setAuthor(request.author());
-        book.setAmount(request.amount());
-        Book savedBook = bookRepository.save(book);
-        return new BookResponse(savedBook.getId(), savedBook.getTitle(), savedBook.getAuthor(), savedBook.getAmount());
+    public PageResponse<BookResponse> searchBooks(String query, Long cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        int offset = cursor == null ? 0 : (int) Math.min(Math.max(cursor, 0), Integer.MAX_VALUE - pageSize - 1);
+        List<Long> ids = bookSearchIndex.search(query, offset, pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> page = hasNext ? ids.subList(0, pageSize) : ids;
+
+        Map<Long, Book> books = bookRepository.findAllById(page).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        // A book deleted since it was indexed is skipped
+        List<BookResponse> content = page.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .map(bookMapper::toBookResponse)
+                .toList();
+        return new PageResponse<>(content, hasNext ? (long) offset + pageSize : null);
     }
 
+    // A conditional update that lost a race fails on the version check of its retry instead of overwriting
     @Override
+    @CachePut(cacheNames = CacheConfig.BOOKS, key = "#id")
+    public BookResponse updateBookById(Long id, UpdateBookRequest request, Long expectedVersion) {
+        Book savedBook = optimisticRetry.execute("book.update", () -> {
+            Book book = bookRepository.findById(id)
+                    .orElseThrow(() -> new BookNotFoundException("Book not found"));
+            if (expectedVersion != null && !expectedVersion.equals(book.getVersion())) {
+                throw new BookVersionMismatchException("Book is at version " + book.getVersion()
+                        + ", not " + expectedVersion);
+            }
+            int previousAmount = book.getAmount();
+            bookMapper.updateFromRequest(book, request);
+            int stocked = book.getAmount() - previousAmount;
+            if (stocked > 0) {
+                borrowService.checkOutToHolders(book, stocked);
+            }
+            Book updatedBook = bookRepository.save(book);
+            TransactionCallbacks.afterCommit(() -> {
+                circulationCounters.renamed(id, updatedBook.getTitle());
+                bookSearchIndex.put(id, updatedBook.getTitle(), updatedBook.getAuthor());
+                bookAvailability.put(id, updatedBook.getAmount());
+                if (stocked != 0) {
+                    circulationEventLog.stocked(id, stocked);
+                }
+            });
+            return updatedBook;
+        });
+        return bookMapper.toBookResponse(savedBook);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#id")
     public void deleteBookById(Long id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new BookNotFoundException("Book not found"));
@@ -82,16 +218,90 @@ public class BookServiceImpl implements BookService {
         }
 
         bookRepository.delete(book);
+        TransactionCallbacks.afterCommit(() -> {
+            circulationCounters.removed(id);
+            bookSearchIndex.remove(id);
+            bookAvailability.remove(id);
+            circulationEventLog.removed(id);
+        });
     }
 
+    // A book missing from the read model may have been created by another instance since its last rebuild
     @Override
     public boolean existsById(Long id) {
-        return bookRepository.existsById(id);
+        return bookAvailability.isReady() && bookAvailability.contains(id) || bookRepository.existsById(id);
     }
 
     @Override
     public int getAmountById(Long id) {
+        int amount = bookAvailability.isReady() ? bookAvailability.amountOf(id) : BookAvailability.UNKNOWN;
+        if (amount != BookAvailability.UNKNOWN) {
+            return amount;
+        }
         return bookRepository.findById(id)
                 .orElseThrow(() -> new BookNotFoundException("Book not found")).getAmount();
     }
+
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return amountsOf(ids).keySet();
+    }
+
+    // Missing books are left out, the borrowed flags take one more lookup for the books found
+    @Override
+    public List<BookAvailabilityResponse> getAvailability(List<Long> bookIds) {
+        Map<Long, Integer> amounts = amountsOf(bookIds);
+        if (amounts.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> borrowed = borrowService.findCurrentlyBorrowedBookIds(amounts.keySet());
+        return amounts.entrySet().stream()
+                .map(entry -> new BookAvailabilityResponse(entry.getKey(), entry.getValue(),
+                        borrowed.contains(entry.getKey())))
+                .toList();
+    }
+
+    // Amounts of the existing books in request order, books the read model does not know are read in one query
+    private Map<Long, Integer> amountsOf(Collection<Long> bookIds) {
+        Set<Long> ids = new LinkedHashSet<>(bookIds);
+        Map<Long, Integer> found = new HashMap<>();
+        List<Long> unknown = new ArrayList<>();
+        boolean ready = bookAvailability.isReady();
+        for (Long id : ids) {
+            int amount = ready ? bookAvailability.amountOf(id) : BookAvailability.UNKNOWN;
+            if (amount == BookAvailability.UNKNOWN) {
+                unknown.add(id);
+            } else {
+                found.put(id, amount);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            bookRepository.findAmountsByIdIn(unknown).forEach(book -> found.put(book.getId(), book.getAmount()));
+        }
+        Map<Long, Integer> amounts = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Integer amount = found.get(id);
+            if (amount != null) {
+                amounts.put(id, amount);
+            }
+        }
+        return amounts;
+    }
+
+    @Override
+    public BookImportResponse importBooks(InputStream input, BookImportFormat format) {
+        BookImporter importer = new BookImporter(bookRepository, bookSearchIndex, bookAvailability, circulationEventLog,
+                transactionTemplate, validator, objectMapper, importBatchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            return importer.importFrom(reader, format);
+        } catch (IOException e) {
+            throw new BookImportException("Could not read import file: " + e.getMessage());
+        } finally {
+            // Batches commit one by one, so the ones before a failure have changed books as well
+            Cache books = cacheManager.getCache(CacheConfig.BOOKS);
+            if (books != null) {
+                books.clear();
+            }
+        }
+    }
 }
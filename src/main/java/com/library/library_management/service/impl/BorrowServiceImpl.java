@@ -1,130 +1,480 @@
 package com.library.library_management.service.impl;
 
+import com.library.library_management.circulation.BookAvailability;
+import com.library.library_management.circulation.CirculationCounters;
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.circulation.MemberLoanCounter;
+import com.library.library_management.circulation.OverdueLoan;
+import com.library.library_management.circulation.OverdueTracker;
+import com.library.library_management.config.CacheConfig;
+import com.library.library_management.config.PaginationProperties;
+import com.library.library_management.dto.BatchReturnResponse;
 import com.library.library_management.dto.BorrowResponse;
-import com.library.library_management.dto.mapper.BookMapper;
+import com.library.library_management.dto.OverdueLoanResponse;
+import com.library.library_management.dto.PageResponse;
 import com.library.library_management.dto.mapper.BorrowMapper;
 import com.library.library_management.entity.Book;
 import com.library.library_management.entity.Borrow;
+import com.library.library_management.entity.Hold;
 import com.library.library_management.entity.Member;
 import com.library.library_management.exception.*;
 import com.library.library_management.repository.BookRepository;
 import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.repository.HoldRepository;
 import com.library.library_management.repository.MemberRepository;
+import com.library.library_management.repository.TitleCount;
+import com.library.library_management.search.MemberNameIndex;
 import com.library.library_management.service.BorrowService;
+import com.library.library_management.service.MemberService;
+import com.library.library_management.service.support.TransactionCallbacks;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 public class BorrowServiceImpl implements BorrowService {
 
+    // Bounds used when an analytics date range is open on one side
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
+    // Holds looked at for a returned copy when the first holders are at their borrow limit
+    private static final int HOLD_CANDIDATES = 10;
+
     // Limit of the borrowed books per member
     @Value("${borrow.limit}")
     private int borrowLimit;
 
+    // Loan period of a borrowed book
+    @Value("${borrow.loan-days}")
+    private int loanDays;
+
     @Autowired
     private BorrowRepository borrowRepository;
 
     @Autowired
     private BookRepository bookRepository;
 
-    @Autowired
-    private BookMapper bookMapper;
-
     @Autowired
     private BorrowMapper borrowMapper;
 
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private MemberNameIndex memberNameIndex;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private CirculationCounters circulationCounters;
+
+    @Autowired
+    private MemberLoanCounter memberLoanCounter;
+
+    @Autowired
+    private OverdueTracker overdueTracker;
+
+    @Autowired
+    private CirculationEventLog circulationEventLog;
+
+    @Autowired
+    private BookAvailability bookAvailability;
+
     @Override
+    @Transactional
     public void borrowBook(Long memberId, Long bookId) {
 
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new BookNotFoundException("Book not found"));
+        requireMember(memberId);
 
-        if (book.getAmount() == 0) {
-            throw new BookNotAvailableException("Book is not available for borrowing");
+        // Reserves the loan in memory, the reservation is released if the transaction rolls back
+        if (!memberLoanCounter.tryAcquire(memberId, 1, borrowLimit)) {
+            throw new BorrowLimitExceededException("Member has reached the max borrow limit");
         }
 
-        int borrowCount = borrowRepository.countByMemberIdAndReturnDateIsNull(memberId);
-        if (borrowCount >= borrowLimit) {
-            throw new BorrowLimitExceededException("Member has reached the max borrow limit");
+        if (!takeTurnInQueues(memberId, List.of(bookId)).isEmpty()) {
+            throw new BookNotAvailableException("Book is reserved for members in its hold queue");
         }
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new MemberNotFoundException("Member not found"));
 
-        Borrow borrow = new Borrow(book, member, LocalDate.now());
+        // Conditional decrement is the last check, so the book row stays locked only until commit
+        if (bookRepository.decrementAmountIfAvailable(bookId) == 0) {
+            if (!bookRepository.existsById(bookId)) {
+                throw new BookNotFoundException("Book not found");
+            }
+            throw new BookNotAvailableException("Book is not available for borrowing");
+        }
+
+        Book book = bookRepository.getReferenceById(bookId);
+        LocalDate today = LocalDate.now();
+        Borrow borrow = new Borrow(book, memberRepository.getReferenceById(memberId), today, today.plusDays(loanDays));
         borrowRepository.save(borrow);
+        evictBooks(List.of(bookId));
 
-        book.setAmount(book.getAmount() - 1);
-        bookRepository.save(book);
+        // The title is only loaded the first time a book is counted
+        String title = Optional.ofNullable(circulationCounters.titleOf(bookId)).orElseGet(book::getTitle);
+        TransactionCallbacks.afterCommit(() -> {
+            circulationCounters.borrowed(bookId, title, 1);
+            bookAvailability.adjust(bookId, -1);
+            overdueTracker.schedule(borrow.getId(), bookId, memberId, borrow.getDueDate());
+            circulationEventLog.borrowed(borrow.getId(), bookId, memberId);
+        });
     }
 
     @Override
+    @Transactional
     public void returnBook(Long borrowId) {
         Borrow borrow = borrowRepository.findById(borrowId)
                 .orElseThrow(() -> new BorrowNotFoundException("Borrow not found"));
         if (borrow.getReturnDate() != null) {
-            throw new IllegalStateException("Book already returned");
+            throw new BorrowAlreadyReturnedException("Book already returned");
         }
 
-        borrow.setReturnDate(LocalDate.now());
-        borrowRepository.save(borrow);
+        // A concurrent return may have closed the borrow after it was read
+        if (borrowRepository.markReturned(borrowId, LocalDate.now()) == 0) {
+            throw new BorrowAlreadyReturnedException("Book already returned");
+        }
 
-        Book book = borrow.getBook();
-        book.setAmount(book.getAmount() + 1);
-        bookRepository.save(book);
+        Long bookId = borrow.getBook().getId();
+        Long memberId = borrow.getMember().getId();
+
+        // The copy goes to the next holder if the book is held, otherwise back to the shelf.
+        // The book stays locked from reading its queue until commit, so no hold is placed in between
+        bookRepository.lockAllById(List.of(bookId));
+        Borrow assigned = assignToNextHolder(borrow.getBook(), LocalDate.now());
+        if (assigned == null) {
+            bookRepository.incrementAmount(bookId);
+            evictBooks(List.of(bookId));
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            memberLoanCounter.release(memberId, 1);
+            overdueTracker.cancel(borrowId);
+            circulationEventLog.returned(borrowId, bookId, memberId);
+            if (assigned == null) {
+                circulationCounters.returned(bookId, 1);
+                bookAvailability.adjust(bookId, 1);
+            } else {
+                recordHandover(assigned);
+            }
+        });
     }
 
     @Override
-    public List<BorrowResponse> getBorrowedBooksByMember(Long memberId) {
-        List<Borrow> borrows = borrowRepository.findByMemberIdAndReturnDateIsNull(memberId);
-        return borrows.stream().map(borrow -> borrowMapper.toResponse(borrow)).toList();
+    @Transactional
+    public List<BorrowResponse> borrowBooks(Long memberId, List<Long> bookIds) {
+
+        requireMember(memberId);
+        if (!memberLoanCounter.tryAcquire(memberId, bookIds.size(), borrowLimit)) {
+            throw new BorrowLimitExceededException("Member has reached the max borrow limit");
+        }
+
+        // Several copies of the same book may be in one cart
+        Map<Long, Integer> quantities = bookIds.stream()
+                .collect(Collectors.toMap(Function.identity(), id -> 1, Integer::sum, LinkedHashMap::new));
+        Map<Long, Book> books = bookRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        if (books.size() < quantities.size()) {
+            List<Long> missing = quantities.keySet().stream()
+                    .filter(id -> !books.containsKey(id))
+                    .toList();
+            throw new BookNotFoundException("Books not found: " + missing);
+        }
+
+        List<Long> reserved = takeTurnInQueues(memberId, quantities.keySet());
+        if (!reserved.isEmpty()) {
+            throw new BookNotAvailableException("Books are reserved for members in their hold queues: " + reserved);
+        }
+
+        List<Long> unavailable = bookRepository.decrementAmountsIfAvailable(quantities);
+        if (!unavailable.isEmpty()) {
+            throw new BookNotAvailableException("Books are not available for borrowing: " + unavailable);
+        }
+
+        evictBooks(quantities.keySet());
+
+        Member member = memberRepository.getReferenceById(memberId);
+        LocalDate today = LocalDate.now();
+        List<Borrow> borrows = bookIds.stream()
+                .map(id -> new Borrow(books.get(id), member, today, today.plusDays(loanDays)))
+                .toList();
+        List<BorrowResponse> responses = borrowRepository.saveAll(borrows).stream()
+                .map(borrowMapper::toResponse)
+                .toList();
+
+        TransactionCallbacks.afterCommit(() -> {
+            quantities.forEach((id, copies) -> {
+                circulationCounters.borrowed(id, books.get(id).getTitle(), copies);
+                bookAvailability.adjust(id, -copies);
+            });
+            responses.forEach(borrow -> {
+                overdueTracker.schedule(borrow.id(), borrow.bookId(), borrow.memberId(), borrow.dueDate());
+                circulationEventLog.borrowed(borrow.id(), borrow.bookId(), borrow.memberId());
+            });
+        });
+        return responses;
+    }
+
+    @Override
+    @Transactional
+    public BatchReturnResponse returnBooks(List<Long> borrowIds) {
+        Map<Long, Borrow> borrows = borrowRepository.findAllById(borrowIds).stream()
+                .collect(Collectors.toMap(Borrow::getId, Function.identity()));
+
+        List<Long> open = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        List<Long> alreadyReturned = new ArrayList<>();
+        for (Long borrowId : new LinkedHashSet<>(borrowIds)) {
+            Borrow borrow = borrows.get(borrowId);
+            if (borrow == null) {
+                notFound.add(borrowId);
+            } else if (borrow.getReturnDate() != null) {
+                alreadyReturned.add(borrowId);
+            } else {
+                open.add(borrowId);
+            }
+        }
+        if (open.isEmpty()) {
+            return new BatchReturnResponse(List.of(), notFound, alreadyReturned);
+        }
+
+        List<Long> returned = borrowRepository.markAllReturned(open, LocalDate.now());
+        if (returned.size() < open.size()) {
+            // Closed by a concurrent return after they were read
+            Set<Long> closed = new HashSet<>(returned);
+            open.stream().filter(id -> !closed.contains(id)).forEach(alreadyReturned::add);
+        }
+
+        // Copies of held books go to the next holders, the rest back to the shelf
+        Set<Long> returnedBooks = returned.stream().map(id -> borrows.get(id).getBook().getId()).collect(Collectors.toSet());
+        Set<Long> heldBooks = new HashSet<>();
+        if (!returnedBooks.isEmpty()) {
+            bookRepository.lockAllById(returnedBooks);
+            heldBooks.addAll(holdRepository.findHeldBookIds(returnedBooks));
+        }
+        LocalDate today = LocalDate.now();
+        List<Borrow> assigned = new ArrayList<>();
+        Map<Long, Integer> restocked = new HashMap<>();
+        for (Long borrowId : returned) {
+            Book book = borrows.get(borrowId).getBook();
+            Borrow next = heldBooks.contains(book.getId()) ? assignToNextHolder(book, today) : null;
+            if (next != null) {
+                assigned.add(next);
+            } else {
+                // Nobody left who can take a copy, later copies of the book skip the queue lookup
+                heldBooks.remove(book.getId());
+                restocked.merge(book.getId(), 1, Integer::sum);
+            }
+        }
+        bookRepository.incrementAmounts(restocked);
+        evictBooks(restocked.keySet());
+        Map<Long, Integer> released = returned.stream()
+                .collect(Collectors.toMap(id -> borrows.get(id).getMember().getId(), id -> 1, Integer::sum));
+        TransactionCallbacks.afterCommit(() -> {
+            restocked.forEach(circulationCounters::returned);
+            restocked.forEach(bookAvailability::adjust);
+            released.forEach(memberLoanCounter::release);
+            returned.forEach(overdueTracker::cancel);
+            returned.forEach(id -> circulationEventLog.returned(id, borrows.get(id).getBook().getId(),
+                    borrows.get(id).getMember().getId()));
+            assigned.forEach(this::recordHandover);
+        });
+
+        return new BatchReturnResponse(returned, notFound, alreadyReturned);
+    }
+
+    /**
+     * Checks copies just added to the stock out to holders of the book, in the caller's transaction and before
+     * the book is saved. The book's amount is lowered by the copies handed over.
+     */
+    @Override
+    public void checkOutToHolders(Book book, int copies) {
+        LocalDate today = LocalDate.now();
+        List<Borrow> assigned = new ArrayList<>();
+        while (assigned.size() < copies) {
+            Borrow next = assignToNextHolder(book, today);
+            if (next == null) {
+                break;
+            }
+            assigned.add(next);
+        }
+        if (assigned.isEmpty()) {
+            return;
+        }
+        book.setAmount(book.getAmount() - assigned.size());
+        TransactionCallbacks.afterCommit(() -> {
+            circulationCounters.borrowed(book.getId(), book.getTitle(), assigned.size());
+            assigned.forEach(this::recordHandover);
+        });
+    }
+
+    @Override
+    public PageResponse<BorrowResponse> getBorrowedBooksByMember(Long memberId, Long cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        List<Borrow> borrows = borrowRepository.findByMemberIdAndReturnDateIsNullAndIdGreaterThanOrderByIdAsc(
+                memberId, cursor == null ? 0L : cursor, Limit.of(pageSize + 1));
+        return PageResponse.of(borrows, pageSize, Borrow::getId, borrowMapper::toResponse);
     }
 
     @Override
     public List<BorrowResponse> getBorrowedBooksByMemberName(String memberName) {
-        Member member = memberRepository.findByName(memberName)
-                .orElseThrow(() -> new MemberNotFoundException("Member not found"));
-        List<Borrow> borrows = borrowRepository.findByMemberIdAndReturnDateIsNull(member.getId());
+        List<Long> memberIds = memberNameIndex.isReady()
+                ? memberNameIndex.findByName(memberName)
+                : memberRepository.findIdsByNameIgnoreCase(memberName);
+        if (memberIds.isEmpty()) {
+            throw new MemberNotFoundException("Member not found");
+        }
+        List<Borrow> borrows = borrowRepository.findByMemberIdInAndReturnDateIsNullOrderByIdAsc(memberIds);
         return borrows.stream()
                 .map(borrowMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public PageResponse<OverdueLoanResponse> getOverdueLoans(Long cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        long after = cursor == null ? 0L : cursor;
+        LocalDate today = LocalDate.now();
+        if (overdueTracker.isReady()) {
+            List<OverdueLoan> loans = overdueTracker.overdue(after, pageSize + 1);
+            return PageResponse.of(loans, pageSize, OverdueLoan::borrowId,
+                    loan -> borrowMapper.toOverdueResponse(loan, today));
+        }
+        List<Borrow> borrows = borrowRepository.findByReturnDateIsNullAndDueDateBeforeAndIdGreaterThanOrderByIdAsc(
+                today, after, Limit.of(pageSize + 1));
+        return PageResponse.of(borrows, pageSize, Borrow::getId, borrow -> borrowMapper.toOverdueResponse(borrow, today));
+    }
+
     @Override
     public boolean isBookCurrentlyBorrowed(Long bookId) {
         return borrowRepository.existsByBookIdAndReturnDateIsNull(bookId);
     }
 
+    // Served from the circulation counters once loaded, otherwise one query for all books
+    @Override
+    public Set<Long> findCurrentlyBorrowedBookIds(Collection<Long> bookIds) {
+        if (circulationCounters.isReady()) {
+            return bookIds.stream()
+                    .filter(bookId -> circulationCounters.openBorrows(bookId) > 0)
+                    .collect(Collectors.toSet());
+        }
+        return new HashSet<>(borrowRepository.findBorrowedBookIds(bookIds));
+    }
+
     @Override
     public boolean isMemberCurrentlyBorrowing(Long memberId) {
-        return borrowRepository.existsByMemberIdAndReturnDateIsNull(memberId);
+        return memberLoanCounter.activeLoans(memberId) > 0;
     }
 
     @Override
-    public List<String> getDistinctBorrowedBookTitles() {
-        List<Borrow> borrows = borrowRepository.findByReturnDateIsNull();
-        return borrows.stream()
-                .map(borrow -> borrow.getBook().getTitle())
-                .distinct()
-                .toList();
+    public List<String> getDistinctBorrowedBookTitles(LocalDate from, LocalDate to, Integer limit) {
+        if (from == null && to == null && circulationCounters.isReady()) {
+            return circulationCounters.distinctTitles(limit == null || limit < 1 ? Integer.MAX_VALUE : limit);
+        }
+        return borrowRepository.findDistinctOpenBorrowTitles(
+                from == null ? EARLIEST_DATE : from, to == null ? LATEST_DATE : to, toLimit(limit));
     }
 
     @Override
-    public Map<String, Long> getBorrowedBookTitlesWithCount() {
-        List<Borrow> borrows = borrowRepository.findByReturnDateIsNull();
+    public Map<String, Long> getBorrowedBookTitlesWithCount(LocalDate from, LocalDate to, Integer limit) {
+        if (from == null && to == null && circulationCounters.isReady()) {
+            return circulationCounters.titlesWithCount(limit == null || limit < 1 ? Integer.MAX_VALUE : limit);
+        }
 
-        return borrows.stream()
-                .collect(Collectors.groupingBy(
-                        borrow -> borrow.getBook().getTitle(),
-                        Collectors.counting()
-                ));
+        List<TitleCount> counts = borrowRepository.countOpenBorrowsByTitle(
+                from == null ? EARLIEST_DATE : from, to == null ? LATEST_DATE : to, toLimit(limit));
+
+        // Keeps the most borrowed titles first
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.forEach(count -> result.put(count.getTitle(), count.getBorrowCount()));
+        return result;
+    }
+
+    /**
+     * Copies go to holders in queue order, so a member may only take a copy of a held book while first in its queue.
+     * The member's own hold is used up by the borrow.
+     *
+     * @return books whose queue is led by another member, sorted
+     */
+    private List<Long> takeTurnInQueues(Long memberId, Collection<Long> bookIds) {
+        List<Long> reserved = new ArrayList<>();
+        for (Hold hold : holdRepository.findFirstInQueues(bookIds)) {
+            if (hold.getMember().getId().equals(memberId)) {
+                holdRepository.claim(hold.getId());
+            } else {
+                reserved.add(hold.getBook().getId());
+            }
+        }
+        Collections.sort(reserved);
+        return reserved;
+    }
+
+    /**
+     * Checks a returned copy out to the oldest holder of the book who is within the borrow limit.
+     * Concurrent returns of the same book each claim a different hold, the claim is a conditional delete.
+     *
+     * @return the new borrow, or null if no holder can take the copy
+     */
+    private Borrow assignToNextHolder(Book book, LocalDate today) {
+        for (Hold hold : holdRepository.findByBookIdOrderByIdAsc(book.getId(), Limit.of(HOLD_CANDIDATES))) {
+            Long memberId = hold.getMember().getId();
+            if (!memberLoanCounter.tryAcquire(memberId, 1, borrowLimit)) {
+                continue;
+            }
+            if (holdRepository.claim(hold.getId()) == 0) {
+                // tryAcquire already undoes the loan on rollback, so on commit is the only other way to undo it
+                TransactionCallbacks.afterCommit(() -> memberLoanCounter.release(memberId, 1));
+                continue;
+            }
+            Borrow borrow = new Borrow(book, hold.getMember(), today, today.plusDays(loanDays));
+            borrowRepository.save(borrow);
+            return borrow;
+        }
+        return null;
+    }
+
+    // A returned copy went straight to a holder, runs after commit
+    private void recordHandover(Borrow borrow) {
+        overdueTracker.schedule(borrow.getId(), borrow.getBook().getId(), borrow.getMember().getId(),
+                borrow.getDueDate());
+        circulationEventLog.borrowed(borrow.getId(), borrow.getBook().getId(), borrow.getMember().getId());
+    }
+
+    // Cached book responses carry the amount, the cache defers the eviction until commit
+    private void evictBooks(Collection<Long> bookIds) {
+        Cache books = cacheManager.getCache(CacheConfig.BOOKS);
+        if (books != null) {
+            bookIds.forEach(books::evict);
+        }
+    }
+
+    private static Limit toLimit(Integer limit) {
+        return limit == null || limit < 1 ? Limit.unlimited() : Limit.of(limit);
+    }
+
+    // Writes ask the database, the members cache may still hold a member deleted on another instance
+    private void requireMember(Long memberId) {
+        if (!memberService.existsById(memberId)) {
+            throw new MemberNotFoundException("Member not found");
+        }
     }
 }
@@ -0,0 +1,37 @@
+package com.library.library_management.service.impl;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.library.library_management.dto.CacheStatsResponse;
+import com.library.library_management.service.CacheStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class CacheStatsServiceImpl implements CacheStatsService {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Override
+    public List<CacheStatsResponse> getCacheStats() {
+        List<CacheStatsResponse> result = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                CacheStats stats = caffeine.stats();
+                result.add(new CacheStatsResponse(name, caffeine.estimatedSize(), stats.hitCount(),
+                        stats.missCount(), stats.hitRate(), stats.evictionCount()));
+            }
+        }
+        return result;
+    }
+}
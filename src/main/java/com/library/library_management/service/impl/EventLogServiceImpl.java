@@ -0,0 +1,46 @@
+package com.library.library_management.service.impl;
+
+import com.library.library_management.circulation.CirculationEvent;
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.circulation.CirculationState;
+import com.library.library_management.config.PaginationProperties;
+import com.library.library_management.dto.CirculationEventResponse;
+import com.library.library_management.dto.EventLogReplayResponse;
+import com.library.library_management.dto.PageResponse;
+import com.library.library_management.dto.mapper.CirculationEventMapper;
+import com.library.library_management.service.EventLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class EventLogServiceImpl implements EventLogService {
+
+    @Autowired
+    private CirculationEventLog circulationEventLog;
+
+    @Autowired
+    private CirculationEventMapper circulationEventMapper;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    // The cursor is the sequence of the last event already returned
+    @Override
+    public PageResponse<CirculationEventResponse> getEvents(Long cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        List<CirculationEvent> events = circulationEventLog.read(cursor == null ? 0L : cursor + 1, pageSize + 1);
+        return PageResponse.of(events, pageSize, CirculationEvent::sequence, circulationEventMapper::toResponse);
+    }
+
+    @Override
+    public EventLogReplayResponse replay() {
+        long started = System.nanoTime();
+        CirculationState state = CirculationState.replay(circulationEventLog);
+        long elapsedNanos = System.nanoTime() - started;
+        double eventsPerSecond = elapsedNanos == 0 ? 0 : state.events() * 1_000_000_000.0 / elapsedNanos;
+        return new EventLogReplayResponse(state.events(), state.openBorrows().size(), state.stock().size(),
+                state.copiesOnShelf(), elapsedNanos / 1_000_000, eventsPerSecond);
+    }
+}
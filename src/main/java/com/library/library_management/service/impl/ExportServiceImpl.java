@@ -0,0 +1,100 @@
+package com.library.library_management.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.library.library_management.dto.BookResponse;
+import com.library.library_management.dto.BorrowResponse;
+import com.library.library_management.dto.MemberResponse;
+import com.library.library_management.dto.mapper.BookMapper;
+import com.library.library_management.dto.mapper.BorrowMapper;
+import com.library.library_management.dto.mapper.MemberMapper;
+import com.library.library_management.entity.Book;
+import com.library.library_management.entity.Borrow;
+import com.library.library_management.entity.Member;
+import com.library.library_management.repository.BookRepository;
+import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.repository.MemberRepository;
+import com.library.library_management.service.ExportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    // Rows written between persistence context clears, keeps the heap flat on large tables
+    private static final int CLEAR_INTERVAL = 1000;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Autowired
+    private BookMapper bookMapper;
+
+    @Autowired
+    private MemberMapper memberMapper;
+
+    @Autowired
+    private BorrowMapper borrowMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(OutputStream output) throws IOException {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            writeNdjson(books, BookResponse.class, output, bookMapper::toBookResponse);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportMembers(OutputStream output) throws IOException {
+        try (Stream<Member> members = memberRepository.streamAll()) {
+            writeNdjson(members, MemberResponse.class, output, memberMapper::toResponse);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBorrows(OutputStream output) throws IOException {
+        try (Stream<Borrow> borrows = borrowRepository.streamAll()) {
+            writeNdjson(borrows, BorrowResponse.class, output, borrowMapper::toResponse);
+        }
+    }
+
+    private <E, T> void writeNdjson(Stream<E> rows, Class<T> type, OutputStream output,
+                                    Function<E, T> mapper) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(type);
+        long written = 0;
+        Iterator<E> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            output.write(writer.writeValueAsBytes(mapper.apply(iterator.next())));
+            output.write('\n');
+            if (++written % CLEAR_INTERVAL == 0) {
+                // Detach the rows already written so the persistence context does not grow with the table
+                entityManager.clear();
+                output.flush();
+            }
+        }
+        output.flush();
+    }
+}
@@ -0,0 +1,110 @@
+package com.library.library_management.service.impl;
+
+import com.library.library_management.dto.HoldResponse;
+import com.library.library_management.dto.mapper.HoldMapper;
+import com.library.library_management.entity.Book;
+import com.library.library_management.entity.Hold;
+import com.library.library_management.exception.BookNotFoundException;
+import com.library.library_management.exception.HoldNotAllowedException;
+import com.library.library_management.exception.HoldNotFoundException;
+import com.library.library_management.exception.MemberNotFoundException;
+import com.library.library_management.repository.BookRepository;
+import com.library.library_management.repository.HoldRepository;
+import com.library.library_management.repository.MemberRepository;
+import com.library.library_management.service.HoldService;
+import com.library.library_management.service.MemberService;
+import com.library.library_management.service.support.ConstraintViolations;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Per-book FIFO hold queues. Returned copies of a held book are checked out to the oldest holder
+ * by the borrow service instead of going back to the shelf, so members do not have to poll for a copy.
+ */
+@Service
+@Timed(value = "library.service", histogram = true)
+public class HoldServiceImpl implements HoldService {
+
+    private static final String HOLD_BOOK_MEMBER_KEY = "hold_book_member_key";
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private HoldMapper holdMapper;
+
+    @Override
+    @Transactional
+    public HoldResponse placeHold(Long memberId, Long bookId) {
+        // Not the members cache, it may still hold a member deleted on another instance
+        if (!memberService.existsById(memberId)) {
+            throw new MemberNotFoundException("Member not found");
+        }
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new BookNotFoundException("Book not found"));
+
+        // Holds only queue while no copy is on the shelf. The check locks the book until commit, so a return
+        // or restock of it either sees this hold or is already on the shelf when the check runs
+        if (bookRepository.lockIfUnavailable(bookId) == 0) {
+            throw new HoldNotAllowedException("Book is available for borrowing");
+        }
+        if (holdRepository.existsByBookIdAndMemberId(bookId, memberId)) {
+            throw new HoldNotAllowedException("Member already holds this book");
+        }
+
+        Hold hold;
+        try {
+            // Flushed here so a concurrent hold by the same member fails inside the method and not at commit
+            hold = holdRepository.saveAndFlush(new Hold(book, memberRepository.getReferenceById(memberId), LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, HOLD_BOOK_MEMBER_KEY)) {
+                throw new HoldNotAllowedException("Member already holds this book");
+            }
+            throw e;
+        }
+        return holdMapper.toResponse(hold, positionOf(hold));
+    }
+
+    @Override
+    public HoldResponse getHoldById(Long holdId) {
+        Hold hold = holdRepository.findById(holdId)
+                .orElseThrow(() -> new HoldNotFoundException("Hold not found"));
+        return holdMapper.toResponse(hold, positionOf(hold));
+    }
+
+    @Override
+    public List<HoldResponse> getHoldsByMember(Long memberId) {
+        memberService.getMemberById(memberId);
+        return holdRepository.findByMemberIdOrderByIdAsc(memberId).stream()
+                .map(hold -> holdMapper.toResponse(hold, positionOf(hold)))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void cancelHold(Long holdId) {
+        if (holdRepository.claim(holdId) == 0) {
+            throw new HoldNotFoundException("Hold not found");
+        }
+    }
+
+    // One-based place in the queue of the book
+    private long positionOf(Hold hold) {
+        return holdRepository.countByBookIdAndIdLessThan(hold.getBook().getId(), hold.getId()) + 1;
+    }
+}
@@ -1,66 +1,114 @@
 package com.library.library_management.service.impl;
 
+import com.library.library_management.circulation.MemberLoanCounter;
+import com.library.library_management.config.CacheConfig;
+import com.library.library_management.config.PaginationProperties;
 import com.library.library_management.dto.CreateMemberRequest;
 import com.library.library_management.dto.MemberResponse;
+import com.library.library_management.dto.MemberSuggestion;
+import com.library.library_management.dto.PageResponse;
 import com.library.library_management.dto.UpdateMemberRequest;
+import com.library.library_management.dto.mapper.MemberMapper;
 import com.library.library_management.entity.Member;
 import com.library.library_management.exception.MemberNotFoundException;
 import com.library.library_management.repository.BorrowRepository;
 import com.library.library_management.repository.MemberRepository;
+import com.library.library_management.search.MemberNameIndex;
 import com.library.library_management.service.MemberService;
+import com.library.library_management.service.support.OptimisticRetry;
+import com.library.library_management.service.support.TransactionCallbacks;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 public class MemberServiceImpl implements MemberService {
 
+    private static final int DEFAULT_SUGGESTIONS = 10;
+
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private MemberMapper memberMapper;
+
     @Autowired
     private BorrowRepository borrowRepository;
 
+    @Autowired
+    private MemberLoanCounter memberLoanCounter;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private MemberNameIndex memberNameIndex;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
     @Override
+    @CachePut(cacheNames = CacheConfig.MEMBERS, key = "#result.id")
     public MemberResponse createMember(CreateMemberRequest request) {
-        Member member = new Member();
-        member.setName(request.name());
-        Member savedMember = memberRepository.save(member);
-        return toResponse(savedMember);
+        Member savedMember = memberRepository.save(memberMapper.fromCreateRequest(request));
+        TransactionCallbacks.afterCommit(() -> memberNameIndex.put(savedMember.getId(), savedMember.getName()));
+        return memberMapper.toResponse(savedMember);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.MEMBERS, key = "#id")
     public MemberResponse getMemberById(Long id) {
         Member member = memberRepository.findById(id)
                 .orElseThrow(() -> new MemberNotFoundException("Member not found"));
-        return toResponse(member);
+        return memberMapper.toResponse(member);
+    }
+
+    @Override
+    public PageResponse<MemberResponse> getMembers(Long cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        List<Member> members = memberRepository.findByIdGreaterThanOrderByIdAsc(cursor == null ? 0L : cursor, Limit.of(pageSize + 1));
+        return PageResponse.of(members, pageSize, Member::getId, memberMapper::toResponse);
     }
 
     @Override
-    public List<MemberResponse> getAllMembers() {
-        return memberRepository.findAll().stream()
-                .map(this::toResponse)
-                .toList();
+    public List<MemberSuggestion> autocompleteMembers(String prefix, Integer limit) {
+        return memberNameIndex.autocomplete(prefix, limit == null ? DEFAULT_SUGGESTIONS : paginationProperties.resolvePageSize(limit));
     }
 
     @Override
+    @CachePut(cacheNames = CacheConfig.MEMBERS, key = "#id")
     public MemberResponse updateMemberById(Long id, UpdateMemberRequest request) {
-        Member member = memberRepository.findById(id)
-                .orElseThrow(() -> new MemberNotFoundException("Member not found"));
-        member.setName(request.name());
-        memberRepository.save(member);
-        return toResponse(member);
+        // A rename that lost to a concurrent one is applied again on top of it
+        Member member = optimisticRetry.execute("member.update", () -> {
+            Member current = memberRepository.findById(id)
+                    .orElseThrow(() -> new MemberNotFoundException("Member not found"));
+            current.setName(request.name());
+            Member savedMember = memberRepository.save(current);
+            TransactionCallbacks.afterCommit(() -> memberNameIndex.put(id, request.name()));
+            return savedMember;
+        });
+        return memberMapper.toResponse(member);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, key = "#id")
     public void deleteMemberById(Long id) {
         Member member = memberRepository.findById(id)
                 .orElseThrow(() -> new MemberNotFoundException("Member not found"));
+        // The loan counter may lag behind other instances, the database decides
         if (borrowRepository.existsByMemberIdAndReturnDateIsNull(id)) {
             throw new RuntimeException("Member has borrowed books and cannot be deleted");
         }
         memberRepository.delete(member);
+        memberLoanCounter.evict(id);
+        TransactionCallbacks.afterCommit(() -> memberNameIndex.remove(id));
     }
 
     @Override
@@ -73,8 +121,4 @@ public class MemberServiceImpl implements MemberService {
     public boolean existsById(Long id) {
         return memberRepository.existsById(id);
     }
-
-    private MemberResponse toResponse(Member member) {
-        return new MemberResponse(member.getId(), member.getName(), member.getMembershipDate());
-    }
 }
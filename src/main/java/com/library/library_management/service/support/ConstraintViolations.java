@@ -0,0 +1,35 @@
+package com.library.library_management.service.support;
+
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Tells which database constraint rejected a write, for the races where a concurrent request
+ * inserted the same row between our check and our insert.
+ */
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    // Matches by name, some databases decorate the reported constraint name
+    public static boolean isViolationOf(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && mentions(violation.getConstraintName(), constraint)) {
+                return true;
+            }
+            // R2DBC only reports the constraint in the driver's message
+            if (cause instanceof R2dbcDataIntegrityViolationException violation && mentions(violation.getMessage(), constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean mentions(String reported, String constraint) {
+        return reported != null && reported.toLowerCase(Locale.ROOT).contains(constraint);
+    }
+}
@@ -0,0 +1,81 @@
+package com.library.library_management.service.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write of a versioned entity in its own transaction and runs it again from the read
+ * when another writer committed first. Attempts are bounded, and each retry waits a random time up to a cap
+ * that doubles per attempt, so writers that collided do not collide again in lockstep.
+ * <p>
+ * Conflicts and retries are counted per operation as {@code library.optimistic.conflicts} and
+ * {@code library.optimistic.retries}. Must not be called inside a transaction, a conflict would roll back
+ * the outer one as well.
+ */
+@Component
+public class OptimisticRetry {
+
+    private final TransactionOperations transactionOperations;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffNanos;
+
+    public OptimisticRetry(TransactionOperations transactionOperations,
+                           MeterRegistry meterRegistry,
+                           @Value("${optimistic-retry.max-attempts:3}") int maxAttempts,
+                           @Value("${optimistic-retry.backoff:PT0.01S}") Duration backoff) {
+        this.transactionOperations = transactionOperations;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffNanos = backoff.toNanos();
+    }
+
+    // Throws the last conflict once every attempt lost
+    public <T> T execute(String operation, Supplier<T> action) {
+        return execute(operation, action, e -> false);
+    }
+
+    /**
+     * Also retries when a concurrent writer inserted the row guarded by the unique constraint first,
+     * for writes that read the row before inserting it, so the retry finds and updates it instead.
+     */
+    public <T> T execute(String operation, String uniqueConstraint, Supplier<T> action) {
+        return execute(operation, action, e -> ConstraintViolations.isViolationOf(e, uniqueConstraint));
+    }
+
+    private <T> T execute(String operation, Supplier<T> action, Predicate<DataIntegrityViolationException> inserted) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (e instanceof DataIntegrityViolationException violation && !inserted.test(violation)) {
+                    throw violation;
+                }
+                meterRegistry.counter("library.optimistic.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                meterRegistry.counter("library.optimistic.retries", "operation", operation).increment();
+                pause(attempt);
+            }
+        }
+    }
+
+    // Full jitter: anywhere between no wait and the backoff doubled per previous attempt
+    private void pause(int attempt) {
+        long cap = backoffNanos << Math.min(attempt - 1, 10);
+        if (cap > 0) {
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(cap + 1));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+-- Schema as previously generated by hibernate.ddl-auto=update from the entities
+
+CREATE SEQUENCE IF NOT EXISTS book_id_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS member_id_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS borrow_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE book (
+    id     BIGINT       NOT NULL,
+    title  VARCHAR(255) NOT NULL,
+    author VARCHAR(255) NOT NULL,
+    amount INTEGER      NOT NULL,
+    CONSTRAINT book_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE member (
+    id              BIGINT       NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    membership_date DATE         NOT NULL,
+    CONSTRAINT member_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE borrow (
+    id          BIGINT NOT NULL,
+    book_id     BIGINT NOT NULL,
+    member_id   BIGINT NOT NULL,
+    borrow_date DATE   NOT NULL,
+    return_date DATE,
+    CONSTRAINT borrow_pkey PRIMARY KEY (id),
+    CONSTRAINT borrow_book_fk FOREIGN KEY (book_id) REFERENCES book (id),
+    CONSTRAINT borrow_member_fk FOREIGN KEY (member_id) REFERENCES member (id)
+);
@@ -0,0 +1,4 @@
+-- Name lookups ignore case now, the exact match index is no longer used
+DROP INDEX member_name_idx;
+
+CREATE INDEX member_lower_name_idx ON member (lower(name));
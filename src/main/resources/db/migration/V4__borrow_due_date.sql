@@ -0,0 +1,9 @@
+ALTER TABLE borrow ADD COLUMN due_date DATE;
+
+-- Loans taken before due dates existed get the configured loan period, borrow.loan-days at migration time
+UPDATE borrow SET due_date = borrow_date + ${loan_days};
+
+ALTER TABLE borrow ALTER COLUMN due_date SET NOT NULL;
+
+-- Serves the overdue listing until the in-memory tracker is loaded, and its startup scan as an index-only scan
+CREATE INDEX borrow_open_due_idx ON borrow (due_date) INCLUDE (id, book_id, member_id) WHERE return_date IS NULL;
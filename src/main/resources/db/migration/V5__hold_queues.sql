@@ -0,0 +1,18 @@
+CREATE SEQUENCE IF NOT EXISTS hold_id_seq START WITH 1 INCREMENT BY 1;
+
+-- Holds go away with their book or member
+CREATE TABLE hold (
+    id        BIGINT       NOT NULL,
+    book_id   BIGINT       NOT NULL,
+    member_id BIGINT       NOT NULL,
+    placed_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT hold_pkey PRIMARY KEY (id),
+    CONSTRAINT hold_book_member_key UNIQUE (book_id, member_id),
+    CONSTRAINT hold_book_fk FOREIGN KEY (book_id) REFERENCES book (id) ON DELETE CASCADE,
+    CONSTRAINT hold_member_fk FOREIGN KEY (member_id) REFERENCES member (id) ON DELETE CASCADE
+);
+
+-- Queue of a book in arrival order: next holder on return, and queue positions as index-only counts
+CREATE INDEX hold_book_queue_idx ON hold (book_id, id);
+
+CREATE INDEX hold_member_idx ON hold (member_id, id);
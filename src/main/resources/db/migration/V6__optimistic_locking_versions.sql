@@ -0,0 +1,4 @@
+-- Optimistic locking versions, existing rows and inserts that leave the column out start at 0
+ALTER TABLE book ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE member ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,64 @@
+package com.library.library_management.migration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The unit tests run on H2 with a schema generated from the entities, these run the real migrations
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Testcontainers
+public class FlywayMigrationTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void migrations_shouldProduceTheSchemaTheEntitiesExpect() {
+        // Hibernate validated the migrated schema while the context started
+        assertEquals(0, flyway.info().pending().length);
+        assertNotNull(flyway.info().current());
+    }
+
+    @Test
+    void migrate_duplicateTitleAndAuthor_shouldStopWithClearMessage() {
+        Flyway duplicates = Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .schemas("duplicates")
+                .target("1")
+                .load();
+        duplicates.migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO duplicates.book (id, title, author, amount) VALUES (1, 'Dune', 'Frank Herbert', 2)");
+        jdbcTemplate.update("INSERT INTO duplicates.book (id, title, author, amount) VALUES (2, 'Dune', 'Frank Herbert', 1)");
+
+        Flyway latest = Flyway.configure()
+                .configuration(duplicates.getConfiguration())
+                .target("latest")
+                .load();
+
+        FlywayException exception = assertThrows(FlywayException.class, latest::migrate);
+        assertTrue(exception.getMessage().contains("2 books share title \"Dune\" and author \"Frank Herbert\""));
+    }
+}
@@ -0,0 +1,69 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.circulation.BookAvailability;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in the {@link BookAvailability} read model, single-threaded and with all threads reading at once,
+ * alone and while another thread keeps adjusting amounts. Reads take no lock, so throughput per thread
+ * should stay flat as threads are added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @Param({"10000", "1000000"})
+    int books;
+
+    private final BookAvailability availability = new BookAvailability();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (long id = 1; id <= books; id++) {
+            availability.put(id, (int) (id % 5));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        long next;
+    }
+
+    private Long nextId(Cursor cursor) {
+        cursor.next = cursor.next % books + 1;
+        return cursor.next;
+    }
+
+    @Benchmark
+    public int lookup(Cursor cursor) {
+        return availability.amountOf(nextId(cursor));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int lookupAllThreads(Cursor cursor) {
+        return availability.amountOf(nextId(cursor));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public int readWhileAdjusting(Cursor cursor) {
+        return availability.amountOf(nextId(cursor));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void adjust() {
+        Long id = ThreadLocalRandom.current().nextLong(1, books + 1);
+        availability.adjust(id, ThreadLocalRandom.current().nextBoolean() ? 1 : -1);
+    }
+}
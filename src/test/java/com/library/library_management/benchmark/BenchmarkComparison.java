@@ -0,0 +1,75 @@
+package com.library.library_management.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON reports, for example from the last release and the current commit.
+ * Prints the change of every benchmark present in both and exits with status 1 if any
+ * got slower than the threshold.
+ * <p>
+ * Usage: {@code BenchmarkComparison <baseline.json> <current.json> [max regression in percent, default 10]}
+ */
+public class BenchmarkComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [max regression %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-100s %12s%n", entry.getKey(), "new");
+                continue;
+            }
+            double regression = regressionPercent(before, entry.getValue());
+            boolean failed = regression > threshold;
+            if (failed) {
+                regressions++;
+            }
+            System.out.printf("%-100s %+11.1f%%%s%n", entry.getKey(), regression, failed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    // Positive means slower, for throughput modes a lower score is the regression
+    private static double regressionPercent(JsonNode before, JsonNode after) {
+        double base = before.path("primaryMetric").path("score").asDouble();
+        double now = after.path("primaryMetric").path("score").asDouble();
+        double change = (now - base) / base * 100;
+        return "thrpt".equals(after.path("mode").asText()) ? -change : change;
+    }
+
+    // Keys every result by benchmark method and parameters, e.g. BookServiceBenchmark.listAllBooks {backend=h2, catalogSize=1000}
+    private static Map<String, JsonNode> read(File report) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(report)) {
+            String benchmark = result.path("benchmark").asText();
+            StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+            JsonNode params = result.path("params");
+            if (!params.isMissingNode()) {
+                Map<String, String> sorted = new TreeMap<>();
+                params.properties().forEach(field -> sorted.put(field.getKey(), field.getValue().asText()));
+                key.append(' ').append(sorted);
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,94 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.search.BookSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link BookSearchIndex} over a generated catalog. Titles combine words of a fixed vocabulary
+ * with a Zipf-like skew, so common words match a large share of the catalog, like "the" or "history" would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class BookSearchBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int VOCABULARY = 50_000;
+    private static final int AUTHORS = 20_000;
+
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    private final BookSearchIndex index = new BookSearchIndex();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= catalogSize; id++) {
+            StringBuilder title = new StringBuilder(word(skewed(random)));
+            int words = 1 + random.nextInt(5);
+            for (int i = 0; i < words; i++) {
+                title.append(' ').append(word(skewed(random)));
+            }
+            int author = random.nextInt(AUTHORS);
+            index.put(id, title.toString(), word(author) + " " + word(author * 31 % VOCABULARY));
+        }
+    }
+
+    // Rare word, the typical search for a specific title
+    @Benchmark
+    public List<Long> rareToken() {
+        return index.search(word(VOCABULARY - 7), 0, PAGE_SIZE);
+    }
+
+    // Most frequent word, matches a large share of the catalog and has to rank it all
+    @Benchmark
+    public List<Long> commonToken() {
+        return index.search(word(0), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Long> twoTokens() {
+        return index.search(word(3) + " " + word(1200), 0, PAGE_SIZE);
+    }
+
+    // Search as you type, a short prefix expands to many terms
+    @Benchmark
+    public List<Long> shortPrefix() {
+        return index.search(word(1200).substring(0, 3), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Long> typo() {
+        String word = word(1200);
+        return index.search(word.charAt(1) + word.substring(0, 1) + word.substring(2), 0, PAGE_SIZE);
+    }
+
+    // Word index skewed towards the start of the vocabulary
+    private static int skewed(SplittableRandom random) {
+        double u = random.nextDouble();
+        return (int) (VOCABULARY * u * u * u);
+    }
+
+    // Pronounceable, distinct word for every index, alternating consonants and vowels
+    private static String word(int index) {
+        String consonants = "bcdfghklmnprstvz";
+        String vowels = "aeiou";
+        StringBuilder word = new StringBuilder();
+        int rest = index;
+        do {
+            word.append(consonants.charAt(rest % consonants.length()));
+            rest /= consonants.length();
+            word.append(vowels.charAt(rest % vowels.length()));
+            rest /= vowels.length();
+        } while (rest > 0);
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,48 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.dto.BookResponse;
+import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.dto.PageResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog writes and full catalog listing, see {@link ServiceFixture} for the backends and catalog sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    private static final int PAGE_SIZE = 500;
+
+    private long created;
+    private int next;
+
+    @Benchmark
+    public BookResponse createBook(ServiceFixture fixture) {
+        return fixture.bookService.createBook(new CreateBookRequest("Created " + created++, "Jane Austen"));
+    }
+
+    @Benchmark
+    public BookResponse getBookById(ServiceFixture fixture) {
+        return fixture.bookService.getBookById(fixture.bookIds.get(next++ % fixture.bookIds.size()));
+    }
+
+    // Walks every page of the catalog, the replacement for the old unpaged getAllBooks
+    @Benchmark
+    public int listAllBooks(ServiceFixture fixture) {
+        int books = 0;
+        Long cursor = null;
+        do {
+            PageResponse<BookResponse> page = fixture.bookService.getBooks(cursor, PAGE_SIZE);
+            books += page.content().size();
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return books;
+    }
+}
@@ -0,0 +1,56 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.dto.BorrowResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout round trips and the title analytics. The analytics run twice, once answered by the
+ * in-memory circulation counters and once with a date range, which always goes to the repository.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BorrowServiceBenchmark {
+
+    private static final int TOP_TITLES = 10;
+
+    private final LocalDate from = LocalDate.now().minusYears(1);
+    private final LocalDate to = LocalDate.now().plusDays(1);
+
+    // Borrows a book for the idle member, looks the open loan up and returns it, so stock and loans stay level
+    @Benchmark
+    public void borrowAndReturn(ServiceFixture fixture) {
+        Long bookId = fixture.bookIds.get(0);
+        fixture.borrowService.borrowBook(fixture.idleMemberId, bookId);
+        List<BorrowResponse> open = fixture.borrowService.getBorrowedBooksByMember(fixture.idleMemberId, null, 1).content();
+        fixture.borrowService.returnBook(open.get(0).id());
+    }
+
+    @Benchmark
+    public Map<String, Long> titlesWithCount_counters(ServiceFixture fixture) {
+        return fixture.borrowService.getBorrowedBookTitlesWithCount(null, null, TOP_TITLES);
+    }
+
+    @Benchmark
+    public Map<String, Long> titlesWithCount_query(ServiceFixture fixture) {
+        return fixture.borrowService.getBorrowedBookTitlesWithCount(from, to, TOP_TITLES);
+    }
+
+    @Benchmark
+    public List<String> distinctTitles_counters(ServiceFixture fixture) {
+        return fixture.borrowService.getDistinctBorrowedBookTitles(null, null, null);
+    }
+
+    @Benchmark
+    public List<String> distinctTitles_query(ServiceFixture fixture) {
+        return fixture.borrowService.getDistinctBorrowedBookTitles(from, to, null);
+    }
+}
@@ -0,0 +1,76 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.circulation.CirculationState;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the circulation event log in events per second: rebuilding open borrows and stock
+ * from a log of a million events, and appending from request threads. Appends only measure the caller
+ * until the queue fills up, from then on they run at the pace of the writer thread and its syncs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventLogBenchmark {
+
+    private static final int BOOKS = 10_000;
+    private static final int MEMBERS = 1000;
+    private static final int EVENTS = 1_000_000;
+
+    private Path directory;
+    private CirculationEventLog eventLog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        directory = Files.createTempDirectory("event-log-benchmark");
+        eventLog = new CirculationEventLog(true, directory, DataSize.ofMegabytes(16), 65536);
+        eventLog.open();
+        for (long book = 1; book <= BOOKS; book++) {
+            eventLog.stocked(book, 5);
+        }
+        // Borrows alternate with either the return of every fourth borrow or a restock
+        long borrowId = 0;
+        for (int i = BOOKS; i < EVENTS; i++) {
+            if (i % 2 == 0 || borrowId == 0) {
+                borrowId++;
+                eventLog.borrowed(borrowId, borrowId % BOOKS + 1, borrowId % MEMBERS + 1);
+            } else if (borrowId % 4 == 0) {
+                eventLog.returned(borrowId, borrowId % BOOKS + 1, borrowId % MEMBERS + 1);
+            } else {
+                eventLog.stocked(borrowId % BOOKS + 1, 1);
+            }
+        }
+        while (eventLog.size() < EVENTS) {
+            Thread.sleep(10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, InterruptedException {
+        eventLog.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public CirculationState replay() {
+        return CirculationState.replay(eventLog);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void append() {
+        eventLog.borrowed(1L, 1L, 1L);
+    }
+}
@@ -0,0 +1,99 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.service.ExportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports a large book table and samples the used heap while rows are streamed.
+ * Heap after the first sample must stay flat, materializing the table would grow it by hundreds of MB.
+ * <p>
+ * Run with {@code ./mvnw test -Dtest=ExportHeapBenchmark -Dbenchmark=true -Dbenchmark.rows=1000000}
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ExportHeapBenchmark {
+
+    private static final int INSERT_BATCH = 10_000;
+    private static final long MAX_HEAP_GROWTH_BYTES = 64L * 1024 * 1024;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportBooks_shouldKeepHeapFlat() throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        insertBooks(rows);
+
+        HeapSamplingStream output = new HeapSamplingStream(rows / 10);
+        long started = System.nanoTime();
+        exportService.exportBooks(output);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        List<Long> samples = output.samples;
+        long growth = samples.get(samples.size() - 1) - samples.get(0);
+        System.out.printf("Exported %d rows (%d bytes) in %d ms%n", output.lines, output.bytes, elapsedMillis);
+        for (int i = 0; i < samples.size(); i++) {
+            System.out.printf("  after %,d rows: %,d KB used heap%n", (long) (i + 1) * (rows / 10), samples.get(i) / 1024);
+        }
+
+        assertEquals(rows, output.lines);
+        assertTrue(growth < MAX_HEAP_GROWTH_BYTES, "Heap grew by " + growth / 1024 + " KB during export");
+    }
+
+    private void insertBooks(int rows) {
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long id = 1; id <= rows; id++) {
+            batch.add(new Object[]{id, "Benchmark Title " + id, "Jane Austen", 1});
+            if (batch.size() == INSERT_BATCH || id == rows) {
+                jdbcTemplate.batchUpdate("INSERT INTO book (id, title, author, amount) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Discards the export but counts lines and records used heap after a full GC every sampleInterval lines
+    private static class HeapSamplingStream extends OutputStream {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long sampleInterval;
+        private final List<Long> samples = new ArrayList<>();
+        private long lines;
+        private long bytes;
+
+        HeapSamplingStream(long sampleInterval) {
+            this.sampleInterval = Math.max(1, sampleInterval);
+        }
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n' && ++lines % sampleInterval == 0) {
+                System.gc();
+                samples.add(memory.getHeapMemoryUsage().getUsed());
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
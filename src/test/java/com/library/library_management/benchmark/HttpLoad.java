@@ -0,0 +1,127 @@
+package com.library.library_management.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load generator for the load benchmarks. Every client is a virtual thread sending
+ * GET requests back to back, cycling through the given URIs. Only requests that start after the warmup
+ * and finish inside the measured window are recorded.
+ */
+class HttpLoad {
+
+    private final int clients;
+    private final Duration warmup;
+    private final Duration measurement;
+
+    HttpLoad(int clients, Duration warmup, Duration measurement) {
+        this.clients = clients;
+        this.warmup = warmup;
+        this.measurement = measurement;
+    }
+
+    static HttpLoad fromSystemProperties() {
+        return new HttpLoad(Integer.getInteger("benchmark.clients", 1000),
+                Duration.ofSeconds(Integer.getInteger("benchmark.warmup-seconds", 10)),
+                Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 30)));
+    }
+
+    String describe() {
+        return String.format("%d clients, %d s measured", clients, measurement.toSeconds());
+    }
+
+    Result run(List<URI> uris) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + measurement.toNanos();
+        LongAdder errors = new LongAdder();
+
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            List<Future<LatencyLog>> futures = new ArrayList<>(clients);
+            for (int client = 0; client < clients; client++) {
+                int offset = client;
+                futures.add(executor.submit(() -> {
+                    LatencyLog log = new LatencyLog();
+                    for (int i = offset; System.nanoTime() < measureUntil; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(uris.get(i % uris.size())).GET().build();
+                        long started = System.nanoTime();
+                        int status;
+                        try {
+                            status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        long finished = System.nanoTime();
+                        if (started >= measureFrom && finished <= measureUntil) {
+                            log.add(finished - started);
+                            if (status != 200) {
+                                errors.increment();
+                            }
+                        }
+                    }
+                    return log;
+                }));
+            }
+
+            List<LatencyLog> logs = new ArrayList<>(clients);
+            long total = 0;
+            for (Future<LatencyLog> future : futures) {
+                LatencyLog log = future.get();
+                logs.add(log);
+                total += log.size;
+            }
+            long[] latencies = new long[(int) total];
+            int position = 0;
+            for (LatencyLog log : logs) {
+                System.arraycopy(log.nanos, 0, latencies, position, log.size);
+                position += log.size;
+            }
+            Arrays.sort(latencies);
+            return new Result(latencies, measurement, errors.sum());
+        }
+    }
+
+    private static class LatencyLog {
+
+        private long[] nanos = new long[1024];
+        private int size;
+
+        void add(long latency) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+        }
+    }
+
+    record Result(long[] sortedLatencies, Duration measurement, long errors) {
+
+        String describe(String label) {
+            return String.format("%-17s %,10.0f req/s   p50 %,8.2f ms   p99 %,8.2f ms   errors %d",
+                    label, sortedLatencies.length / (double) measurement.toSeconds(),
+                    percentile(0.50), percentile(0.99), errors);
+        }
+
+        private double percentile(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.entity.Book;
+import com.library.library_management.entity.Borrow;
+import com.library.library_management.entity.Member;
+import com.library.library_management.repository.BookBorrowCount;
+import com.library.library_management.repository.BookRepository;
+import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.repository.HoldRepository;
+import com.library.library_management.repository.MemberRepository;
+import com.library.library_management.repository.TitleCount;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Map backed stand-ins for the Spring Data repositories, so the services can be benchmarked without a database.
+ * Only the repository methods the benchmarked service calls need are implemented, anything else throws.
+ */
+class InMemoryRepositories {
+
+    private final ConcurrentSkipListMap<Long, Book> books = new ConcurrentSkipListMap<>();
+    private final Map<String, Book> booksByTitleAndAuthor = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Member> members = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, Borrow> borrows = new ConcurrentSkipListMap<>();
+    // Open borrows by member, stands in for the member_id index so lookups do not scan returned borrows
+    private final Map<Long, ConcurrentSkipListMap<Long, Borrow>> openBorrowsByMember = new ConcurrentHashMap<>();
+
+    private final AtomicLong bookIds = new AtomicLong();
+    private final AtomicLong memberIds = new AtomicLong();
+    private final AtomicLong borrowIds = new AtomicLong();
+
+    final BookRepository bookRepository = proxy(BookRepository.class, this::books);
+    final MemberRepository memberRepository = proxy(MemberRepository.class, this::members);
+    final BorrowRepository borrowRepository = proxy(BorrowRepository.class, this::borrows);
+    final HoldRepository holdRepository = proxy(HoldRepository.class, this::holds);
+
+    private Object books(String method, Object[] args) {
+        switch (method) {
+            case "save" -> {
+                Book book = (Book) args[0];
+                if (book.getId() == null) {
+                    book.setId(bookIds.incrementAndGet());
+                }
+                books.put(book.getId(), book);
+                booksByTitleAndAuthor.put(book.getTitle() + '\n' + book.getAuthor(), book);
+                return book;
+            }
+            case "saveAll" -> {
+                List<Book> saved = new ArrayList<>();
+                for (Object book : (Iterable<?>) args[0]) {
+                    saved.add((Book) books("save", new Object[]{book}));
+                }
+                return saved;
+            }
+            case "findById" -> {
+                return Optional.ofNullable(books.get((Long) args[0]));
+            }
+            case "getReferenceById" -> {
+                return books.get((Long) args[0]);
+            }
+            case "existsById" -> {
+                return books.containsKey((Long) args[0]);
+            }
+            case "findByTitleAndAuthor" -> {
+                return Optional.ofNullable(booksByTitleAndAuthor.get(args[0] + "\n" + args[1]));
+            }
+            case "findByIdGreaterThanOrderByIdAsc" -> {
+                return page(books.tailMap((Long) args[0], false), (Limit) args[1]);
+            }
+            case "decrementAmountIfAvailable" -> {
+                Book book = books.get((Long) args[0]);
+                if (book == null || book.getAmount() == 0) {
+                    return 0;
+                }
+                book.setAmount(book.getAmount() - 1);
+                return 1;
+            }
+            case "incrementAmount" -> {
+                Book book = books.get((Long) args[0]);
+                if (book == null) {
+                    return 0;
+                }
+                book.setAmount(book.getAmount() + 1);
+                return 1;
+            }
+            case "lockAllById" -> {
+                return List.of();
+            }
+            default -> throw new UnsupportedOperationException("BookRepository." + method);
+        }
+    }
+
+    private Object members(String method, Object[] args) {
+        switch (method) {
+            case "save" -> {
+                Member member = (Member) args[0];
+                if (member.getId() == null) {
+                    member.setId(memberIds.incrementAndGet());
+                }
+                members.put(member.getId(), member);
+                return member;
+            }
+            case "findById" -> {
+                return Optional.ofNullable(members.get((Long) args[0]));
+            }
+            case "getReferenceById" -> {
+                return members.get((Long) args[0]);
+            }
+            case "existsById" -> {
+                return members.containsKey((Long) args[0]);
+            }
+            case "findByIdGreaterThanOrderByIdAsc" -> {
+                return page(members.tailMap((Long) args[0], false), (Limit) args[1]);
+            }
+            default -> throw new UnsupportedOperationException("MemberRepository." + method);
+        }
+    }
+
+    private Object borrows(String method, Object[] args) {
+        switch (method) {
+            case "save" -> {
+                Borrow borrow = (Borrow) args[0];
+                if (borrow.getId() == null) {
+                    borrow.setId(borrowIds.incrementAndGet());
+                }
+                borrows.put(borrow.getId(), borrow);
+                if (borrow.getReturnDate() == null) {
+                    openBorrowsOf(borrow.getMember().getId()).put(borrow.getId(), borrow);
+                }
+                return borrow;
+            }
+            case "findById" -> {
+                return Optional.ofNullable(borrows.get((Long) args[0]));
+            }
+            case "markReturned" -> {
+                Borrow borrow = borrows.get((Long) args[0]);
+                if (borrow == null || borrow.getReturnDate() != null) {
+                    return 0;
+                }
+                borrow.setReturnDate((LocalDate) args[1]);
+                openBorrowsOf(borrow.getMember().getId()).remove(borrow.getId());
+                return 1;
+            }
+            case "countByMemberIdAndReturnDateIsNull" -> {
+                return openBorrowsOf((Long) args[0]).size();
+            }
+            case "findByMemberIdAndReturnDateIsNullAndIdGreaterThanOrderByIdAsc" -> {
+                return page(openBorrowsOf((Long) args[0]).tailMap((Long) args[1], false), (Limit) args[2]);
+            }
+            case "countOpenBorrowsByBook" -> {
+                Map<Book, Long> counts = new HashMap<>();
+                openBorrows(borrow -> true).forEach(borrow -> counts.merge(borrow.getBook(), 1L, Long::sum));
+                List<BookBorrowCount> result = new ArrayList<>();
+                counts.forEach((book, count) -> result.add(new BookCountRow(book.getId(), book.getTitle(), count)));
+                return result;
+            }
+            case "countOpenBorrowsByTitle" -> {
+                Map<String, Long> counts = new HashMap<>();
+                openBorrows(inRange((LocalDate) args[0], (LocalDate) args[1]))
+                        .forEach(borrow -> counts.merge(borrow.getBook().getTitle(), 1L, Long::sum));
+                return counts.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                        .limit(maxRows((Limit) args[2]))
+                        .<TitleCount>map(entry -> new TitleCountRow(entry.getKey(), entry.getValue()))
+                        .toList();
+            }
+            case "findDistinctOpenBorrowTitles" -> {
+                return openBorrows(inRange((LocalDate) args[0], (LocalDate) args[1]))
+                        .map(borrow -> borrow.getBook().getTitle())
+                        .distinct()
+                        .sorted()
+                        .limit(maxRows((Limit) args[2]))
+                        .toList();
+            }
+            default -> throw new UnsupportedOperationException("BorrowRepository." + method);
+        }
+    }
+
+    // The benchmarks never place holds, so every queue is empty
+    private Object holds(String method, Object[] args) {
+        switch (method) {
+            case "findByBookIdOrderByIdAsc", "findHeldBookIds", "findFirstInQueues" -> {
+                return List.of();
+            }
+            default -> throw new UnsupportedOperationException("HoldRepository." + method);
+        }
+    }
+
+    private ConcurrentSkipListMap<Long, Borrow> openBorrowsOf(Long memberId) {
+        return openBorrowsByMember.computeIfAbsent(memberId, id -> new ConcurrentSkipListMap<>());
+    }
+
+    private Stream<Borrow> openBorrows(Predicate<Borrow> filter) {
+        return borrows.values().stream().filter(borrow -> borrow.getReturnDate() == null).filter(filter);
+    }
+
+    private static Predicate<Borrow> inRange(LocalDate from, LocalDate to) {
+        return borrow -> !borrow.getBorrowDate().isBefore(from) && !borrow.getBorrowDate().isAfter(to);
+    }
+
+    private static <T> List<T> page(SortedMap<Long, T> rows, Limit limit) {
+        return rows.values().stream().limit(maxRows(limit)).toList();
+    }
+
+    private static long maxRows(Limit limit) {
+        return limit.isLimited() ? limit.max() : Long.MAX_VALUE;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, RepositoryMethod handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeOnHandler(handler, method, args);
+            }
+            return handler.invoke(method.getName(), args == null ? new Object[0] : args);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private static Object invokeOnHandler(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RepositoryMethod {
+        Object invoke(String method, Object[] args);
+    }
+
+    private record TitleCountRow(String title, Long borrowCount) implements TitleCount {
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+
+        @Override
+        public Long getBorrowCount() {
+            return borrowCount;
+        }
+    }
+
+    private record BookCountRow(Long bookId, String title, Long borrowCount) implements BookBorrowCount {
+
+        @Override
+        public Long getBookId() {
+            return bookId;
+        }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+
+        @Override
+        public Long getBorrowCount() {
+            return borrowCount;
+        }
+    }
+}
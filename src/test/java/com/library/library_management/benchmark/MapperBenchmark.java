@@ -0,0 +1,136 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.dto.BookResponse;
+import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.dto.mapper.BookMapper;
+import com.library.library_management.entity.Book;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.config.Configuration.AccessLevel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-object cost and allocation of {@link BookMapper} against the reflective ModelMapper path it replaced.
+ * The GC profiler reports bytes allocated per mapped object as {@code gc.alloc.rate.norm}.
+ * <p>
+ * ModelMapper cannot instantiate records, so its response benchmark maps into {@link BookView},
+ * a JavaBean with the same fields as {@link BookResponse}.
+ * <p>
+ * Run with {@code ./mvnw test -Dtest=MapperBenchmark -Dbenchmark=true}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private BookMapper bookMapper;
+    private ModelMapper modelMapper;
+    private Book book;
+    private CreateBookRequest request;
+
+    @Setup
+    public void setUp() {
+        bookMapper = new BookMapper();
+        // Field matching lets ModelMapper read record components, which have no JavaBean getters
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setFieldMatchingEnabled(true).setFieldAccessLevel(AccessLevel.PRIVATE);
+
+        book = new Book("Clean Code", "Robert Martin", 3);
+        book.setId(42L);
+        request = new CreateBookRequest("Clean Code", "Robert Martin");
+    }
+
+    @Benchmark
+    public BookResponse toResponse_explicit() {
+        return bookMapper.toBookResponse(book);
+    }
+
+    @Benchmark
+    public BookView toResponse_modelMapper() {
+        return modelMapper.map(book, BookView.class);
+    }
+
+    @Benchmark
+    public Book fromCreateRequest_explicit() {
+        return bookMapper.fromCreateRequest(request);
+    }
+
+    @Benchmark
+    public Book fromCreateRequest_modelMapper() {
+        return modelMapper.map(request, Book.class);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void explicitMapping_shouldBeCheaperThanModelMapper() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(MapperBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        Map<String, Double> scores = new HashMap<>();
+        for (RunResult result : results) {
+            String method = result.getParams().getBenchmark();
+            scores.put(method.substring(method.lastIndexOf('.') + 1), result.getPrimaryResult().getScore());
+        }
+        assertTrue(scores.get("toResponse_explicit") < scores.get("toResponse_modelMapper"));
+        assertTrue(scores.get("fromCreateRequest_explicit") < scores.get("fromCreateRequest_modelMapper"));
+    }
+
+    public static class BookView {
+
+        private Long id;
+        private String title;
+        private String author;
+        private int amount;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getAuthor() {
+            return author;
+        }
+
+        public void setAuthor(String author) {
+            this.author = author;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        public void setAmount(int amount) {
+            this.amount = amount;
+        }
+    }
+}
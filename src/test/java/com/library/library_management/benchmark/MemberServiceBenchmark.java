@@ -0,0 +1,29 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.dto.CreateMemberRequest;
+import com.library.library_management.dto.MemberResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberServiceBenchmark {
+
+    private long created;
+    private int next;
+
+    @Benchmark
+    public MemberResponse createMember(ServiceFixture fixture) {
+        return fixture.memberService.createMember(new CreateMemberRequest("Created Member " + created++));
+    }
+
+    @Benchmark
+    public MemberResponse getMemberById(ServiceFixture fixture) {
+        return fixture.memberService.getMemberById(fixture.memberIds.get(next++ % fixture.memberIds.size()));
+    }
+}
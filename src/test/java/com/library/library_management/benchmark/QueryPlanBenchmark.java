@@ -0,0 +1,109 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.LibraryManagementApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the hot lookups are served by the indexes from the migrations at production scale.
+ * Migrates an empty PostgreSQL database, seeds it with {@code benchmark.borrows} borrows (default ten million,
+ * five percent of them open) and asserts on the plan PostgreSQL picks for each query.
+ * <p>
+ * The database is filled with generated data, point it at a scratch database:
+ * {@code ./mvnw test -Dtest=QueryPlanBenchmark -Dbenchmark.db=localhost:5432/plans -Dbenchmark.db.user=user
+ * -Dbenchmark.db.password=secret}
+ */
+@EnabledIfSystemProperty(named = "benchmark.db", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryPlanBenchmark {
+
+    private static final int BOOKS = 100_000;
+    private static final int MEMBERS = 100_000;
+
+    private final long borrows = Long.getLong("benchmark.borrows", 10_000_000L);
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        String database = System.getProperty("benchmark.db");
+        context = new SpringApplicationBuilder(LibraryManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:postgresql://" + database,
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.datasource.username=" + System.getProperty("benchmark.db.user", "postgres"),
+                        "--spring.datasource.password=" + System.getProperty("benchmark.db.password", ""),
+                        "--spring.flyway.enabled=true",
+                        "--spring.jpa.hibernate.ddl-auto=validate");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        Long existing = jdbcTemplate.queryForObject("SELECT count(*) FROM borrow", Long.class);
+        if (existing != null && existing >= borrows) {
+            return;
+        }
+        jdbcTemplate.update("TRUNCATE borrow, book, member");
+        jdbcTemplate.update("INSERT INTO book (id, title, author, amount) " +
+                "SELECT nextval('book_id_seq'), 'Title ' || i, 'Jane Austen', 5 FROM generate_series(1, ?) i", BOOKS);
+        jdbcTemplate.update("INSERT INTO member (id, name, membership_date) " +
+                "SELECT nextval('member_id_seq'), 'Member ' || i, current_date FROM generate_series(1, ?) i", MEMBERS);
+        // Every twentieth borrow is still open, the rest were returned
+        jdbcTemplate.update("INSERT INTO borrow (id, book_id, member_id, borrow_date, due_date, return_date) " +
+                "SELECT nextval('borrow_id_seq'), " +
+                "(SELECT min(id) FROM book) + i % ?, (SELECT min(id) FROM member) + (i * 7919) % ?, " +
+                "current_date - (i % 365)::int, current_date - (i % 365)::int + 14, CASE WHEN i % 20 = 0 THEN NULL ELSE current_date END " +
+                "FROM generate_series(1, ?) i", BOOKS, MEMBERS, borrows);
+        // Index-only scans rely on the visibility map
+        jdbcTemplate.execute("VACUUM ANALYZE book");
+        jdbcTemplate.execute("VACUUM ANALYZE member");
+        jdbcTemplate.execute("VACUUM ANALYZE borrow");
+    }
+
+    @AfterAll
+    void close() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', quoteCharacter = '"', value = {
+            "member loan count      | Index Only Scan using borrow_open_member_idx | " +
+                    "SELECT count(*) FROM borrow WHERE member_id = (SELECT min(id) FROM member) AND return_date IS NULL",
+            "member open borrow ids | Index Only Scan using borrow_open_member_idx | " +
+                    "SELECT id FROM borrow WHERE member_id = (SELECT min(id) FROM member) AND return_date IS NULL " +
+                    "AND id > 0 ORDER BY id LIMIT 51",
+            "book has open borrows  | Index Only Scan using borrow_open_book_idx   | " +
+                    "SELECT 1 FROM borrow WHERE book_id = (SELECT min(id) FROM book) AND return_date IS NULL LIMIT 1",
+            "open borrows by book   | Index Only Scan using borrow_open_book_idx   | " +
+                    "SELECT book_id, count(*) FROM borrow WHERE return_date IS NULL GROUP BY book_id",
+            "open borrows in range  | Index Only Scan using borrow_open_date_idx   | " +
+                    "SELECT book_id FROM borrow WHERE return_date IS NULL " +
+                    "AND borrow_date BETWEEN current_date - 7 AND current_date",
+            "overdue borrows        | Index Only Scan using borrow_open_due_idx    | " +
+                    "SELECT id, book_id, member_id FROM borrow WHERE return_date IS NULL " +
+                    "AND due_date < current_date - 300",
+            "book by title, author  | Index Scan using book_title_author_key       | " +
+                    "SELECT * FROM book WHERE title = 'Title 42' AND author = 'Jane Austen'",
+            "member by name         | Index Scan using member_lower_name_idx       | " +
+                    "SELECT id FROM member WHERE lower(name) = lower('Member 42')"
+    })
+    void usesIndex(String query, String expectedNode, String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        System.out.println(query + System.lineSeparator() + String.join(System.lineSeparator(), plan));
+        assertTrue(plan.stream().anyMatch(line -> line.contains(expectedNode)),
+                () -> "Expected " + expectedNode + " for " + query + " but got " + plan);
+    }
+}
@@ -0,0 +1,63 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.controller.support.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link TokenBucketLimiter#tryAcquire} per request, for one hot client and for requests spread
+ * over many clients, single-threaded and with all threads hitting the limiter at once.
+ * The budget is large enough that every call takes a token, the common case for well-behaved clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    // Idle buckets expire only after the burst refilled, about a quarter of an hour here, so none are evicted
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(1_000_000, 1_000_000_000, 100_000);
+    private final String[] keys = new String[CLIENTS];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < CLIENTS; i++) {
+            keys[i] = "member:" + i;
+            limiter.tryAcquire(keys[i]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public long hotClient() {
+        return limiter.tryAcquire(keys[0]);
+    }
+
+    @Benchmark
+    public long manyClients(Cursor cursor) {
+        cursor.next = (cursor.next + 1) % CLIENTS;
+        return limiter.tryAcquire(keys[cursor.next]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long hotClientContended() {
+        return limiter.tryAcquire(keys[0]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long manyClientsContended(Cursor cursor) {
+        cursor.next = (cursor.next + 1) % CLIENTS;
+        return limiter.tryAcquire(keys[cursor.next]);
+    }
+}
@@ -0,0 +1,87 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.LibraryManagementApplication;
+import com.library.library_management.dto.BookResponse;
+import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the servlet stack and the reactive profile with the same closed-loop load against a local
+ * PostgreSQL database: book lookups by ID and catalog pages. The servlet run seeds the catalog,
+ * the reactive run reads the same rows.
+ * <p>
+ * Run with {@code ./mvnw test -Dtest=ReactiveStackLoadBenchmark -Dbenchmark.db=localhost:5432/librarydb
+ * -Dbenchmark.db.user=user -Dbenchmark.db.password=secret}
+ */
+@EnabledIfSystemProperty(named = "benchmark.db", matches = ".+")
+public class ReactiveStackLoadBenchmark {
+
+    private static final int BOOKS = 200;
+
+    private final HttpLoad load = HttpLoad.fromSystemProperties();
+    private final String database = System.getProperty("benchmark.db");
+    private final String user = System.getProperty("benchmark.db.user", "postgres");
+    private final String password = System.getProperty("benchmark.db.password", "");
+
+    @Test
+    void compareServletAndReactiveStacks() throws Exception {
+        List<Long> bookIds = new ArrayList<>();
+        HttpLoad.Result servlet;
+        try (ConfigurableApplicationContext context = start()) {
+            BookService bookService = context.getBean(BookService.class);
+            for (int i = 0; i < BOOKS; i++) {
+                BookResponse book = bookService.createBook(new CreateBookRequest("Load Title " + i, "Jane Austen"));
+                bookIds.add(book.id());
+            }
+            servlet = load.run(uris(context, bookIds));
+        }
+
+        HttpLoad.Result reactive;
+        try (ConfigurableApplicationContext context = start("reactive")) {
+            reactive = load.run(uris(context, bookIds));
+        }
+
+        System.out.println(load.describe());
+        System.out.println(servlet.describe("servlet + JDBC"));
+        System.out.println(reactive.describe("WebFlux + R2DBC"));
+
+        assertEquals(0, servlet.errors());
+        assertEquals(0, reactive.errors());
+    }
+
+    private ConfigurableApplicationContext start(String... profiles) {
+        return new SpringApplicationBuilder(LibraryManagementApplication.class)
+                .profiles(profiles)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:postgresql://" + database,
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.datasource.username=" + user,
+                        "--spring.datasource.password=" + password,
+                        "--spring.r2dbc.url=r2dbc:postgresql://" + database,
+                        "--spring.r2dbc.username=" + user,
+                        "--spring.r2dbc.password=" + password,
+                        // Same schema as production, the test properties would create and drop it from the entities
+                        "--spring.flyway.enabled=true",
+                        "--spring.jpa.hibernate.ddl-auto=validate");
+    }
+
+    private List<URI> uris(ConfigurableApplicationContext context, List<Long> bookIds) {
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        List<URI> uris = new ArrayList<>();
+        for (Long id : bookIds) {
+            uris.add(URI.create(baseUrl + "/api/v1/books/" + id));
+            uris.add(URI.create(baseUrl + "/api/v1/books?size=50&cursor=" + (id - 1)));
+        }
+        return uris;
+    }
+}
@@ -0,0 +1,200 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.LibraryManagementApplication;
+import com.library.library_management.circulation.BookAvailability;
+import com.library.library_management.circulation.CirculationCounters;
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.circulation.MemberLoanCounter;
+import com.library.library_management.circulation.OverdueTracker;
+import com.library.library_management.config.PaginationProperties;
+import com.library.library_management.dto.mapper.BookMapper;
+import com.library.library_management.dto.mapper.BorrowMapper;
+import com.library.library_management.dto.mapper.MemberMapper;
+import com.library.library_management.entity.Book;
+import com.library.library_management.entity.Member;
+import com.library.library_management.repository.BookRepository;
+import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.repository.MemberRepository;
+import com.library.library_management.search.BookSearchIndex;
+import com.library.library_management.search.MemberNameIndex;
+import com.library.library_management.service.BookService;
+import com.library.library_management.service.BorrowService;
+import com.library.library_management.service.MemberService;
+import com.library.library_management.service.impl.BookServiceImpl;
+import com.library.library_management.service.impl.BorrowServiceImpl;
+import com.library.library_management.service.impl.MemberServiceImpl;
+import com.library.library_management.service.support.OptimisticRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Book, member and borrow services backed either by {@link InMemoryRepositories} ({@code in-memory})
+ * or by the full application context on the embedded H2 database from the test properties ({@code h2}).
+ * The catalog is seeded once per trial with {@code catalogSize} books, a fixed set of members
+ * and one open borrow for every ten books.
+ */
+@State(Scope.Benchmark)
+public class ServiceFixture {
+
+    private static final int MEMBERS = 1000;
+    private static final int LOANS_PER_MEMBER = 5;
+    private static final int BORROW_LIMIT = 10;
+    private static final int COPIES_PER_BOOK = 5;
+    // Books share titles so the title analytics have something to group
+    private static final int DISTINCT_TITLES = 500;
+    private static final int SAVE_BATCH = 1000;
+
+    @Param({"in-memory", "h2"})
+    public String backend;
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    BookService bookService;
+    MemberService memberService;
+    BorrowService borrowService;
+
+    final List<Long> bookIds = new ArrayList<>();
+    final List<Long> memberIds = new ArrayList<>();
+    // Has no seeded loans, used by benchmarks that borrow and return in a loop
+    Long idleMemberId;
+
+    private BookRepository bookRepository;
+    private MemberRepository memberRepository;
+    private BorrowRepository borrowRepository;
+    private CirculationCounters circulationCounters;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("h2".equals(backend)) {
+            startApplication();
+        } else {
+            wireInMemory();
+        }
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    private void startApplication() {
+        context = new SpringApplicationBuilder(LibraryManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--borrow.limit=" + BORROW_LIMIT);
+        bookService = context.getBean(BookService.class);
+        memberService = context.getBean(MemberService.class);
+        borrowService = context.getBean(BorrowService.class);
+        bookRepository = context.getBean(BookRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        borrowRepository = context.getBean(BorrowRepository.class);
+        circulationCounters = context.getBean(CirculationCounters.class);
+    }
+
+    private void wireInMemory() {
+        InMemoryRepositories repositories = new InMemoryRepositories();
+        bookRepository = repositories.bookRepository;
+        memberRepository = repositories.memberRepository;
+        borrowRepository = repositories.borrowRepository;
+        circulationCounters = new CirculationCounters();
+        PaginationProperties paginationProperties = new PaginationProperties();
+
+        MemberLoanCounter memberLoanCounter = new MemberLoanCounter();
+        MemberNameIndex memberNameIndex = new MemberNameIndex();
+        // Disabled, appends are measured on their own by EventLogBenchmark
+        CirculationEventLog eventLog = new CirculationEventLog(false, Path.of("events"), DataSize.ofMegabytes(64), 1);
+        BookAvailability bookAvailability = new BookAvailability();
+        ReflectionTestUtils.setField(memberLoanCounter, "borrowRepository", borrowRepository);
+
+        BookServiceImpl books = new BookServiceImpl();
+        ReflectionTestUtils.setField(books, "bookRepository", bookRepository);
+        ReflectionTestUtils.setField(books, "borrowRepository", borrowRepository);
+        ReflectionTestUtils.setField(books, "bookMapper", new BookMapper());
+        ReflectionTestUtils.setField(books, "paginationProperties", paginationProperties);
+        ReflectionTestUtils.setField(books, "circulationCounters", circulationCounters);
+        ReflectionTestUtils.setField(books, "bookSearchIndex", new BookSearchIndex());
+        ReflectionTestUtils.setField(books, "circulationEventLog", eventLog);
+        ReflectionTestUtils.setField(books, "bookAvailability", bookAvailability);
+        ReflectionTestUtils.setField(books, "optimisticRetry",
+                new OptimisticRetry(TransactionOperations.withoutTransaction(), new SimpleMeterRegistry(), 3, Duration.ZERO));
+
+        MemberServiceImpl members = new MemberServiceImpl();
+        ReflectionTestUtils.setField(members, "memberRepository", memberRepository);
+        ReflectionTestUtils.setField(members, "memberMapper", new MemberMapper());
+        ReflectionTestUtils.setField(members, "memberLoanCounter", memberLoanCounter);
+        ReflectionTestUtils.setField(members, "paginationProperties", paginationProperties);
+        ReflectionTestUtils.setField(members, "memberNameIndex", memberNameIndex);
+
+        BorrowServiceImpl borrows = new BorrowServiceImpl();
+        ReflectionTestUtils.setField(borrows, "borrowLimit", BORROW_LIMIT);
+        ReflectionTestUtils.setField(borrows, "borrowRepository", borrowRepository);
+        ReflectionTestUtils.setField(borrows, "bookRepository", bookRepository);
+        ReflectionTestUtils.setField(borrows, "memberRepository", memberRepository);
+        ReflectionTestUtils.setField(borrows, "holdRepository", repositories.holdRepository);
+        ReflectionTestUtils.setField(borrows, "borrowMapper", new BorrowMapper());
+        ReflectionTestUtils.setField(borrows, "memberService", members);
+        ReflectionTestUtils.setField(borrows, "cacheManager", new NoOpCacheManager());
+        ReflectionTestUtils.setField(borrows, "paginationProperties", paginationProperties);
+        ReflectionTestUtils.setField(borrows, "circulationCounters", circulationCounters);
+        ReflectionTestUtils.setField(borrows, "memberLoanCounter", memberLoanCounter);
+        ReflectionTestUtils.setField(borrows, "memberNameIndex", memberNameIndex);
+        ReflectionTestUtils.setField(borrows, "loanDays", 14);
+        ReflectionTestUtils.setField(borrows, "overdueTracker", new OverdueTracker());
+        ReflectionTestUtils.setField(borrows, "circulationEventLog", eventLog);
+        ReflectionTestUtils.setField(borrows, "bookAvailability", bookAvailability);
+        ReflectionTestUtils.setField(books, "borrowService", borrows);
+
+        bookService = books;
+        memberService = members;
+        borrowService = borrows;
+    }
+
+    private void seed() {
+        List<Book> batch = new ArrayList<>(SAVE_BATCH);
+        for (int i = 0; i < catalogSize; i++) {
+            batch.add(new Book("Title " + (i % DISTINCT_TITLES), "Jane " + surname(i), COPIES_PER_BOOK));
+            if (batch.size() == SAVE_BATCH || i == catalogSize - 1) {
+                bookRepository.saveAll(batch).forEach(book -> bookIds.add(book.getId()));
+                batch.clear();
+            }
+        }
+        for (int i = 0; i < MEMBERS; i++) {
+            memberIds.add(memberRepository.save(new Member("Member " + i)).getId());
+        }
+        idleMemberId = memberRepository.save(new Member("Idle Member")).getId();
+
+        int loans = Math.min(catalogSize / 10, MEMBERS * LOANS_PER_MEMBER);
+        for (int i = 0; i < loans; i++) {
+            // Large prime stride spreads the loans over the catalog
+            Long bookId = bookIds.get((int) ((i * 7919L) % catalogSize));
+            borrowService.borrowBook(memberIds.get(i % MEMBERS), bookId);
+        }
+        circulationCounters.rebuild(borrowRepository.countOpenBorrowsByBook());
+    }
+
+    // Unique letters-only surname, author names must be two capitalized words
+    private static String surname(int index) {
+        StringBuilder letters = new StringBuilder();
+        do {
+            letters.append((char) ('a' + index % 26));
+            index /= 26;
+        } while (index > 0);
+        return "S" + letters;
+    }
+}
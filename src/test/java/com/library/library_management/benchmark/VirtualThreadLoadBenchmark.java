@@ -0,0 +1,63 @@
+package com.library.library_management.benchmark;
+
+import com.library.library_management.LibraryManagementApplication;
+import com.library.library_management.dto.BookResponse;
+import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Closed-loop HTTP load against the application, once with platform-thread and once with virtual-thread
+ * request handling. Half of the requests are cached book lookups, half are catalog pages read from the
+ * database, so database requests queue on the connection pool in both modes.
+ * Prints throughput and p50/p99 latency of the measured window for both modes.
+ * <p>
+ * Run with {@code ./mvnw test -Dtest=VirtualThreadLoadBenchmark -Dbenchmark=true -Dbenchmark.clients=2000}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadLoadBenchmark {
+
+    private static final int BOOKS = 200;
+
+    private final HttpLoad load = HttpLoad.fromSystemProperties();
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        HttpLoad.Result platform = run(false);
+        HttpLoad.Result virtual = run(true);
+
+        System.out.println(load.describe());
+        System.out.println(platform.describe("platform threads"));
+        System.out.println(virtual.describe("virtual threads"));
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+    }
+
+    private HttpLoad.Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryManagementApplication.class)
+                .run("--server.port=0", "--spring.threads.virtual.enabled=" + virtualThreads)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            return load.run(seed(context.getBean(BookService.class), baseUrl));
+        }
+    }
+
+    private List<URI> seed(BookService bookService, String baseUrl) {
+        List<URI> uris = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            BookResponse book = bookService.createBook(new CreateBookRequest("Load Title " + i, "Jane Austen"));
+            uris.add(URI.create(baseUrl + "/api/v1/books/" + book.id()));
+            uris.add(URI.create(baseUrl + "/api/v1/books?size=50&cursor=" + (book.id() - 1)));
+        }
+        return uris;
+    }
+}
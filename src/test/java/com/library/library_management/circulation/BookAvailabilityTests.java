@@ -0,0 +1,137 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.BookAmount;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookAvailabilityTests {
+
+    private final BookAvailability availability = new BookAvailability();
+
+    @Test
+    void amountOf_shouldFollowPutsAndAdjustments() {
+        availability.put(1L, 3);
+        availability.put(2L, 0);
+        availability.adjust(1L, -1);
+        availability.adjust(2L, 2);
+        availability.adjust(3L, 1);
+
+        assertEquals(2, availability.amountOf(1L));
+        assertEquals(2, availability.amountOf(2L));
+        assertEquals(BookAvailability.UNKNOWN, availability.amountOf(3L));
+        assertEquals(2, availability.size());
+    }
+
+    @Test
+    void remove_shouldForgetTheBookUntilItIsPutAgain() {
+        availability.put(1L, 3);
+        availability.remove(1L);
+        availability.adjust(1L, 1);
+
+        assertFalse(availability.contains(1L));
+        assertEquals(0, availability.size());
+
+        availability.put(1L, 5);
+        assertEquals(5, availability.amountOf(1L));
+        assertEquals(1, availability.size());
+    }
+
+    @Test
+    void put_shouldKeepEveryBookWhenTheTableGrows() {
+        for (long id = 1; id <= 10_000; id++) {
+            availability.put(id, (int) (id % 7));
+        }
+        for (long id = 1; id <= 10_000; id += 2) {
+            availability.remove(id);
+        }
+        for (long id = 10_001; id <= 20_000; id++) {
+            availability.put(id, 1);
+        }
+
+        assertEquals(15_000, availability.size());
+        assertEquals(BookAvailability.UNKNOWN, availability.amountOf(9_999L));
+        assertEquals(9_998 % 7, availability.amountOf(9_998L));
+        assertEquals(1, availability.amountOf(20_000L));
+    }
+
+    @Test
+    void rebuild_shouldReplaceTheModelAndKeepChangesMadeDuringTheScan() {
+        availability.put(9L, 4);
+        List<BookAmount> books = List.of(amount(1L, 3), amount(2L, 1));
+        Iterator<BookAmount> scan = books.iterator();
+
+        availability.rebuild(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return scan.hasNext();
+            }
+
+            @Override
+            public BookAmount next() {
+                BookAmount next = scan.next();
+                if (next.getId() == 2L) {
+                    // Committed after book 1 was read
+                    availability.adjust(1L, -1);
+                    availability.put(5L, 2);
+                }
+                return next;
+            }
+        });
+
+        assertTrue(availability.isReady());
+        assertEquals(2, availability.amountOf(1L));
+        assertEquals(1, availability.amountOf(2L));
+        assertEquals(2, availability.amountOf(5L));
+        assertFalse(availability.contains(9L));
+    }
+
+    @Test
+    void amountOf_shouldNeverMissAKnownBookWhileTheTableGrows() throws InterruptedException {
+        availability.put(1L, 1);
+        AtomicLong written = new AtomicLong(1);
+        AtomicBoolean missed = new AtomicBoolean();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                while (written.get() < 100_000) {
+                    long known = written.get();
+                    if (availability.amountOf(known) != 1 || availability.amountOf(1 + known / 2) != 1) {
+                        missed.set(true);
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (long id = 2; id <= 100_000; id++) {
+            availability.put(id, 1);
+            written.set(id);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertFalse(missed.get());
+    }
+
+    private static BookAmount amount(Long id, Integer amount) {
+        return new BookAmount() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getAmount() {
+                return amount;
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.BookBorrowCount;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CirculationCountersTests {
+
+    private final CirculationCounters counters = new CirculationCounters();
+
+    @Test
+    void titlesWithCount_shouldMergeBooksWithSameTitleAndRankThem() {
+        counters.rebuild(List.of(count(1L, "Title A", 1), count(2L, "Title B", 3), count(3L, "Title A", 1)));
+
+        counters.borrowed(4L, "Title C", 1);
+        counters.returned(2L, 1);
+
+        Map<String, Long> result = counters.titlesWithCount(10);
+
+        assertEquals(List.of("Title A", "Title B", "Title C"), List.copyOf(result.keySet()));
+        assertEquals(2L, result.get("Title A"));
+        assertEquals(2L, result.get("Title B"));
+        assertEquals(1L, result.get("Title C"));
+        assertEquals(List.of("Title A"), List.copyOf(counters.titlesWithCount(1).keySet()));
+    }
+
+    @Test
+    void distinctTitles_shouldSkipBooksWithoutOpenBorrows() {
+        counters.rebuild(List.of(count(1L, "Title A", 1), count(2L, "Title B", 1)));
+
+        counters.returned(1L, 1);
+
+        assertEquals(List.of("Title B"), counters.distinctTitles(10));
+    }
+
+    @Test
+    void reconcile_shouldDropBooksWithoutOpenBorrows() {
+        counters.rebuild(List.of(count(1L, "Title A", 2)));
+
+        counters.returned(1L, 1);
+        counters.returned(1L, 1);
+
+        assertEquals(0, counters.openBorrows(1L));
+        assertEquals(0, counters.totalOpen());
+        assertTrue(counters.titlesWithCount(10).isEmpty());
+
+        assertEquals(0, counters.reconcile(List.of()));
+        assertNull(counters.titleOf(1L));
+    }
+
+    @Test
+    void renamed_shouldMoveOpenBorrowsToTheNewTitle() {
+        counters.rebuild(List.of(count(1L, "Title A", 2), count(2L, "Title B", 1)));
+
+        counters.renamed(1L, "Title B");
+
+        assertEquals(Map.of("Title B", 3L), counters.titlesWithCount(10));
+        assertEquals(List.of("Title B"), counters.distinctTitles(10));
+    }
+
+    @Test
+    void reconcile_shouldRepairDriftSeenTwice() {
+        counters.rebuild(List.of(count(1L, "Title A", 2)));
+        counters.borrowed(2L, "Title B", 1);
+        List<BookBorrowCount> snapshot = List.of(count(1L, "Title A", 3), count(3L, "Title C", 1));
+
+        assertEquals(0, counters.reconcile(snapshot));
+        assertEquals(3, counters.reconcile(snapshot));
+
+        assertEquals(Map.of("Title A", 3L, "Title C", 1L), counters.titlesWithCount(10));
+        assertEquals(0, counters.reconcile(snapshot));
+    }
+
+    @Test
+    void reconcile_shouldKeepBorrowsCommittedWhileSnapshotWasTaken() {
+        counters.rebuild(List.of(count(1L, "Title A", 1)));
+        counters.borrowed(1L, "Title A", 1);
+
+        // The snapshot missed the second borrow, the next one sees it
+        assertEquals(0, counters.reconcile(List.of(count(1L, "Title A", 1))));
+        assertEquals(0, counters.reconcile(List.of(count(1L, "Title A", 2))));
+
+        assertEquals(2, counters.openBorrows(1L));
+    }
+
+    @Test
+    void titlesWithCount_shouldServeRankingUntilItIsStale() {
+        ReflectionTestUtils.setField(counters, "rankingRefresh", Duration.ofHours(1));
+        counters.rebuild(List.of(count(1L, "Title A", 1)));
+        assertEquals(Map.of("Title A", 1L), counters.titlesWithCount(10));
+
+        counters.borrowed(2L, "Title B", 2);
+        assertEquals(Map.of("Title A", 1L), counters.titlesWithCount(10));
+
+        ReflectionTestUtils.setField(counters, "rankingRefresh", Duration.ZERO);
+        assertEquals(List.of("Title B", "Title A"), List.copyOf(counters.titlesWithCount(10).keySet()));
+    }
+
+    @Test
+    void isReady_shouldBeFalseUntilRebuilt() {
+        assertFalse(counters.isReady());
+
+        counters.rebuild(List.of());
+
+        assertTrue(counters.isReady());
+    }
+
+    private static BookBorrowCount count(Long bookId, String title, long borrowCount) {
+        return new BookBorrowCount() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public Long getBorrowCount() {
+                return borrowCount;
+            }
+        };
+    }
+}
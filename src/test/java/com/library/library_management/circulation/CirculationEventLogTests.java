@@ -0,0 +1,176 @@
+package com.library.library_management.circulation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CirculationEventLogTests {
+
+    @TempDir
+    Path directory;
+
+    private CirculationEventLog eventLog;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (eventLog != null) {
+            eventLog.close();
+        }
+    }
+
+    @Test
+    void read_shouldReturnEventsInAppendOrder() throws InterruptedException {
+        eventLog = open(DataSize.ofMegabytes(1));
+        eventLog.stocked(10L, 3);
+        eventLog.borrowed(1L, 10L, 100L);
+        eventLog.returned(1L, 10L, 100L);
+        eventLog.removed(10L);
+        awaitSize(4);
+
+        List<CirculationEvent> events = eventLog.read(0, 10);
+
+        assertEquals(List.of(CirculationEvent.Type.STOCKED, CirculationEvent.Type.BORROWED,
+                        CirculationEvent.Type.RETURNED, CirculationEvent.Type.REMOVED),
+                events.stream().map(CirculationEvent::type).toList());
+        CirculationEvent borrowed = events.get(1);
+        assertEquals(1, borrowed.sequence());
+        assertEquals(1L, borrowed.borrowId());
+        assertEquals(10L, borrowed.bookId());
+        assertEquals(100L, borrowed.memberId());
+        assertEquals(3, events.get(0).quantity());
+        assertEquals(List.of(2L, 3L), eventLog.read(2, 10).stream().map(CirculationEvent::sequence).toList());
+    }
+
+    @Test
+    void replay_shouldRebuildOpenBorrowsAndStock() throws InterruptedException {
+        eventLog = open(DataSize.ofMegabytes(1));
+        eventLog.stocked(10L, 3);
+        eventLog.stocked(20L, 1);
+        eventLog.borrowed(1L, 10L, 100L);
+        eventLog.borrowed(2L, 10L, 101L);
+        eventLog.returned(1L, 10L, 100L);
+        eventLog.stocked(10L, -1);
+        eventLog.removed(20L);
+        awaitSize(7);
+
+        CirculationState state = CirculationState.replay(eventLog);
+
+        assertEquals(7, state.events());
+        assertEquals(Map.of(2L, new CirculationState.OpenBorrow(10L, 101L)), state.openBorrows());
+        assertEquals(Map.of(10L, 1L), state.stock());
+    }
+
+    @Test
+    void replay_shouldTolerateReturnsLoggedBeforeTheirBorrow() throws InterruptedException {
+        eventLog = open(DataSize.ofMegabytes(1));
+        eventLog.stocked(10L, 2);
+        eventLog.stocked(20L, 1);
+        eventLog.returned(1L, 10L, 100L);
+        eventLog.borrowed(1L, 10L, 100L);
+        eventLog.borrowed(2L, 10L, 101L);
+        eventLog.removed(20L);
+        eventLog.returned(3L, 20L, 102L);
+        eventLog.borrowed(3L, 20L, 102L);
+        awaitSize(8);
+
+        CirculationState state = CirculationState.replay(eventLog);
+
+        assertEquals(Map.of(2L, new CirculationState.OpenBorrow(10L, 101L)), state.openBorrows());
+        assertEquals(Map.of(10L, 1L), state.stock());
+    }
+
+    @Test
+    void read_shouldSeeEventsAppendedAfterAnEarlierRead() throws InterruptedException {
+        // Four records per segment, the reads below keep mappings of a segment the writer is still filling
+        eventLog = open(DataSize.ofBytes(4 * LogSegments.RECORD_SIZE));
+        for (long id = 1; id <= 10; id++) {
+            eventLog.borrowed(id, 10L, 100L);
+            awaitSize(id);
+            List<CirculationEvent> events = eventLog.read(0, 100);
+            assertEquals(id, events.size());
+            assertEquals(id, events.get(events.size() - 1).borrowId());
+        }
+    }
+
+    @Test
+    void open_shouldContinueTheLogAcrossSegmentsAfterRestart() throws Exception {
+        // Ten records per segment
+        DataSize segmentSize = DataSize.ofBytes(10 * LogSegments.RECORD_SIZE);
+        eventLog = open(segmentSize);
+        for (long id = 1; id <= 25; id++) {
+            eventLog.borrowed(id, 10L, 100L);
+        }
+        awaitSize(25);
+        eventLog.close();
+
+        eventLog = open(segmentSize);
+        assertFalse(eventLog.startedEmpty());
+        assertEquals(25, eventLog.size());
+        eventLog.returned(5L, 10L, 100L);
+        awaitSize(26);
+
+        List<CirculationEvent> events = eventLog.read(0, 100);
+        assertEquals(26, events.size());
+        assertEquals(25, events.get(25).sequence());
+        assertEquals(CirculationEvent.Type.RETURNED, events.get(25).type());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+    }
+
+    @Test
+    void open_shouldDropARecordTornByACrash() throws Exception {
+        eventLog = open(DataSize.ofMegabytes(1));
+        eventLog.borrowed(1L, 10L, 100L);
+        eventLog.borrowed(2L, 10L, 100L);
+        eventLog.borrowed(3L, 10L, 100L);
+        awaitSize(3);
+        eventLog.close();
+        corrupt(2 * LogSegments.RECORD_SIZE + 20);
+
+        eventLog = open(DataSize.ofMegabytes(1));
+        assertEquals(2, eventLog.size());
+        eventLog.borrowed(4L, 10L, 100L);
+        awaitSize(3);
+
+        assertEquals(List.of(1L, 2L, 4L), eventLog.read(0, 10).stream().map(CirculationEvent::borrowId).toList());
+    }
+
+    private CirculationEventLog open(DataSize segmentSize) {
+        CirculationEventLog opened = new CirculationEventLog(true, directory, segmentSize, 1024);
+        opened.open();
+        return opened;
+    }
+
+    // The writer syncs on its own thread, appended events become readable shortly after
+    private void awaitSize(long size) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (eventLog.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(size, eventLog.size());
+    }
+
+    private void corrupt(long offset) throws IOException {
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), offset);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.repository.MemberLoanCount;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MemberLoanCounterTests {
+
+    @Mock
+    private BorrowRepository borrowRepository;
+
+    @InjectMocks
+    private MemberLoanCounter memberLoanCounter;
+
+    @Test
+    void tryAcquire_shouldStartFromDatabaseCountAndRespectLimit() {
+        when(borrowRepository.countByMemberIdAndReturnDateIsNull(1L)).thenReturn(3);
+
+        assertTrue(memberLoanCounter.tryAcquire(1L, 2, 5));
+        assertFalse(memberLoanCounter.tryAcquire(1L, 1, 5));
+        assertEquals(5, memberLoanCounter.activeLoans(1L));
+
+        memberLoanCounter.release(1L, 1);
+
+        assertTrue(memberLoanCounter.tryAcquire(1L, 1, 5));
+        verify(borrowRepository, times(1)).countByMemberIdAndReturnDateIsNull(1L);
+    }
+
+    @Test
+    void tryAcquire_concurrentCheckouts_shouldNeverExceedLimit() throws Exception {
+        when(borrowRepository.countByMemberIdAndReturnDateIsNull(1L)).thenReturn(0);
+        memberLoanCounter.activeLoans(1L);
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                Callable<Boolean> task = () -> {
+                    start.await();
+                    return memberLoanCounter.tryAcquire(1L, 1, 5);
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+
+            int acquired = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    acquired++;
+                }
+            }
+            assertEquals(5, acquired);
+            assertEquals(5, memberLoanCounter.activeLoans(1L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void release_shouldNotGoBelowZero() {
+        when(borrowRepository.countByMemberIdAndReturnDateIsNull(1L)).thenReturn(1);
+        memberLoanCounter.activeLoans(1L);
+
+        memberLoanCounter.release(1L, 3);
+
+        assertEquals(0, memberLoanCounter.activeLoans(1L));
+    }
+
+    @Test
+    void reconcile_shouldRepairDriftSeenTwice() {
+        when(borrowRepository.countByMemberIdAndReturnDateIsNull(1L)).thenReturn(2);
+        memberLoanCounter.activeLoans(1L);
+        List<MemberLoanCount> openBorrows = List.of(count(1L, 4));
+
+        assertEquals(0, memberLoanCounter.reconcile(() -> openBorrows));
+        assertEquals(2, memberLoanCounter.activeLoans(1L));
+
+        assertEquals(1, memberLoanCounter.reconcile(() -> openBorrows));
+        assertEquals(4, memberLoanCounter.activeLoans(1L));
+    }
+
+    @Test
+    void reconcile_shouldRepairDriftThatPersistsWhileMemberBorrows() {
+        when(borrowRepository.countByMemberIdAndReturnDateIsNull(1L)).thenReturn(2);
+        memberLoanCounter.activeLoans(1L);
+
+        assertEquals(0, memberLoanCounter.reconcile(() -> List.of(count(1L, 3))));
+        memberLoanCounter.tryAcquire(1L, 1, 10);
+
+        assertEquals(1, memberLoanCounter.reconcile(() -> List.of(count(1L, 4))));
+        assertEquals(4, memberLoanCounter.activeLoans(1L));
+    }
+
+    @Test
+    void reconcile_shouldDropMembersWithoutOpenBorrows() {
+        when(borrowRepository.countByMemberIdAndReturnDateIsNull(1L)).thenReturn(0);
+        memberLoanCounter.activeLoans(1L);
+
+        assertEquals(0, memberLoanCounter.reconcile(List::of));
+        memberLoanCounter.activeLoans(1L);
+
+        verify(borrowRepository, times(2)).countByMemberIdAndReturnDateIsNull(1L);
+    }
+
+    private static MemberLoanCount count(Long memberId, long loans) {
+        return new MemberLoanCount() {
+            @Override
+            public Long getMemberId() {
+                return memberId;
+            }
+
+            @Override
+            public Long getLoanCount() {
+                return loans;
+            }
+        };
+    }
+}
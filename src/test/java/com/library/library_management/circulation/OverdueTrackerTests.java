@@ -0,0 +1,117 @@
+package com.library.library_management.circulation;
+
+import com.library.library_management.repository.OpenLoan;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverdueTrackerTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    private final OverdueTracker tracker = new OverdueTracker();
+
+    @Test
+    void advanceTo_shouldReportLoansTheDayAfterTheirDueDate() {
+        tracker.rebuild(List.<OpenLoan>of()::forEach, TODAY);
+        tracker.schedule(1L, 10L, 100L, TODAY.plusDays(3));
+        tracker.schedule(2L, 10L, 100L, TODAY.plusDays(5));
+
+        assertEquals(List.of(), tracker.advanceTo(TODAY.plusDays(3)));
+        assertEquals(List.of(new OverdueLoan(1L, 10L, 100L, TODAY.plusDays(3))), tracker.advanceTo(TODAY.plusDays(4)));
+        assertEquals(List.of(), tracker.advanceTo(TODAY.plusDays(4)));
+        assertEquals(1, tracker.overdueCount());
+        assertEquals(1, tracker.scheduledCount());
+    }
+
+    @Test
+    void advanceTo_shouldCascadeLoansDueFarAhead() {
+        tracker.rebuild(List.<OpenLoan>of()::forEach, TODAY);
+        tracker.schedule(1L, 10L, 100L, TODAY.plusDays(100));
+        tracker.schedule(2L, 10L, 100L, TODAY.plusDays(5000));
+
+        assertEquals(List.of(), tracker.advanceTo(TODAY.plusDays(100)));
+        assertEquals(List.of(1L), borrowIds(tracker.advanceTo(TODAY.plusDays(101))));
+        assertEquals(List.of(), tracker.advanceTo(TODAY.plusDays(5000)));
+        assertEquals(List.of(2L), borrowIds(tracker.advanceTo(TODAY.plusDays(6000))));
+        assertEquals(0, tracker.scheduledCount());
+    }
+
+    @Test
+    void cancel_shouldForgetScheduledAndOverdueLoans() {
+        tracker.rebuild(List.<OpenLoan>of()::forEach, TODAY);
+        tracker.schedule(1L, 10L, 100L, TODAY.plusDays(1));
+        tracker.schedule(2L, 10L, 100L, TODAY.plusDays(1));
+        tracker.schedule(3L, 10L, 100L, TODAY.plusDays(1));
+
+        tracker.cancel(2L);
+        tracker.advanceTo(TODAY.plusDays(2));
+        tracker.cancel(3L);
+
+        assertEquals(List.of(1L), borrowIds(tracker.overdue(0L, 10)));
+        assertEquals(0, tracker.scheduledCount());
+    }
+
+    @Test
+    void rebuild_shouldMarkPastDueLoansOverdueWithoutReportingThem() {
+        tracker.rebuild(List.of(loan(7L, TODAY.minusDays(2)), loan(3L, TODAY.minusDays(30)), loan(5L, TODAY))::forEach,
+                TODAY);
+
+        assertTrue(tracker.isReady());
+        assertEquals(List.of(3L, 7L), borrowIds(tracker.overdue(0L, 10)));
+        assertEquals(List.of(7L), borrowIds(tracker.overdue(3L, 10)));
+        assertEquals(List.of(3L), borrowIds(tracker.overdue(0L, 1)));
+        assertEquals(List.of(5L), borrowIds(tracker.advanceTo(TODAY.plusDays(1))));
+    }
+
+    @Test
+    void rebuild_shouldApplyReturnsThatCommittedWhileScanning() {
+        tracker.rebuild(List.<OpenLoan>of()::forEach, TODAY);
+        tracker.schedule(1L, 10L, 100L, TODAY.minusDays(1));
+        tracker.schedule(2L, 10L, 100L, TODAY.minusDays(1));
+
+        // Both loans were read before loan 1 was returned, loan 3 was borrowed during the scan
+        tracker.rebuild(scan -> {
+            tracker.cancel(1L);
+            tracker.schedule(3L, 10L, 100L, TODAY.minusDays(1));
+            scan.accept(loan(1L, TODAY.minusDays(1)));
+            scan.accept(loan(2L, TODAY.minusDays(1)));
+        }, TODAY);
+
+        assertEquals(List.of(2L, 3L), borrowIds(tracker.overdue(0L, 10)));
+
+        tracker.cancel(2L);
+        assertEquals(List.of(3L), borrowIds(tracker.overdue(0L, 10)));
+    }
+
+    private static List<Long> borrowIds(List<OverdueLoan> loans) {
+        return loans.stream().map(OverdueLoan::borrowId).toList();
+    }
+
+    private static OpenLoan loan(Long id, LocalDate dueDate) {
+        return new OpenLoan() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookId() {
+                return 10L;
+            }
+
+            @Override
+            public Long getMemberId() {
+                return 100L;
+            }
+
+            @Override
+            public LocalDate getDueDate() {
+                return dueDate;
+            }
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.library.library_management.controller.support;
+
+import com.library.library_management.exception.BookNotAvailableException;
+import com.library.library_management.exception.IdempotencyKeyReusedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyStoreTests {
+
+    private static final String CALLER = "client:kiosk-1";
+
+    private final IdempotencyStore store = new IdempotencyStore("maximumSize=100,expireAfterWrite=1h");
+
+    @Test
+    void execute_shouldReplayOriginalResponseForRetry() {
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<String> first = store.execute("key-1", CALLER, "borrow", "1:5", () -> ok("borrow " + runs.incrementAndGet()));
+        ResponseEntity<String> retry = store.execute("key-1", CALLER, "borrow", "1:5", () -> ok("borrow " + runs.incrementAndGet()));
+
+        assertEquals(1, runs.get());
+        assertEquals("borrow 1", retry.getBody());
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_shouldRunEveryRequestWithoutKey() {
+        AtomicInteger runs = new AtomicInteger();
+
+        store.execute(null, CALLER, "borrow", "1:5", () -> ok("borrow " + runs.incrementAndGet()));
+        store.execute(null, CALLER, "borrow", "1:5", () -> ok("borrow " + runs.incrementAndGet()));
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void execute_shouldRejectKeyReusedForDifferentRequest() {
+        store.execute("key-1", CALLER, "borrow", "1:5", () -> ok("borrowed"));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute("key-1", CALLER, "borrow", "1:6", () -> ok("borrowed")));
+        assertEquals("returned", store.execute("key-1", CALLER, "return", "7", () -> ok("returned")).getBody());
+    }
+
+    @Test
+    void execute_shouldRunAgainAfterFailure() {
+        assertThrows(BookNotAvailableException.class, () -> store.execute("key-1", CALLER, "borrow", "1:5", () -> {
+            throw new BookNotAvailableException("Book is not available for borrowing");
+        }));
+
+        assertEquals("borrowed", store.execute("key-1", CALLER, "borrow", "1:5", () -> ok("borrowed")).getBody());
+    }
+
+    @Test
+    void execute_shouldKeepKeysOfDifferentCallersApart() {
+        store.execute("key-1", CALLER, "borrow", "1:5", () -> ok("member 1"));
+
+        ResponseEntity<String> other = store.execute("key-1", "client:kiosk-2", "borrow", "2:5", () -> ok("member 2"));
+
+        assertEquals("member 2", other.getBody());
+        assertNull(other.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_shouldReleaseDuplicatesWhenActionFailsWithError() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(() -> store.execute("key-1", CALLER, "borrow", "1:5", () -> {
+                started.countDown();
+                await(release);
+                throw new StackOverflowError();
+            }));
+            started.await();
+            Future<ResponseEntity<String>> duplicate = executor.submit(
+                    () -> store.execute("key-1", CALLER, "borrow", "1:5", () -> ok("borrowed")));
+            release.countDown();
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, failure.getCause());
+            // The duplicate either saw the failure or ran on its own after the entry was removed
+            try {
+                assertEquals("borrowed", duplicate.get(5, TimeUnit.SECONDS).getBody());
+            } catch (ExecutionException e) {
+                assertInstanceOf(StackOverflowError.class, e.getCause());
+            }
+            assertEquals("borrowed", store.execute("key-1", CALLER, "borrow", "1:5", () -> ok("borrowed")).getBody());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_shouldRunConcurrentDuplicatesOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(() -> store.execute("key-1", CALLER, "borrow", "1:5", () -> {
+                started.countDown();
+                await(release);
+                return ok("borrow " + runs.incrementAndGet());
+            }));
+            started.await();
+            Future<ResponseEntity<String>> duplicate = executor.submit(
+                    () -> store.execute("key-1", CALLER, "borrow", "1:5", () -> ok("borrow " + runs.incrementAndGet())));
+            release.countDown();
+
+            assertEquals("borrow 1", first.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals("borrow 1", duplicate.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ResponseEntity<String> ok(String body) {
+        return ResponseEntity.ok(body);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.library.library_management.controller.support;
+
+import com.library.library_management.exception.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitInterceptorTests {
+
+    // One request per client and budget, no refill within a test
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(
+            new TokenBucketLimiter(1, 1, 100, () -> TimeUnit.HOURS.toNanos(1)),
+            new TokenBucketLimiter(1, 1, 100, () -> TimeUnit.HOURS.toNanos(1)));
+
+    @Test
+    void preHandle_shouldCountWritesPerMember_whenEndpointTakesMember() throws Exception {
+        HandlerMethod borrow = new HandlerMethod(new Endpoints(), "borrow", Long.class, Long.class);
+
+        assertTrue(interceptor.preHandle(request("POST", "1"), new MockHttpServletResponse(), borrow));
+        assertTrue(interceptor.preHandle(request("POST", "2"), new MockHttpServletResponse(), borrow));
+        assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request("POST", "1"), new MockHttpServletResponse(), borrow));
+    }
+
+    @Test
+    void preHandle_shouldIgnoreMemberOnReads() throws Exception {
+        HandlerMethod holds = new HandlerMethod(new Endpoints(), "holds", Long.class);
+
+        assertTrue(interceptor.preHandle(request("GET", "1"), new MockHttpServletResponse(), holds));
+        assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request("GET", "2"), new MockHttpServletResponse(), holds));
+    }
+
+    @Test
+    void preHandle_shouldIgnoreMember_whenEndpointDoesNotTakeIt() throws Exception {
+        HandlerMethod create = new HandlerMethod(new Endpoints(), "create", String.class);
+
+        assertTrue(interceptor.preHandle(request("POST", "1"), new MockHttpServletResponse(), create));
+        assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request("POST", "2"), new MockHttpServletResponse(), create));
+    }
+
+    private static MockHttpServletRequest request(String method, String memberId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/test");
+        request.addParameter("memberId", memberId);
+        request.addHeader(RateLimitInterceptor.CLIENT_HEADER, "kiosk-1");
+        return request;
+    }
+
+    static class Endpoints {
+
+        public void borrow(@RequestParam Long memberId, @RequestParam Long bookId) {
+        }
+
+        public void holds(@RequestParam("memberId") Long member) {
+        }
+
+        public void create(@RequestParam String title) {
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.library.library_management.controller.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketLimiterTests {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    // Two tokens per second, bursts of up to three requests
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(2, 3, 100, now::get);
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenReject() {
+        assertEquals(0, limiter.tryAcquire("member:1"));
+        assertEquals(0, limiter.tryAcquire("member:1"));
+        assertEquals(0, limiter.tryAcquire("member:1"));
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.tryAcquire("member:1"));
+        assertEquals(0, limiter.tryAcquire("member:2"));
+    }
+
+    @Test
+    void tryAcquire_shouldRefillAtTheConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("member:1");
+        }
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(300), limiter.tryAcquire("member:1"));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+        assertEquals(0, limiter.tryAcquire("member:1"));
+        assertTrue(limiter.tryAcquire("member:1") > 0);
+    }
+
+    @Test
+    void tryAcquire_shouldNotSaveUpMoreThanTheBurst() {
+        now.addAndGet(TimeUnit.MINUTES.toNanos(10));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("member:1"));
+        }
+        assertTrue(limiter.tryAcquire("member:1") > 0);
+    }
+}
@@ -0,0 +1,187 @@
+package com.library.library_management.reactive;
+
+import com.library.library_management.circulation.BookAvailability;
+import com.library.library_management.circulation.CirculationCounters;
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.circulation.OverdueTracker;
+import com.library.library_management.dto.mapper.BorrowMapper;
+import com.library.library_management.exception.BookNotAvailableException;
+import com.library.library_management.exception.BookNotFoundException;
+import com.library.library_management.exception.BorrowAlreadyReturnedException;
+import com.library.library_management.exception.BorrowLimitExceededException;
+import com.library.library_management.exception.MemberNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ReactiveBorrowServiceTests {
+
+    @Mock
+    private ReactiveBookRepository bookRepository;
+
+    @Mock
+    private ReactiveMemberRepository memberRepository;
+
+    @Mock
+    private ReactiveBorrowRepository borrowRepository;
+
+    @Mock
+    private ReactiveHoldRepository holdRepository;
+
+    @Mock
+    private CirculationCounters circulationCounters;
+
+    @Mock
+    private OverdueTracker overdueTracker;
+
+    @Mock
+    private CirculationEventLog circulationEventLog;
+
+    @Mock
+    private BookAvailability bookAvailability;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Spy
+    private BorrowMapper borrowMapper = new BorrowMapper();
+
+    @InjectMocks
+    private ReactiveBorrowService borrowService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(borrowService, "borrowLimit", 2);
+        when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(holdRepository.findQueue(anyLong(), anyInt())).thenReturn(Flux.empty());
+        when(bookRepository.lockById(anyLong())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    }
+
+    @Test
+    void borrowBook_shouldReserveCopyAndCreateBorrow() {
+        when(memberRepository.lockById(1L)).thenReturn(Mono.just(1L));
+        when(borrowRepository.countOpenByMemberId(1L)).thenReturn(Mono.just(1L));
+        when(bookRepository.decrementAmountIfAvailable(10L)).thenReturn(Mono.just("Title"));
+        when(borrowRepository.insert(any(), any(), any(), any()))
+                .thenReturn(Mono.just(new BorrowRow(5L, 10L, 1L, LocalDate.now(), LocalDate.now().plusDays(14), null)));
+
+        StepVerifier.create(borrowService.borrowBook(1L, 10L))
+                .expectNextMatches(borrow -> borrow.id() == 5L && borrow.bookId() == 10L)
+                .verifyComplete();
+        verify(circulationCounters).borrowed(10L, "Title", 1);
+    }
+
+    @Test
+    void borrowBook_shouldFail_whenMemberNotFound() {
+        when(memberRepository.lockById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(borrowService.borrowBook(1L, 10L))
+                .verifyError(MemberNotFoundException.class);
+        verify(bookRepository, never()).decrementAmountIfAvailable(anyLong());
+    }
+
+    @Test
+    void borrowBook_shouldFail_whenLimitReached() {
+        when(memberRepository.lockById(1L)).thenReturn(Mono.just(1L));
+        when(borrowRepository.countOpenByMemberId(1L)).thenReturn(Mono.just(2L));
+
+        StepVerifier.create(borrowService.borrowBook(1L, 10L))
+                .verifyError(BorrowLimitExceededException.class);
+        verify(bookRepository, never()).decrementAmountIfAvailable(anyLong());
+    }
+
+    @Test
+    void borrowBook_shouldTellMissingBookFromOutOfStock() {
+        when(memberRepository.lockById(1L)).thenReturn(Mono.just(1L));
+        when(borrowRepository.countOpenByMemberId(1L)).thenReturn(Mono.just(0L));
+        when(bookRepository.decrementAmountIfAvailable(anyLong())).thenReturn(Mono.empty());
+        when(bookRepository.existsById(10L)).thenReturn(Mono.just(true));
+        when(bookRepository.existsById(20L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(borrowService.borrowBook(1L, 10L)).verifyError(BookNotAvailableException.class);
+        StepVerifier.create(borrowService.borrowBook(1L, 20L)).verifyError(BookNotFoundException.class);
+        verify(borrowRepository, never()).insert(any(), any(), any(), any());
+    }
+
+    @Test
+    void borrowBook_shouldFail_whenOtherMemberIsFirstInHoldQueue() {
+        when(memberRepository.lockById(1L)).thenReturn(Mono.just(1L));
+        when(borrowRepository.countOpenByMemberId(1L)).thenReturn(Mono.just(0L));
+        when(holdRepository.findQueue(10L, 1)).thenReturn(Flux.just(new HoldRow(7L, 10L, 2L, LocalDateTime.now())));
+
+        StepVerifier.create(borrowService.borrowBook(1L, 10L)).verifyError(BookNotAvailableException.class);
+        verify(bookRepository, never()).decrementAmountIfAvailable(anyLong());
+    }
+
+    @Test
+    void returnBook_shouldFail_whenAlreadyReturned() {
+        when(borrowRepository.findById(5L))
+                .thenReturn(Mono.just(new BorrowRow(5L, 10L, 1L, LocalDate.now(), LocalDate.now().plusDays(14),
+                        LocalDate.now())));
+
+        StepVerifier.create(borrowService.returnBook(5L)).verifyError(BorrowAlreadyReturnedException.class);
+        verify(bookRepository, never()).incrementAmount(anyLong());
+    }
+
+    @Test
+    void returnBook_shouldRestockBook() {
+        when(borrowRepository.findById(5L))
+                .thenReturn(Mono.just(new BorrowRow(5L, 10L, 1L, LocalDate.now(), LocalDate.now().plusDays(14), null)));
+        when(borrowRepository.markReturned(any(), any())).thenReturn(Mono.just(1));
+        when(bookRepository.incrementAmount(10L)).thenReturn(Mono.just(1));
+
+        StepVerifier.create(borrowService.returnBook(5L)).verifyComplete();
+        verify(circulationCounters).returned(10L, 1);
+        verify(overdueTracker).cancel(5L);
+    }
+
+    @Test
+    void returnBook_shouldHandCopyToFirstHolderUnderLimit() {
+        LocalDate today = LocalDate.now();
+        when(borrowRepository.findById(5L))
+                .thenReturn(Mono.just(new BorrowRow(5L, 10L, 1L, today, today.plusDays(14), null)));
+        when(borrowRepository.markReturned(any(), any())).thenReturn(Mono.just(1));
+        when(holdRepository.findQueue(10L, 10)).thenReturn(Flux.just(
+                new HoldRow(7L, 10L, 2L, LocalDateTime.now()), new HoldRow(8L, 10L, 3L, LocalDateTime.now())));
+        when(memberRepository.lockById(anyLong())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(borrowRepository.countOpenByMemberId(2L)).thenReturn(Mono.just(2L));
+        when(borrowRepository.countOpenByMemberId(3L)).thenReturn(Mono.just(0L));
+        when(holdRepository.claim(8L)).thenReturn(Mono.just(1));
+        when(borrowRepository.insert(eq(10L), eq(3L), any(), any()))
+                .thenReturn(Mono.just(new BorrowRow(6L, 10L, 3L, today, today.plusDays(14), null)));
+
+        StepVerifier.create(borrowService.returnBook(5L)).verifyComplete();
+        verify(holdRepository, never()).claim(7L);
+        verify(bookRepository, never()).incrementAmount(anyLong());
+        verify(circulationCounters, never()).returned(anyLong(), anyLong());
+        verify(overdueTracker).cancel(5L);
+        verify(overdueTracker).schedule(6L, 10L, 3L, today.plusDays(14));
+        verify(circulationEventLog).borrowed(6L, 10L, 3L);
+    }
+}
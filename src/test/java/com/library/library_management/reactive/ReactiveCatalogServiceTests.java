@@ -0,0 +1,71 @@
+package com.library.library_management.reactive;
+
+import com.library.library_management.circulation.BookAvailability;
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.dto.mapper.BookMapper;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveCatalogServiceTests {
+
+    @Mock
+    private ReactiveBookRepository bookRepository;
+
+    @Mock
+    private CirculationEventLog circulationEventLog;
+
+    @Mock
+    private BookAvailability bookAvailability;
+
+    @Spy
+    private BookMapper bookMapper = new BookMapper();
+
+    @InjectMocks
+    private ReactiveCatalogService catalogService;
+
+    @Test
+    void createBook_shouldAddCopy_whenConcurrentCreateInsertedTitleFirst() {
+        AtomicInteger lookups = new AtomicInteger();
+        when(bookRepository.addCopy("Title", "Author")).thenReturn(Mono.defer(() -> lookups.incrementAndGet() == 1
+                ? Mono.empty()
+                : Mono.just(new BookRow(3L, "Title", "Author", 2, 1L))));
+        when(bookRepository.insert("Title", "Author")).thenReturn(Mono.error(duplicate("book_title_author_key")));
+
+        StepVerifier.create(catalogService.createBook(new CreateBookRequest("Title", "Author")))
+                .expectNextMatches(book -> book.id() == 3L && book.amount() == 2)
+                .verifyComplete();
+        verify(bookAvailability).put(3L, 2);
+        verify(circulationEventLog).stocked(3L, 1);
+    }
+
+    @Test
+    void createBook_shouldNotRetry_whenOtherConstraintFails() {
+        when(bookRepository.addCopy("Title", "Author")).thenReturn(Mono.empty());
+        when(bookRepository.insert("Title", "Author")).thenReturn(Mono.error(duplicate("book_pkey")));
+
+        StepVerifier.create(catalogService.createBook(new CreateBookRequest("Title", "Author")))
+                .verifyError(DataIntegrityViolationException.class);
+        verify(circulationEventLog, never()).stocked(3L, 1);
+    }
+
+    private static DataIntegrityViolationException duplicate(String constraint) {
+        return new DataIntegrityViolationException("duplicate", new R2dbcDataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"" + constraint + "\"", "23505"));
+    }
+}
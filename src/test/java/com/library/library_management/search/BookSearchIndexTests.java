@@ -0,0 +1,77 @@
+package com.library.library_management.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookSearchIndexTests {
+
+    private final BookSearchIndex index = new BookSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.put(1L, "Pride and Prejudice", "Jane Austen");
+        index.put(2L, "Emma", "Jane Austen");
+        index.put(3L, "Austen Biography", "Claire Tomalin");
+        index.put(4L, "Les Misérables", "Victor Hugo");
+    }
+
+    @Test
+    void search_shouldRequireEveryTokenAndRankTitleMatchesFirst() {
+        assertEquals(List.of(3L, 1L, 2L), index.search("austen", 0, 10));
+        assertEquals(List.of(1L), index.search("pride austen", 0, 10));
+        assertEquals(List.of(), index.search("pride hugo", 0, 10));
+    }
+
+    @Test
+    void search_shouldMatchPrefixesAccentsAndTypos() {
+        assertEquals(List.of(1L), index.search("prej", 0, 10));
+        assertEquals(List.of(4L), index.search("MISERABLES", 0, 10));
+        assertEquals(List.of(1L), index.search("prjeudice", 0, 10));
+        assertEquals(List.of(4L), index.search("vicor", 0, 10));
+        assertEquals(List.of(), index.search("e", 0, 10));
+    }
+
+    @Test
+    void search_shouldPageThroughRankedResults() {
+        assertEquals(List.of(3L, 1L), index.search("austen", 0, 2));
+        assertEquals(List.of(2L), index.search("austen", 2, 2));
+        assertEquals(List.of(), index.search("austen", 3, 2));
+    }
+
+    @Test
+    void put_shouldReindexChangedBookAndRemoveShouldDropIt() {
+        index.put(2L, "Persuasion", "Jane Austen");
+        index.remove(3L);
+
+        assertEquals(List.of(), index.search("emma", 0, 10));
+        assertEquals(List.of(2L), index.search("persuasion", 0, 10));
+        assertEquals(List.of(1L, 2L), index.search("austen", 0, 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void rebuild_shouldReplaceIndexWithCatalogScan() {
+        assertFalse(index.isReady());
+
+        index.rebuild(consumer -> consumer.accept(7L, "Dracula", "Bram Stoker"));
+
+        assertTrue(index.isReady());
+        assertEquals(1, index.size());
+        assertEquals(List.of(7L), index.search("dracul", 0, 10));
+        assertEquals(List.of(), index.search("austen", 0, 10));
+    }
+
+    @Test
+    void withinOneEdit_shouldAcceptSingleEditsOnly() {
+        assertTrue(BookSearchIndex.withinOneEdit("austen", "austin"));
+        assertTrue(BookSearchIndex.withinOneEdit("austen", "ausetn"));
+        assertTrue(BookSearchIndex.withinOneEdit("austen", "austn"));
+        assertTrue(BookSearchIndex.withinOneEdit("austen", "austeen"));
+        assertFalse(BookSearchIndex.withinOneEdit("austen", "astin"));
+        assertFalse(BookSearchIndex.withinOneEdit("austen", "uatsen"));
+    }
+}
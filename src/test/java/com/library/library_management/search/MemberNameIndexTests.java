@@ -0,0 +1,85 @@
+package com.library.library_management.search;
+
+import com.library.library_management.dto.MemberSuggestion;
+import com.library.library_management.repository.MemberName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemberNameIndexTests {
+
+    private final MemberNameIndex index = new MemberNameIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.put(1L, "Anna Smith");
+        index.put(2L, "Annabel Lee");
+        index.put(3L, "Ann Smithers");
+        index.put(4L, "John Anders");
+        index.put(5L, "anna smith");
+    }
+
+    @Test
+    void autocomplete_shouldListMatchesInAlphabeticalOrderOfName() {
+        List<Long> ids = index.autocomplete("ann", 10).stream().map(MemberSuggestion::id).toList();
+
+        assertEquals(List.of(3L, 1L, 5L, 2L), ids);
+        assertEquals(List.of(3L, 1L), index.autocomplete("Ann", 2).stream().map(MemberSuggestion::id).toList());
+        assertEquals("Anna Smith", index.autocomplete("anna s", 1).get(0).name());
+    }
+
+    @Test
+    void autocomplete_shouldMatchLaterWordsIgnoringCase() {
+        assertEquals(List.of(1L, 5L, 3L), index.autocomplete("SMITH", 10).stream().map(MemberSuggestion::id).toList());
+        assertEquals(List.of(4L), index.autocomplete("john a", 1).stream().map(MemberSuggestion::id).toList());
+        assertEquals(List.of(), index.autocomplete("smithy", 10));
+        assertEquals(List.of(), index.autocomplete("  ", 10));
+    }
+
+    @Test
+    void findByName_shouldReturnEveryMemberWithTheNameOnly() {
+        assertEquals(List.of(1L, 5L), index.findByName("ANNA  SMITH"));
+        assertEquals(List.of(), index.findByName("anna"));
+        assertEquals(List.of(), index.findByName("smith"));
+    }
+
+    @Test
+    void put_shouldRenameAndRemoveShouldPruneTheTrie() {
+        index.put(1L, "Anne Smith");
+        index.remove(3L);
+        index.remove(2L);
+
+        assertEquals(List.of(5L), index.findByName("anna smith"));
+        assertEquals(List.of(5L, 1L), index.autocomplete("ann", 10).stream().map(MemberSuggestion::id).toList());
+        assertEquals(List.of(1L, 5L), index.autocomplete("smith", 10).stream().map(MemberSuggestion::id).toList());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void rebuild_shouldReplaceIndexWithMemberScan() {
+        assertFalse(index.isReady());
+
+        index.rebuild(List.of(name(9L, "Zoe Quinn")).iterator());
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(9L), index.findByName("zoe quinn"));
+        assertEquals(List.of(), index.findByName("anna smith"));
+    }
+
+    private static MemberName name(Long id, String name) {
+        return new MemberName() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.library.library_management.service;
+
+import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.entity.Book;
+import com.library.library_management.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class BookServiceConcurrencyTests {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @AfterEach
+    void cleanup() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void createBook_shouldNeverLoseACopyAddedConcurrently() throws Exception {
+        Book book = bookRepository.save(new Book("Popular Title", "Jane Austen", 1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger conflicted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookService.createBook(new CreateBookRequest("Popular Title", "Jane Austen"));
+                        added.incrementAndGet();
+                    } catch (OptimisticLockingFailureException e) {
+                        // Lost every retry, reported to the client as 409
+                        conflicted.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Book stored = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(THREADS, added.get() + conflicted.get());
+        assertTrue(added.get() > 0);
+        assertEquals(1 + added.get(), stored.getAmount());
+        assertEquals(added.get(), stored.getVersion().intValue());
+    }
+}
@@ -1,26 +1,71 @@
 package com.library.library_management.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.library_management.dto.BookAvailabilityResponse;
+import com.library.library_management.dto.BookImportFormat;
+import com.library.library_management.dto.BookImportResponse;
 import com.library.library_management.dto.BookResponse;
+import com.library.library_management.circulation.BookAvailability;
+import com.library.library_management.circulation.CirculationCounters;
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.config.CacheConfig;
+import com.library.library_management.config.PaginationProperties;
 import com.library.library_management.dto.CreateBookRequest;
+import com.library.library_management.dto.PageResponse;
 import com.library.library_management.dto.UpdateBookRequest;
+import com.library.library_management.dto.mapper.BookMapper;
 import com.library.library_management.entity.Book;
+import com.library.library_management.exception.BookImportException;
 import com.library.library_management.exception.BookNotAvailableException;
 import com.library.library_management.exception.BookNotFoundException;
+import com.library.library_management.exception.BookVersionMismatchException;
+import com.library.library_management.repository.BookAmount;
 import com.library.library_management.repository.BookRepository;
+import com.library.library_management.repository.BookRepositoryCustom;
 import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.search.BookSearchIndex;
 import com.library.library_management.service.impl.BookServiceImpl;
+import com.library.library_management.service.support.OptimisticRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +81,45 @@ public class BookServiceTests {
     @Mock
     private BorrowRepository borrowRepository;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CirculationCounters circulationCounters;
+
+    @Mock
+    private CirculationEventLog circulationEventLog;
+
+    @Mock
+    private BookAvailability bookAvailability;
+
+    @Mock
+    private BorrowService borrowService;
+
+    @Spy
+    private BookMapper bookMapper = new BookMapper();
+
+    @Spy
+    private BookSearchIndex bookSearchIndex = new BookSearchIndex();
+
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.BOOKS);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OptimisticRetry optimisticRetry =
+            new OptimisticRetry(TransactionOperations.withoutTransaction(), meterRegistry, 3, Duration.ZERO);
+
     @Test
     void createBook_shouldIncreaseAmountIfBookExists() {
         // given
@@ -61,6 +145,79 @@ public class BookServiceTests {
         verify(bookRepository).save(existingBook);
     }
 
+    @Test
+    void createBook_shouldHandNewCopyToHolder() {
+        Book existingBook = new Book("Clean Code", "Robert Martin", 0);
+        existingBook.setId(1L);
+
+        when(bookRepository.findByTitleAndAuthor("Clean Code", "Robert Martin")).thenReturn(Optional.of(existingBook));
+        doAnswer(invocation -> {
+            existingBook.setAmount(existingBook.getAmount() - 1);
+            return null;
+        }).when(borrowService).checkOutToHolders(existingBook, 1);
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookResponse response = bookService.createBook(new CreateBookRequest("Clean Code", "Robert Martin"));
+
+        assertEquals(0, response.amount());
+        verify(bookAvailability).adjust(1L, 0);
+        verify(circulationEventLog).stocked(1L, 1);
+    }
+
+    @Test
+    void createBook_shouldReadBookAgainAfterConcurrentCopyWasAdded() {
+        CreateBookRequest request = new CreateBookRequest("Clean Code", "Robert Martin");
+        Book stale = new Book("Clean Code", "Robert Martin", 2);
+        stale.setId(1L);
+        Book current = new Book("Clean Code", "Robert Martin", 3);
+        current.setId(1L);
+
+        when(bookRepository.findByTitleAndAuthor("Clean Code", "Robert Martin"))
+                .thenReturn(Optional.of(stale)).thenReturn(Optional.of(current));
+        when(bookRepository.save(any(Book.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookResponse response = bookService.createBook(request);
+
+        assertEquals(4, response.amount());
+        assertEquals(1, meterRegistry.counter("library.optimistic.retries", "operation", "book.create").count());
+    }
+
+    @Test
+    void createBook_shouldAddCopyAfterConcurrentCreateOfSameTitle() {
+        CreateBookRequest request = new CreateBookRequest("Clean Code", "Robert Martin");
+        Book created = new Book("Clean Code", "Robert Martin", 1);
+        created.setId(1L);
+
+        when(bookRepository.findByTitleAndAuthor("Clean Code", "Robert Martin"))
+                .thenReturn(Optional.empty()).thenReturn(Optional.of(created));
+        when(bookRepository.save(any(Book.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate",
+                        new ConstraintViolationException("duplicate", null, "book_title_author_key")))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookResponse response = bookService.createBook(request);
+
+        assertEquals(1L, response.id());
+        assertEquals(2, response.amount());
+        assertEquals(1, meterRegistry.counter("library.optimistic.retries", "operation", "book.create").count());
+    }
+
+    @Test
+    void createBook_shouldGiveUpAfterMaxAttempts() {
+        CreateBookRequest request = new CreateBookRequest("Clean Code", "Robert Martin");
+        Book book = new Book("Clean Code", "Robert Martin", 2);
+        book.setId(1L);
+
+        when(bookRepository.findByTitleAndAuthor("Clean Code", "Robert Martin")).thenReturn(Optional.of(book));
+        when(bookRepository.save(any(Book.class))).thenThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> bookService.createBook(request));
+        assertEquals(3, meterRegistry.counter("library.optimistic.conflicts", "operation", "book.create").count());
+        verify(bookRepository, times(3)).save(book);
+    }
+
     @Test
     void createBook_shouldCreateNewIfNotExists() {
         CreateBookRequest request = new CreateBookRequest("Domain Driven Design", "Eric Evans");
@@ -125,26 +282,62 @@ public class BookServiceTests {
     }
 
     @Test
-    void getAllBooks_shouldReturnList() {
-        Book book1 = new Book();
+    void getBooks_shouldReturnFirstPageWithCursor() {
+        Book book1 = new Book("Book One", "Author A", 2);
         book1.setId(1L);
-        book1.setTitle("Book One");
-        book1.setAuthor("Author A");
-        book1.setAmount(2);
-
-        Book book2 = new Book();
+        Book book2 = new Book("Book Two", "Author B", 3);
         book2.setId(2L);
-        book2.setTitle("Book Two");
-        book2.setAuthor("Author B");
-        book2.setAmount(3);
+        Book book3 = new Book("Book Three", "Author C", 1);
+        book3.setId(3L);
+
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(List.of(book1, book2, book3));
+
+        PageResponse<BookResponse> page = bookService.getBooks(null, 2);
+
+        assertEquals(2, page.content().size());
+        assertEquals("Book One", page.content().get(0).title());
+        assertEquals("Book Two", page.content().get(1).title());
+        assertEquals(2L, page.nextCursor());
+    }
+
+    @Test
+    void getBooks_shouldReturnLastPageWithoutCursor() {
+        Book book = new Book("Book Three", "Author C", 1);
+        book.setId(3L);
+
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3))).thenReturn(List.of(book));
+
+        PageResponse<BookResponse> page = bookService.getBooks(2L, 2);
+
+        assertEquals(1, page.content().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getBooks_shouldCapPageSize() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(501))).thenReturn(List.of());
 
-        when(bookRepository.findAll()).thenReturn(List.of(book1, book2));
+        bookService.getBooks(null, 1_000_000);
 
-        List<BookResponse> books = bookService.getAllBooks();
+        verify(bookRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(501));
+    }
 
-        assertEquals(2, books.size());
-        assertEquals("Book One", books.get(0).title());
-        assertEquals("Book Two", books.get(1).title());
+    @Test
+    void searchBooks_shouldReturnRankedPageWithOffsetCursor() {
+        bookSearchIndex.put(1L, "Clean Code", "Robert Martin");
+        bookSearchIndex.put(2L, "Clean Architecture", "Robert Martin");
+        bookSearchIndex.put(3L, "Code Complete", "Steve Mcconnell");
+        Book cleanCode = new Book("Clean Code", "Robert Martin", 2);
+        cleanCode.setId(1L);
+        Book codeComplete = new Book("Code Complete", "Steve Mcconnell", 1);
+        codeComplete.setId(3L);
+        when(bookRepository.findAllById(List.of(1L, 3L))).thenReturn(List.of(codeComplete, cleanCode));
+
+        PageResponse<BookResponse> page = bookService.searchBooks("code", null, 2);
+
+        assertEquals(List.of(1L, 3L), page.content().stream().map(BookResponse::id).toList());
+        assertNull(page.nextCursor());
+        assertEquals(List.of(), bookService.searchBooks("clean", 2L, 2).content());
     }
 
     @Test
@@ -160,11 +353,13 @@ public class BookServiceTests {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
         when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        BookResponse updated = bookService.updateBookById(1L, request);
+        BookResponse updated = bookService.updateBookById(1L, request, null);
 
         assertEquals("Updated Title", updated.title());
         assertEquals("Updated Author", updated.author());
         assertEquals(10, updated.amount());
+        verify(borrowService).checkOutToHolders(book, 8);
+        verify(circulationEventLog).stocked(1L, 8);
     }
 
     @Test
@@ -172,7 +367,19 @@ public class BookServiceTests {
         UpdateBookRequest request = new UpdateBookRequest("Title", "Author", 1);
         when(bookRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(BookNotFoundException.class, () -> bookService.updateBookById(1L, request));
+        assertThrows(BookNotFoundException.class, () -> bookService.updateBookById(1L, request, null));
+    }
+
+    @Test
+    void updateBookById_shouldRejectStaleIfMatchVersion() {
+        UpdateBookRequest request = new UpdateBookRequest("Title", "Author Name", 1);
+        Book book = new Book("Title", "Author Name", 2);
+        book.setId(1L);
+        book.setVersion(5L);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+
+        assertThrows(BookVersionMismatchException.class, () -> bookService.updateBookById(1L, request, 4L));
+        verify(bookRepository, never()).save(any());
     }
 
     @Test
@@ -230,4 +437,155 @@ public class BookServiceTests {
 
         assertThrows(BookNotFoundException.class, () -> bookService.getAmountById(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAmountById_shouldUseReadModelWhenLoaded() {
+        when(bookAvailability.isReady()).thenReturn(true);
+        when(bookAvailability.amountOf(1L)).thenReturn(2);
+
+        assertEquals(2, bookService.getAmountById(1L));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getAvailability_shouldLookUpOnlyBooksMissingFromReadModel() {
+        when(bookAvailability.isReady()).thenReturn(true);
+        when(bookAvailability.amountOf(1L)).thenReturn(3);
+        when(bookAvailability.amountOf(2L)).thenReturn(BookAvailability.UNKNOWN);
+        when(bookAvailability.amountOf(3L)).thenReturn(BookAvailability.UNKNOWN);
+        when(bookRepository.findAmountsByIdIn(List.of(2L, 3L))).thenReturn(List.of(new BookAmountRow(2L, 0)));
+        when(borrowService.findCurrentlyBorrowedBookIds(Set.of(2L, 1L))).thenReturn(Set.of(2L));
+
+        List<BookAvailabilityResponse> availability = bookService.getAvailability(List.of(2L, 1L, 3L, 1L));
+
+        assertEquals(List.of(new BookAvailabilityResponse(2L, 0, true), new BookAvailabilityResponse(1L, 3, false)),
+                availability);
+    }
+
+    @Test
+    void findExistingIds_shouldQueryOnlyBooksMissingFromReadModel() {
+        when(bookAvailability.isReady()).thenReturn(true);
+        when(bookAvailability.amountOf(1L)).thenReturn(3);
+        when(bookAvailability.amountOf(2L)).thenReturn(BookAvailability.UNKNOWN);
+        when(bookRepository.findAmountsByIdIn(List.of(2L))).thenReturn(List.of());
+
+        assertEquals(Set.of(1L), bookService.findExistingIds(List.of(1L, 2L)));
+    }
+
+    @Test
+    void importBooks_shouldMergeDuplicatesAndReportInvalidRows() {
+        ReflectionTestUtils.setField(bookService, "importBatchSize", 100);
+        runTransactionsInline();
+        doAnswer(invocation -> {
+            invocation.<BookRepositoryCustom.TitleAuthorConsumer>getArgument(0).accept(1L, "Clean Code", "Robert Martin");
+            return null;
+        }).when(bookRepository).scanTitleAuthor(any());
+        when(bookRepository.allocateIds(1)).thenReturn(List.of(100L));
+
+        String csv = """
+                title,author,amount
+                Clean Code,Robert Martin,2
+                Domain Driven Design,Eric Evans,1
+                "Domain Driven Design",Eric Evans,
+                bad title,Eric Evans,1
+                """;
+
+        BookImportResponse result = bookService.importBooks(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BookImportFormat.CSV);
+
+        assertEquals(4, result.processed());
+        assertEquals(1, result.created());
+        assertEquals(2, result.updated());
+        assertEquals(1, result.failed());
+        assertEquals(5, result.errors().get(0).line());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Book>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bookRepository).insertAll(inserted.capture());
+        assertEquals(1, inserted.getValue().size());
+        assertEquals(100L, inserted.getValue().get(0).getId());
+        assertEquals(2, inserted.getValue().get(0).getAmount());
+        verify(bookRepository).incrementAmounts(Map.of(1L, 2));
+        assertEquals(List.of(100L), bookSearchIndex.search("domain design", 0, 10));
+    }
+
+    @Test
+    void importBooks_shouldReportMalformedJsonLines() {
+        ReflectionTestUtils.setField(bookService, "importBatchSize", 100);
+        runTransactionsInline();
+        when(bookRepository.allocateIds(1)).thenReturn(List.of(100L));
+
+        String ndjson = """
+                {"title": "Clean Code", "author": "Robert Martin", "amount": 3}
+                {"title": "Refactoring",
+                """;
+
+        BookImportResponse result = bookService.importBooks(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), BookImportFormat.NDJSON);
+
+        assertEquals(2, result.processed());
+        assertEquals(1, result.created());
+        assertEquals(1, result.failed());
+        assertEquals(2, result.errors().get(0).line());
+    }
+
+    @Test
+    void importBooks_shouldRejectFractionalAndNegativeAmounts() {
+        ReflectionTestUtils.setField(bookService, "importBatchSize", 100);
+        runTransactionsInline();
+
+        String ndjson = """
+                {"title": "Clean Code", "author": "Robert Martin", "amount": 2.5}
+                {"title": "Refactoring", "author": "Martin Fowler", "amount": -1}
+                """;
+
+        BookImportResponse result = bookService.importBooks(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), BookImportFormat.NDJSON);
+
+        assertEquals(2, result.failed());
+        assertEquals("amount: Amount must be a whole number", result.errors().get(0).message());
+        assertEquals("amount: Amount must be at least 1", result.errors().get(1).message());
+        verify(bookRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void importBooks_shouldClearCachedBooks_whenImportFailsAfterCommittedBatch() {
+        ReflectionTestUtils.setField(bookService, "importBatchSize", 1);
+        runTransactionsInline();
+        cacheManager.getCache(CacheConfig.BOOKS).put(1L, "stale");
+        when(bookRepository.allocateIds(1)).thenReturn(List.of(100L));
+
+        byte[] firstLine = "{\"title\": \"Clean Code\", \"author\": \"Robert Martin\"}\n".getBytes(StandardCharsets.UTF_8);
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+
+        assertThrows(BookImportException.class, () -> bookService.importBooks(
+                new SequenceInputStream(new ByteArrayInputStream(firstLine), broken), BookImportFormat.NDJSON));
+        verify(bookRepository).insertAll(any());
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS).get(1L));
+    }
+
+    private record BookAmountRow(Long id, Integer amount) implements BookAmount {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Integer getAmount() {
+            return amount;
+        }
+    }
+
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
@@ -0,0 +1,211 @@
+package com.library.library_management.service;
+
+import com.library.library_management.entity.Book;
+import com.library.library_management.entity.Member;
+import com.library.library_management.exception.BookNotAvailableException;
+import com.library.library_management.exception.HoldNotAllowedException;
+import com.library.library_management.repository.BookRepository;
+import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.repository.HoldRepository;
+import com.library.library_management.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class BorrowServiceConcurrencyTests {
+
+    private static final int THREADS = 16;
+
+    // Carts per member, each takes one copy of both books and stays within the borrow limit
+    private static final int CART_ROUNDS = 4;
+
+    // Books returned while the other members queue for them
+    private static final int HOLD_ROUNDS = 8;
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private BorrowRepository borrowRepository;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @AfterEach
+    void cleanup() {
+        holdRepository.deleteAll();
+        borrowRepository.deleteAll();
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    void borrowBook_shouldHandOutLastCopyExactlyOnce() throws Exception {
+        Book book = bookRepository.save(new Book("Last Copy", "Jane Austen", 1));
+
+        int borrowed = hammer(book.getId());
+
+        assertEquals(1, borrowed);
+        assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getAmount());
+        assertEquals(1, borrowRepository.count());
+    }
+
+    @Test
+    void borrowBook_shouldNeverDriveStockNegative() throws Exception {
+        Book book = bookRepository.save(new Book("Few Copies", "Jane Austen", 5));
+
+        int borrowed = hammer(book.getId());
+
+        assertEquals(5, borrowed);
+        assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getAmount());
+        assertEquals(5, borrowRepository.count());
+    }
+
+    @Test
+    void borrowBooks_opposingCarts_shouldAllSucceedWithoutDeadlock() throws Exception {
+        Long first = bookRepository.save(new Book("First Book", "Jane Austen", 100)).getId();
+        Long second = bookRepository.save(new Book("Second Book", "Jane Austen", 100)).getId();
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            memberIds.add(memberRepository.save(new Member("Member " + i)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                Long memberId = memberIds.get(i);
+                // Half of the carts list the books the other way round
+                List<Long> cart = i % 2 == 0 ? List.of(first, second) : List.of(second, first);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < CART_ROUNDS; round++) {
+                        borrowService.borrowBooks(memberId, cart);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int borrowed = THREADS * CART_ROUNDS;
+        assertEquals(100 - borrowed, bookRepository.findById(first).orElseThrow().getAmount());
+        assertEquals(100 - borrowed, bookRepository.findById(second).orElseThrow().getAmount());
+        assertEquals(2L * borrowed, borrowRepository.count());
+    }
+
+    @Test
+    void returnBook_racingHolds_shouldNeverLeaveCopyOnShelfWhileHeld() throws Exception {
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            memberIds.add(memberRepository.save(new Member("Member " + i)).getId());
+        }
+        Long borrower = memberIds.get(0);
+
+        for (int round = 0; round < HOLD_ROUNDS; round++) {
+            Long bookId = bookRepository.save(new Book("Held Book " + round, "Jane Austen", 1)).getId();
+            borrowService.borrowBook(borrower, bookId);
+            Long borrowId = borrowRepository.findByMemberIdAndReturnDateIsNullAndIdGreaterThanOrderByIdAsc(
+                    borrower, 0L, Limit.of(1)).get(0).getId();
+
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            try {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    borrowService.returnBook(borrowId);
+                    return null;
+                }));
+                for (Long memberId : memberIds.subList(1, THREADS)) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            holdService.placeHold(memberId, bookId);
+                        } catch (HoldNotAllowedException e) {
+                            // The copy was back on the shelf before this hold
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            int amount = bookRepository.findById(bookId).orElseThrow().getAmount();
+            long holds = holdRepository.findByBookIdOrderByIdAsc(bookId, Limit.unlimited()).size();
+            assertTrue(amount == 0 || holds == 0, "copy on the shelf while " + holds + " members hold the book");
+        }
+    }
+
+    // Starts one borrower per thread at the same instant and returns how many of them got a copy
+    private int hammer(Long bookId) throws Exception {
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            memberIds.add(memberRepository.save(new Member("Member " + i)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger borrowed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Long memberId : memberIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        borrowService.borrowBook(memberId, bookId);
+                        borrowed.incrementAndGet();
+                    } catch (BookNotAvailableException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS, borrowed.get() + rejected.get());
+        return borrowed.get();
+    }
+}
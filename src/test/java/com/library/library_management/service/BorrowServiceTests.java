@@ -1,32 +1,56 @@
 package com.library.library_management.service;
 
+import com.library.library_management.circulation.BookAvailability;
+import com.library.library_management.circulation.CirculationCounters;
+import com.library.library_management.circulation.CirculationEventLog;
+import com.library.library_management.circulation.MemberLoanCounter;
+import com.library.library_management.circulation.OverdueLoan;
+import com.library.library_management.circulation.OverdueTracker;
+import com.library.library_management.config.PaginationProperties;
+import com.library.library_management.dto.BatchReturnResponse;
 import com.library.library_management.dto.BorrowResponse;
+import com.library.library_management.dto.OverdueLoanResponse;
+import com.library.library_management.dto.PageResponse;
 import com.library.library_management.dto.mapper.BorrowMapper;
 import com.library.library_management.entity.Book;
 import com.library.library_management.entity.Borrow;
+import com.library.library_management.entity.Hold;
 import com.library.library_management.entity.Member;
 import com.library.library_management.exception.*;
 import com.library.library_management.repository.BookRepository;
 import com.library.library_management.repository.BorrowRepository;
+import com.library.library_management.repository.HoldRepository;
 import com.library.library_management.repository.MemberRepository;
+import com.library.library_management.repository.TitleCount;
+import com.library.library_management.search.MemberNameIndex;
 import com.library.library_management.service.impl.BorrowServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,12 +68,43 @@ public class BorrowServiceTests {
     @Mock
     private MemberRepository memberRepository;
 
+    @Mock
+    private HoldRepository holdRepository;
+
     @Mock
     private BorrowMapper borrowMapper;
 
+    @Mock
+    private MemberService memberService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+
+    @Mock
+    private CirculationCounters circulationCounters;
+
+    @Mock
+    private MemberLoanCounter memberLoanCounter;
+
+    @Mock
+    private MemberNameIndex memberNameIndex;
+
+    @Mock
+    private OverdueTracker overdueTracker;
+
+    @Mock
+    private CirculationEventLog circulationEventLog;
+
+    @Mock
+    private BookAvailability bookAvailability;
+
     @BeforeEach
     void setup() {
         ReflectionTestUtils.setField(borrowService, "borrowLimit", 2);
+        ReflectionTestUtils.setField(borrowService, "loanDays", 14);
     }
 
     @Test
@@ -61,63 +116,226 @@ public class BorrowServiceTests {
         Member member = new Member("John Doe");
         member.setId(memberId);
 
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
-        when(borrowRepository.countByMemberIdAndReturnDateIsNull(memberId)).thenReturn(0);
-        when(memberRepository.findById(memberId)).thenReturn(Optional.of(member));
+        when(memberLoanCounter.tryAcquire(memberId, 1, 2)).thenReturn(true);
+        when(memberService.existsById(memberId)).thenReturn(true);
+        when(bookRepository.decrementAmountIfAvailable(bookId)).thenReturn(1);
+        when(memberRepository.getReferenceById(memberId)).thenReturn(member);
+        when(bookRepository.getReferenceById(bookId)).thenReturn(book);
 
         borrowService.borrowBook(memberId, bookId);
 
-        assertEquals(2, book.getAmount());
+        verify(bookRepository).decrementAmountIfAvailable(bookId);
         verify(borrowRepository).save(any(Borrow.class));
-        verify(bookRepository).save(book);
+        verify(circulationCounters).borrowed(bookId, "Title", 1);
+        verify(bookAvailability).adjust(bookId, -1);
+        verify(overdueTracker).schedule(any(), eq(bookId), eq(memberId), eq(LocalDate.now().plusDays(14)));
+        verify(circulationEventLog).borrowed(any(), eq(bookId), eq(memberId));
+        verify(bookRepository, never()).save(any(Book.class));
     }
 
     @Test
     void borrowBook_shouldThrow_whenBookNotFound() {
-        when(bookRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(memberLoanCounter.tryAcquire(1L, 1, 2)).thenReturn(true);
+        when(memberService.existsById(anyLong())).thenReturn(true);
+        when(bookRepository.decrementAmountIfAvailable(anyLong())).thenReturn(0);
+        when(bookRepository.existsById(anyLong())).thenReturn(false);
+
         assertThrows(BookNotFoundException.class, () -> borrowService.borrowBook(1L, 1L));
+        verify(borrowRepository, never()).save(any(Borrow.class));
     }
 
     @Test
     void borrowBook_shouldThrow_whenBookNotAvailable() {
-        Book book = new Book("Title", "Author", 0);
-        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
+        when(memberLoanCounter.tryAcquire(1L, 1, 2)).thenReturn(true);
+        when(memberService.existsById(anyLong())).thenReturn(true);
+        when(bookRepository.decrementAmountIfAvailable(anyLong())).thenReturn(0);
+        when(bookRepository.existsById(anyLong())).thenReturn(true);
+
         assertThrows(BookNotAvailableException.class, () -> borrowService.borrowBook(1L, 1L));
+        verify(borrowRepository, never()).save(any(Borrow.class));
     }
 
     @Test
     void borrowBook_shouldThrow_whenLimitExceeded() {
-        Book book = new Book("Title", "Author", 1);
-        Member member = new Member("John Doe");
-        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
-        when(borrowRepository.countByMemberIdAndReturnDateIsNull(anyLong())).thenReturn(2);
+        when(memberService.existsById(1L)).thenReturn(true);
+        when(memberLoanCounter.tryAcquire(1L, 1, 2)).thenReturn(false);
+
         assertThrows(BorrowLimitExceededException.class, () -> borrowService.borrowBook(1L, 1L));
+        verify(bookRepository, never()).decrementAmountIfAvailable(anyLong());
     }
 
     @Test
     void borrowBook_shouldThrow_whenMemberNotFound() {
+        when(memberService.existsById(anyLong())).thenReturn(false);
+
+        assertThrows(MemberNotFoundException.class, () -> borrowService.borrowBook(1L, 1L));
+        verify(memberLoanCounter, never()).tryAcquire(anyLong(), anyInt(), anyInt());
+        verify(bookRepository, never()).decrementAmountIfAvailable(anyLong());
+    }
+
+    @Test
+    void borrowBook_shouldThrow_whenOtherMemberIsFirstInHoldQueue() {
         Book book = new Book("Title", "Author", 1);
+        book.setId(5L);
+        Hold hold = new Hold(book, new Member("Jane Doe"), LocalDateTime.now());
+        hold.getMember().setId(2L);
 
-        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
-        when(borrowRepository.countByMemberIdAndReturnDateIsNull(anyLong())).thenReturn(0);
-        when(memberRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(memberService.existsById(1L)).thenReturn(true);
+        when(memberLoanCounter.tryAcquire(1L, 1, 2)).thenReturn(true);
+        when(holdRepository.findFirstInQueues(List.of(5L))).thenReturn(List.of(hold));
 
-        assertThrows(MemberNotFoundException.class, () -> borrowService.borrowBook(1L, 1L));
+        assertThrows(BookNotAvailableException.class, () -> borrowService.borrowBook(1L, 5L));
+        verify(bookRepository, never()).decrementAmountIfAvailable(anyLong());
+    }
+
+    @Test
+    void borrowBook_shouldUseUpOwnHold_whenFirstInHoldQueue() {
+        Book book = new Book("Title", "Author", 1);
+        book.setId(5L);
+        Member member = new Member("John Doe");
+        member.setId(1L);
+        Hold hold = new Hold(book, member, LocalDateTime.now());
+        hold.setId(10L);
+
+        when(memberService.existsById(1L)).thenReturn(true);
+        when(memberLoanCounter.tryAcquire(1L, 1, 2)).thenReturn(true);
+        when(holdRepository.findFirstInQueues(List.of(5L))).thenReturn(List.of(hold));
+        when(bookRepository.decrementAmountIfAvailable(5L)).thenReturn(1);
+        when(bookRepository.getReferenceById(5L)).thenReturn(book);
+
+        borrowService.borrowBook(1L, 5L);
+
+        verify(holdRepository).claim(10L);
+        verify(borrowRepository).save(any(Borrow.class));
+    }
+
+    @Test
+    void checkOutToHolders_shouldHandAddedCopiesToHoldersInQueueOrder() {
+        Book book = new Book("Title", "Author", 3);
+        book.setId(5L);
+        Member member = new Member("Mary Watson");
+        member.setId(3L);
+        Hold hold = new Hold(book, member, LocalDateTime.now());
+        hold.setId(11L);
+
+        when(holdRepository.findByBookIdOrderByIdAsc(5L, Limit.of(10))).thenReturn(List.of(hold)).thenReturn(List.of());
+        when(memberLoanCounter.tryAcquire(3L, 1, 2)).thenReturn(true);
+        when(holdRepository.claim(11L)).thenReturn(1);
+
+        borrowService.checkOutToHolders(book, 3);
+
+        assertEquals(2, book.getAmount());
+        verify(borrowRepository).save(any(Borrow.class));
+        verify(circulationCounters).borrowed(5L, "Title", 1);
+        verify(circulationEventLog).borrowed(any(), eq(5L), eq(3L));
     }
 
     @Test
     void returnBook_shouldSucceed() {
+        Book book = new Book("Title", "Author", 2);
+        book.setId(5L);
+        Member member = new Member("John Doe");
+        member.setId(7L);
         Borrow borrow = new Borrow();
         borrow.setId(1L);
-        borrow.setBook(new Book("Title", "Author", 2));
+        borrow.setBook(book);
+        borrow.setMember(member);
 
         when(borrowRepository.findById(1L)).thenReturn(Optional.of(borrow));
+        when(borrowRepository.markReturned(eq(1L), any(LocalDate.class))).thenReturn(1);
 
         borrowService.returnBook(1L);
 
-        assertNotNull(borrow.getReturnDate());
-        assertEquals(3, borrow.getBook().getAmount());
-        verify(bookRepository).save(borrow.getBook());
+        verify(bookRepository).incrementAmount(5L);
+        verify(circulationCounters).returned(5L, 1);
+        verify(bookAvailability).adjust(5L, 1);
+        verify(circulationEventLog).returned(1L, 5L, 7L);
+        verify(circulationEventLog, never()).borrowed(any(), any(), any());
+    }
+
+    @Test
+    void returnBook_shouldCheckOutCopyToNextHolderWithinLimit() {
+        Book book = new Book("Title", "Author", 0);
+        book.setId(5L);
+        Member returning = new Member("John Doe");
+        returning.setId(1L);
+        Member atLimit = new Member("Jane Doe");
+        atLimit.setId(2L);
+        Member waiting = new Member("Mary Watson");
+        waiting.setId(3L);
+        Borrow borrow = new Borrow(book, returning, LocalDate.now(), LocalDate.now().plusDays(14));
+        borrow.setId(1L);
+        Hold first = new Hold(book, atLimit, LocalDateTime.now());
+        first.setId(10L);
+        Hold second = new Hold(book, waiting, LocalDateTime.now());
+        second.setId(11L);
+
+        when(borrowRepository.findById(1L)).thenReturn(Optional.of(borrow));
+        when(borrowRepository.markReturned(eq(1L), any(LocalDate.class))).thenReturn(1);
+        when(holdRepository.findByBookIdOrderByIdAsc(5L, Limit.of(10))).thenReturn(List.of(first, second));
+        when(memberLoanCounter.tryAcquire(2L, 1, 2)).thenReturn(false);
+        when(memberLoanCounter.tryAcquire(3L, 1, 2)).thenReturn(true);
+        when(holdRepository.claim(11L)).thenReturn(1);
+
+        borrowService.returnBook(1L);
+
+        verify(bookRepository).lockAllById(List.of(5L));
+        ArgumentCaptor<Borrow> assigned = ArgumentCaptor.forClass(Borrow.class);
+        verify(borrowRepository).save(assigned.capture());
+        assertEquals(waiting, assigned.getValue().getMember());
+        assertEquals(LocalDate.now().plusDays(14), assigned.getValue().getDueDate());
+        verify(holdRepository, never()).claim(10L);
+        verify(bookRepository, never()).incrementAmount(anyLong());
+        verify(circulationCounters, never()).returned(anyLong(), anyLong());
+        verify(memberLoanCounter).release(1L, 1);
+        verify(circulationEventLog).returned(1L, 5L, 1L);
+        verify(circulationEventLog).borrowed(any(), eq(5L), eq(3L));
+    }
+
+    @Test
+    void returnBook_shouldReleaseLoanOnce_whenHoldWasClaimedConcurrently() {
+        Book book = new Book("Title", "Author", 0);
+        book.setId(5L);
+        Member returning = new Member("John Doe");
+        returning.setId(1L);
+        Member cancelled = new Member("Jane Doe");
+        cancelled.setId(2L);
+        Member waiting = new Member("Mary Watson");
+        waiting.setId(3L);
+        Borrow borrow = new Borrow(book, returning, LocalDate.now(), LocalDate.now().plusDays(14));
+        borrow.setId(1L);
+        Hold first = new Hold(book, cancelled, LocalDateTime.now());
+        first.setId(10L);
+        Hold second = new Hold(book, waiting, LocalDateTime.now());
+        second.setId(11L);
+
+        when(borrowRepository.findById(1L)).thenReturn(Optional.of(borrow));
+        when(borrowRepository.markReturned(eq(1L), any(LocalDate.class))).thenReturn(1);
+        when(holdRepository.findByBookIdOrderByIdAsc(5L, Limit.of(10))).thenReturn(List.of(first, second));
+        when(memberLoanCounter.tryAcquire(anyLong(), eq(1), eq(2))).thenReturn(true);
+        when(holdRepository.claim(10L)).thenReturn(0);
+        when(holdRepository.claim(11L)).thenReturn(1);
+
+        borrowService.returnBook(1L);
+
+        ArgumentCaptor<Borrow> assigned = ArgumentCaptor.forClass(Borrow.class);
+        verify(borrowRepository).save(assigned.capture());
+        assertEquals(waiting, assigned.getValue().getMember());
+        verify(memberLoanCounter).release(2L, 1);
+        verify(memberLoanCounter, never()).release(3L, 1);
+    }
+
+    @Test
+    void returnBook_shouldThrow_whenReturnedConcurrently() {
+        Borrow borrow = new Borrow();
+        borrow.setId(1L);
+        borrow.setBook(new Book("Title", "Author", 2));
+
+        when(borrowRepository.findById(1L)).thenReturn(Optional.of(borrow));
+        when(borrowRepository.markReturned(eq(1L), any(LocalDate.class))).thenReturn(0);
+
+        assertThrows(BorrowAlreadyReturnedException.class, () -> borrowService.returnBook(1L));
+        verify(bookRepository, never()).incrementAmount(anyLong());
     }
 
     @Test
@@ -131,35 +349,166 @@ public class BorrowServiceTests {
         Borrow borrow = new Borrow();
         borrow.setReturnDate(LocalDate.now());
         when(borrowRepository.findById(anyLong())).thenReturn(Optional.of(borrow));
-        assertThrows(IllegalStateException.class, () -> borrowService.returnBook(1L));
+        assertThrows(BorrowAlreadyReturnedException.class, () -> borrowService.returnBook(1L));
+    }
+
+    @Test
+    void borrowBooks_shouldBorrowAllBooks() {
+        Member member = new Member("John Doe");
+        member.setId(1L);
+        Book book1 = new Book("Title A", "Author A", 1);
+        book1.setId(10L);
+        Book book2 = new Book("Title B", "Author B", 2);
+        book2.setId(20L);
+
+        when(memberLoanCounter.tryAcquire(1L, 2, 2)).thenReturn(true);
+        when(memberService.existsById(1L)).thenReturn(true);
+        when(memberRepository.getReferenceById(1L)).thenReturn(member);
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book1, book2));
+        when(bookRepository.decrementAmountsIfAvailable(Map.of(10L, 1, 20L, 1))).thenReturn(List.of());
+        when(borrowRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(borrowMapper.toResponse(any(Borrow.class)))
+                .thenReturn(new BorrowResponse(1L, 10L, 1L, LocalDate.now(), LocalDate.now().plusDays(14), null));
+
+        List<BorrowResponse> responses = borrowService.borrowBooks(1L, List.of(10L, 20L));
+
+        assertEquals(2, responses.size());
+    }
+
+    @Test
+    void borrowBooks_shouldThrow_whenCartExceedsLimit() {
+        when(memberService.existsById(1L)).thenReturn(true);
+        when(memberLoanCounter.tryAcquire(1L, 2, 2)).thenReturn(false);
+
+        assertThrows(BorrowLimitExceededException.class, () -> borrowService.borrowBooks(1L, List.of(10L, 20L)));
+        verify(bookRepository, never()).decrementAmountsIfAvailable(any());
+    }
+
+    @Test
+    void borrowBooks_shouldThrow_whenBookNotFound() {
+        Book book = new Book("Title A", "Author A", 1);
+        book.setId(10L);
+
+        when(memberLoanCounter.tryAcquire(1L, 2, 2)).thenReturn(true);
+        when(memberService.existsById(1L)).thenReturn(true);
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book));
+
+        assertThrows(BookNotFoundException.class, () -> borrowService.borrowBooks(1L, List.of(10L, 20L)));
+        verify(bookRepository, never()).decrementAmountsIfAvailable(any());
+    }
+
+    @Test
+    void borrowBooks_shouldThrow_whenAnyBookNotAvailable() {
+        Book book1 = new Book("Title A", "Author A", 1);
+        book1.setId(10L);
+        Book book2 = new Book("Title B", "Author B", 0);
+        book2.setId(20L);
+
+        when(memberLoanCounter.tryAcquire(1L, 2, 2)).thenReturn(true);
+        when(memberService.existsById(1L)).thenReturn(true);
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book1, book2));
+        when(bookRepository.decrementAmountsIfAvailable(any())).thenReturn(List.of(20L));
+
+        assertThrows(BookNotAvailableException.class, () -> borrowService.borrowBooks(1L, List.of(10L, 20L)));
+        verify(borrowRepository, never()).saveAll(any());
     }
 
     @Test
-    void getBorrowedBooksByMember_shouldReturnList() {
+    void returnBooks_shouldReportEachBorrow() {
+        Book book = new Book("Title", "Author", 0);
+        book.setId(5L);
+        Member member = new Member("John Doe");
+        member.setId(7L);
+        Borrow open1 = new Borrow(book, member, LocalDate.now(), LocalDate.now().plusDays(14));
+        open1.setId(1L);
+        Borrow open2 = new Borrow(book, member, LocalDate.now(), LocalDate.now().plusDays(14));
+        open2.setId(2L);
+        Borrow closed = new Borrow(book, member, LocalDate.now(), LocalDate.now().plusDays(14));
+        closed.setId(3L);
+        closed.setReturnDate(LocalDate.now());
+
+        when(borrowRepository.findAllById(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(open1, open2, closed));
+        when(borrowRepository.markAllReturned(eq(List.of(1L, 2L)), any(LocalDate.class))).thenReturn(List.of(1L, 2L));
+
+        BatchReturnResponse result = borrowService.returnBooks(List.of(1L, 2L, 3L, 4L));
+
+        assertEquals(List.of(1L, 2L), result.returned());
+        assertEquals(List.of(4L), result.notFound());
+        assertEquals(List.of(3L), result.alreadyReturned());
+        verify(bookRepository).incrementAmounts(Map.of(5L, 2));
+        verify(memberLoanCounter).release(7L, 2);
+        verify(overdueTracker).cancel(1L);
+        verify(overdueTracker).cancel(2L);
+    }
+
+    @Test
+    void getBorrowedBooksByMember_shouldReturnPage() {
         Borrow borrow = new Borrow();
         borrow.setId(1L);
-        when(borrowRepository.findByMemberIdAndReturnDateIsNull(1L))
+        when(borrowRepository.findByMemberIdAndReturnDateIsNullAndIdGreaterThanOrderByIdAsc(1L, 0L, Limit.of(51)))
                 .thenReturn(List.of(borrow));
-        when(borrowMapper.toResponse(any())).thenReturn(new BorrowResponse(1L, 2L, 1L, LocalDate.now(), null));
+        when(borrowMapper.toResponse(any(Borrow.class)))
+                .thenReturn(new BorrowResponse(1L, 2L, 1L, LocalDate.now(), LocalDate.now().plusDays(14), null));
 
-        List<BorrowResponse> responses = borrowService.getBorrowedBooksByMember(1L);
+        PageResponse<BorrowResponse> page = borrowService.getBorrowedBooksByMember(1L, null, null);
 
-        assertEquals(1, responses.size());
+        assertEquals(1, page.content().size());
+        assertNull(page.nextCursor());
     }
 
     @Test
     void getBorrowedBooksByMemberName_shouldReturnList() {
-        Member member = new Member("Alice");
-        member.setId(1L);
         Borrow borrow = new Borrow();
 
-        when(memberRepository.findByName("Alice")).thenReturn(Optional.of(member));
-        when(borrowRepository.findByMemberIdAndReturnDateIsNull(1L)).thenReturn(List.of(borrow));
-        when(borrowMapper.toResponse(any())).thenReturn(new BorrowResponse(1L, 2L, 1L, LocalDate.now(), null));
+        when(memberNameIndex.isReady()).thenReturn(true);
+        when(memberNameIndex.findByName("alice")).thenReturn(List.of(1L));
+        when(borrowRepository.findByMemberIdInAndReturnDateIsNullOrderByIdAsc(List.of(1L))).thenReturn(List.of(borrow));
+        when(borrowMapper.toResponse(any(Borrow.class)))
+                .thenReturn(new BorrowResponse(1L, 2L, 1L, LocalDate.now(), LocalDate.now().plusDays(14), null));
 
-        List<BorrowResponse> responses = borrowService.getBorrowedBooksByMemberName("Alice");
+        List<BorrowResponse> responses = borrowService.getBorrowedBooksByMemberName("alice");
 
         assertEquals(1, responses.size());
+        verify(memberRepository, never()).findIdsByNameIgnoreCase(any());
+    }
+
+    @Test
+    void getBorrowedBooksByMemberName_shouldCoverMembersSharingTheName() {
+        when(memberNameIndex.isReady()).thenReturn(true);
+        when(memberNameIndex.findByName("Alice")).thenReturn(List.of(1L, 2L));
+        when(borrowRepository.findByMemberIdInAndReturnDateIsNullOrderByIdAsc(List.of(1L, 2L)))
+                .thenReturn(List.of(new Borrow(), new Borrow()));
+        when(borrowMapper.toResponse(any(Borrow.class)))
+                .thenReturn(new BorrowResponse(1L, 2L, 1L, LocalDate.now(), LocalDate.now().plusDays(14), null));
+
+        assertEquals(2, borrowService.getBorrowedBooksByMemberName("Alice").size());
+    }
+
+    @Test
+    void getBorrowedBooksByMemberName_shouldQueryDatabaseUntilIndexIsLoaded() {
+        when(memberNameIndex.isReady()).thenReturn(false);
+        when(memberRepository.findIdsByNameIgnoreCase("Nobody")).thenReturn(List.of());
+
+        assertThrows(MemberNotFoundException.class, () -> borrowService.getBorrowedBooksByMemberName("Nobody"));
+    }
+
+    @Test
+    void getOverdueLoans_shouldPageTheTracker() {
+        LocalDate dueDate = LocalDate.now().minusDays(3);
+        OverdueLoan first = new OverdueLoan(4L, 2L, 1L, dueDate);
+        OverdueLoan second = new OverdueLoan(9L, 2L, 1L, dueDate);
+
+        when(overdueTracker.isReady()).thenReturn(true);
+        when(overdueTracker.overdue(0L, 2)).thenReturn(List.of(first, second));
+        when(borrowMapper.toOverdueResponse(first, LocalDate.now()))
+                .thenReturn(new OverdueLoanResponse(4L, 2L, 1L, dueDate, 3));
+
+        PageResponse<OverdueLoanResponse> page = borrowService.getOverdueLoans(null, 1);
+
+        assertEquals(List.of(new OverdueLoanResponse(4L, 2L, 1L, dueDate, 3)), page.content());
+        assertEquals(4L, page.nextCursor());
+        verify(borrowRepository, never())
+                .findByReturnDateIsNullAndDueDateBeforeAndIdGreaterThanOrderByIdAsc(any(), any(), any());
     }
 
     @Test
@@ -168,43 +517,75 @@ public class BorrowServiceTests {
         assertTrue(borrowService.isBookCurrentlyBorrowed(1L));
     }
 
+    @Test
+    void findCurrentlyBorrowedBookIds_shouldUseCountersWhenLoaded() {
+        when(circulationCounters.isReady()).thenReturn(true);
+        when(circulationCounters.openBorrows(1L)).thenReturn(2L);
+        when(circulationCounters.openBorrows(2L)).thenReturn(0L);
+
+        assertEquals(Set.of(1L), borrowService.findCurrentlyBorrowedBookIds(List.of(1L, 2L)));
+        verifyNoInteractions(borrowRepository);
+    }
+
+    @Test
+    void findCurrentlyBorrowedBookIds_shouldQueryAllBooksAtOnce() {
+        when(borrowRepository.findBorrowedBookIds(List.of(1L, 2L))).thenReturn(List.of(2L));
+
+        assertEquals(Set.of(2L), borrowService.findCurrentlyBorrowedBookIds(List.of(1L, 2L)));
+    }
+
     @Test
     void isMemberCurrentlyBorrowing_shouldReturnTrue() {
-        when(borrowRepository.existsByMemberIdAndReturnDateIsNull(1L)).thenReturn(true);
+        when(memberLoanCounter.activeLoans(1L)).thenReturn(1);
         assertTrue(borrowService.isMemberCurrentlyBorrowing(1L));
     }
 
     @Test
-    void getDistinctBorrowedBookTitles_shouldReturnDistinctList() {
-        Book book1 = new Book("Title A", "Author A", 1);
-        Book book2 = new Book("Title B", "Author B", 1);
-        Borrow b1 = new Borrow(book1, null, LocalDate.now());
-        Borrow b2 = new Borrow(book2, null, LocalDate.now());
-        Borrow b3 = new Borrow(book1, null, LocalDate.now());
+    void getDistinctBorrowedBookTitles_shouldQueryWholeRangeWhenNotGiven() {
+        when(borrowRepository.findDistinctOpenBorrowTitles(any(LocalDate.class), any(LocalDate.class), eq(Limit.unlimited())))
+                .thenReturn(List.of("Title A", "Title B"));
 
-        when(borrowRepository.findByReturnDateIsNull()).thenReturn(List.of(b1, b2, b3));
+        List<String> result = borrowService.getDistinctBorrowedBookTitles(null, null, null);
 
-        List<String> result = borrowService.getDistinctBorrowedBookTitles();
+        assertEquals(List.of("Title A", "Title B"), result);
+    }
+
+    @Test
+    void getBorrowedBookTitlesWithCount_shouldKeepRankOrder() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        when(borrowRepository.countOpenBorrowsByTitle(from, to, Limit.of(2)))
+                .thenReturn(List.of(titleCount("Title B", 5L), titleCount("Title A", 2L)));
+
+        Map<String, Long> result = borrowService.getBorrowedBookTitlesWithCount(from, to, 2);
 
-        assertEquals(2, result.size());
-        assertTrue(result.contains("Title A"));
-        assertTrue(result.contains("Title B"));
+        assertEquals(List.of("Title B", "Title A"), List.copyOf(result.keySet()));
+        assertEquals(5L, result.get("Title B"));
+        assertEquals(2L, result.get("Title A"));
     }
 
     @Test
-    void getBorrowedBookTitlesWithCount_shouldReturnMap() {
-        Book book1 = new Book("Title A", "Author A", 1);
-        Book book2 = new Book("Title B", "Author B", 1);
-        Borrow b1 = new Borrow(book1, null, LocalDate.now());
-        Borrow b2 = new Borrow(book2, null, LocalDate.now());
-        Borrow b3 = new Borrow(book1, null, LocalDate.now());
+    void getBorrowedBookTitlesWithCount_shouldUseCountersWhenReady() {
+        when(circulationCounters.isReady()).thenReturn(true);
+        when(circulationCounters.titlesWithCount(3)).thenReturn(Map.of("Title A", 2L));
 
-        when(borrowRepository.findByReturnDateIsNull()).thenReturn(List.of(b1, b2, b3));
+        Map<String, Long> result = borrowService.getBorrowedBookTitlesWithCount(null, null, 3);
 
-        Map<String, Long> result = borrowService.getBorrowedBookTitlesWithCount();
+        assertEquals(Map.of("Title A", 2L), result);
+        verify(borrowRepository, never()).countOpenBorrowsByTitle(any(), any(), any());
+    }
 
-        assertEquals(2, result.size());
-        assertEquals(2L, result.get("Title A"));
-        assertEquals(1L, result.get("Title B"));
+    private static TitleCount titleCount(String title, Long count) {
+        return new TitleCount() {
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public Long getBorrowCount() {
+                return count;
+            }
+        };
     }
 }
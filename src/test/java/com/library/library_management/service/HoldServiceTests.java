@@ -0,0 +1,151 @@
+package com.library.library_management.service;
+
+import com.library.library_management.dto.HoldResponse;
+import com.library.library_management.dto.mapper.HoldMapper;
+import com.library.library_management.entity.Book;
+import com.library.library_management.entity.Hold;
+import com.library.library_management.entity.Member;
+import com.library.library_management.exception.HoldNotAllowedException;
+import com.library.library_management.exception.HoldNotFoundException;
+import com.library.library_management.exception.MemberNotFoundException;
+import com.library.library_management.repository.BookRepository;
+import com.library.library_management.repository.HoldRepository;
+import com.library.library_management.repository.MemberRepository;
+import com.library.library_management.service.impl.HoldServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HoldServiceTests {
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private MemberService memberService;
+
+    @Spy
+    private HoldMapper holdMapper = new HoldMapper();
+
+    @InjectMocks
+    private HoldServiceImpl holdService;
+
+    @Test
+    void placeHold_shouldQueueBehindEarlierHolds() {
+        Book book = book(0);
+        Member member = member(1L);
+
+        when(memberService.existsById(1L)).thenReturn(true);
+        when(bookRepository.findById(5L)).thenReturn(Optional.of(book));
+        when(bookRepository.lockIfUnavailable(5L)).thenReturn(1);
+        when(memberRepository.getReferenceById(1L)).thenReturn(member);
+        when(holdRepository.saveAndFlush(any(Hold.class))).thenAnswer(invocation -> {
+            Hold hold = invocation.getArgument(0);
+            hold.setId(12L);
+            return hold;
+        });
+        when(holdRepository.countByBookIdAndIdLessThan(5L, 12L)).thenReturn(2L);
+
+        HoldResponse response = holdService.placeHold(1L, 5L);
+
+        assertEquals(12L, response.id());
+        assertEquals(5L, response.bookId());
+        assertEquals(1L, response.memberId());
+        assertEquals(3, response.position());
+    }
+
+    @Test
+    void placeHold_shouldThrow_whenCopyIsAvailable() {
+        when(memberService.existsById(1L)).thenReturn(true);
+        when(bookRepository.findById(5L)).thenReturn(Optional.of(book(1)));
+        when(bookRepository.lockIfUnavailable(5L)).thenReturn(0);
+
+        assertThrows(HoldNotAllowedException.class, () -> holdService.placeHold(1L, 5L));
+        verify(holdRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void placeHold_shouldThrow_whenMemberAlreadyHoldsBook() {
+        when(memberService.existsById(1L)).thenReturn(true);
+        when(bookRepository.findById(5L)).thenReturn(Optional.of(book(0)));
+        when(bookRepository.lockIfUnavailable(5L)).thenReturn(1);
+        when(holdRepository.existsByBookIdAndMemberId(5L, 1L)).thenReturn(true);
+
+        assertThrows(HoldNotAllowedException.class, () -> holdService.placeHold(1L, 5L));
+        verify(holdRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void placeHold_shouldThrow_whenConcurrentHoldByMemberWins() {
+        when(memberService.existsById(1L)).thenReturn(true);
+        when(bookRepository.findById(5L)).thenReturn(Optional.of(book(0)));
+        when(bookRepository.lockIfUnavailable(5L)).thenReturn(1);
+        when(memberRepository.getReferenceById(1L)).thenReturn(member(1L));
+        when(holdRepository.saveAndFlush(any(Hold.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, "hold_book_member_key")));
+
+        HoldNotAllowedException exception = assertThrows(HoldNotAllowedException.class, () -> holdService.placeHold(1L, 5L));
+        assertEquals("Member already holds this book", exception.getMessage());
+    }
+
+    @Test
+    void placeHold_shouldThrow_whenMemberIsGone() {
+        when(memberService.existsById(1L)).thenReturn(false);
+
+        assertThrows(MemberNotFoundException.class, () -> holdService.placeHold(1L, 5L));
+        verify(holdRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void getHoldsByMember_shouldReportQueuePositions() {
+        Hold hold = new Hold(book(0), member(1L), LocalDateTime.now());
+        hold.setId(12L);
+
+        when(holdRepository.findByMemberIdOrderByIdAsc(1L)).thenReturn(List.of(hold));
+        when(holdRepository.countByBookIdAndIdLessThan(5L, 12L)).thenReturn(0L);
+
+        List<HoldResponse> holds = holdService.getHoldsByMember(1L);
+
+        assertEquals(1, holds.size());
+        assertEquals(1, holds.get(0).position());
+    }
+
+    @Test
+    void cancelHold_shouldThrow_whenHoldIsGone() {
+        when(holdRepository.claim(12L)).thenReturn(0);
+
+        assertThrows(HoldNotFoundException.class, () -> holdService.cancelHold(12L));
+    }
+
+    private static Book book(int amount) {
+        Book book = new Book("Title", "Jane Austen", amount);
+        book.setId(5L);
+        return book;
+    }
+
+    private static Member member(Long id) {
+        Member member = new Member("John Doe");
+        member.setId(id);
+        return member;
+    }
+}
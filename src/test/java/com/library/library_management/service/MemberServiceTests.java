@@ -1,20 +1,33 @@
 package com.library.library_management.service;
 
+import com.library.library_management.circulation.MemberLoanCounter;
+import com.library.library_management.config.PaginationProperties;
 import com.library.library_management.dto.CreateMemberRequest;
 import com.library.library_management.dto.MemberResponse;
+import com.library.library_management.dto.MemberSuggestion;
+import com.library.library_management.dto.PageResponse;
 import com.library.library_management.dto.UpdateMemberRequest;
+import com.library.library_management.dto.mapper.MemberMapper;
 import com.library.library_management.entity.Member;
 import com.library.library_management.exception.MemberNotFoundException;
 import com.library.library_management.repository.BorrowRepository;
 import com.library.library_management.repository.MemberRepository;
+import com.library.library_management.search.MemberNameIndex;
 import com.library.library_management.service.impl.MemberServiceImpl;
+import com.library.library_management.service.support.OptimisticRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -32,6 +45,24 @@ public class MemberServiceTests {
     @Mock
     private BorrowRepository borrowRepository;
 
+    @Mock
+    private MemberLoanCounter memberLoanCounter;
+
+    @Spy
+    private MemberMapper memberMapper = new MemberMapper();
+
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+
+    @Spy
+    private MemberNameIndex memberNameIndex = new MemberNameIndex();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OptimisticRetry optimisticRetry =
+            new OptimisticRetry(TransactionOperations.withoutTransaction(), meterRegistry, 3, Duration.ZERO);
+
     @InjectMocks
     private MemberServiceImpl memberService;
 
@@ -80,7 +111,7 @@ public class MemberServiceTests {
     }
 
     @Test
-    void getAllMembers_shouldReturnListOfMemberResponses() {
+    void getMembers_shouldReturnPageOfMemberResponses() {
         Member member1 = new Member();
         member1.setId(1L);
         member1.setName("Alice");
@@ -90,13 +121,14 @@ public class MemberServiceTests {
         member2.setName("Bob");
         ReflectionTestUtils.setField(member2, "membershipDate", LocalDate.of(2023, 6, 1));
 
-        when(memberRepository.findAll()).thenReturn(List.of(member1, member2));
+        when(memberRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51))).thenReturn(List.of(member1, member2));
 
-        List<MemberResponse> responses = memberService.getAllMembers();
+        PageResponse<MemberResponse> page = memberService.getMembers(null, null);
 
-        assertEquals(2, responses.size());
-        assertEquals("Alice", responses.get(0).name());
-        assertEquals("Bob", responses.get(1).name());
+        assertEquals(2, page.content().size());
+        assertEquals("Alice", page.content().get(0).name());
+        assertEquals("Bob", page.content().get(1).name());
+        assertNull(page.nextCursor());
     }
 
     @Test
@@ -120,6 +152,52 @@ public class MemberServiceTests {
         verify(memberRepository).save(existingMember);
     }
 
+    @Test
+    void autocompleteMembers_shouldFollowCreateRenameAndDelete() {
+        when(memberRepository.save(any(Member.class))).thenAnswer(invocation -> {
+            Member member = invocation.getArgument(0);
+            member.setId(member.getName().startsWith("Mary") ? 1L : 2L);
+            return member;
+        });
+        memberService.createMember(new CreateMemberRequest("Mary Jane Watson"));
+        memberService.createMember(new CreateMemberRequest("Marcus Aurelius"));
+
+        assertEquals(List.of(new MemberSuggestion(2L, "Marcus Aurelius"), new MemberSuggestion(1L, "Mary Jane Watson")),
+                memberService.autocompleteMembers("mar", null));
+        assertEquals(List.of(new MemberSuggestion(1L, "Mary Jane Watson")), memberService.autocompleteMembers("WAT", 5));
+
+        Member mary = new Member("Mary Jane Watson");
+        mary.setId(1L);
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(mary));
+        memberService.updateMemberById(1L, new UpdateMemberRequest("Mary Parker"));
+        when(borrowRepository.existsByMemberIdAndReturnDateIsNull(1L)).thenReturn(false);
+
+        assertEquals(List.of(), memberService.autocompleteMembers("wat", 5));
+        assertEquals(List.of(1L), memberNameIndex.findByName("mary parker"));
+
+        memberService.deleteMemberById(1L);
+
+        assertEquals(List.of(new MemberSuggestion(2L, "Marcus Aurelius")), memberService.autocompleteMembers("mar", 5));
+    }
+
+    @Test
+    void updateMemberById_shouldRenameAgainAfterConcurrentUpdate() {
+        Member stale = new Member("John Doe");
+        stale.setId(1L);
+        Member current = new Member("Johnny Doe");
+        current.setId(1L);
+
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(stale)).thenReturn(Optional.of(current));
+        when(memberRepository.save(any(Member.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Member.class, 1L))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        MemberResponse response = memberService.updateMemberById(1L, new UpdateMemberRequest("Jonathan Doe"));
+
+        assertEquals("Jonathan Doe", response.name());
+        assertEquals(1, meterRegistry.counter("library.optimistic.retries", "operation", "member.update").count());
+    }
+
     @Test
     void updateMemberById_nonExistingId_shouldThrowException() {
         UpdateMemberRequest request = new UpdateMemberRequest("Name");
@@ -140,6 +218,7 @@ public class MemberServiceTests {
         memberService.deleteMemberById(1L);
 
         verify(memberRepository).delete(member);
+        verify(memberLoanCounter).evict(1L);
     }
 
     @Test